@@ -0,0 +1,39 @@
+# Shared by the benchmark scripts in this directory; expects PORT to be set.
+
+now_millis() {
+    date +%s%3N
+}
+
+# Starts the command in the background and waits until GET /api/users/1
+# answers 200. Sets APP_PID, and TTFR_MILLIS (time to first request, or
+# "failed" if the process exits first).
+start_app() {
+    local start
+    start=$(now_millis)
+    "$@" > "${APP_LOG:-/dev/null}" 2>&1 &
+    APP_PID=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/users/1"; do
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            TTFR_MILLIS=failed
+            return 1
+        fi
+        sleep 0.01
+    done
+    TTFR_MILLIS=$(( $(now_millis) - start ))
+}
+
+stop_app() {
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+}
+
+# Resident set size of the running app in MB; "peak" for the high-water mark
+rss_mb() {
+    local field=VmRSS
+    [[ ${1:-} == peak ]] && field=VmHWM
+    awk -v field="$field:" '$1 == field { printf "%.0f", $2 / 1024 }' "/proc/$APP_PID/status"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
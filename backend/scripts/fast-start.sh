@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+#
+# Starts the backend in fast-start mode: Spring AOT initializers, an AppCDS
+# archive of the classes loaded during startup, and the fast-start Spring
+# profile. The first run builds the jar (mvn -Pfast-start package), unpacks it
+# and records the archive with a training run that exits once the context has
+# refreshed; later runs reuse both until the jar changes.
+#
+#   scripts/fast-start.sh [--lazy] [--rebuild] [application arguments...]
+#
+#   --lazy      lazy bean initialization (spring.main.lazy-initialization)
+#   --rebuild   rebuild the jar and the archive
+#
+# Beans switched by app.*.enabled are fixed when the jar is built; set
+# AOT_ARGS to change them for the build, e.g.
+#   AOT_ARGS=-Dapp.rate-limit.enabled=false scripts/fast-start.sh --rebuild
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=target/usermanagement-backend-1.0.0-SNAPSHOT.jar
+APP_DIR=target/fast-start
+ARCHIVE=$APP_DIR/application.jsa
+MAIN_CLASS=com.example.usermanagement.UserManagementApplication
+
+lazy=false
+rebuild=false
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --lazy) lazy=true; shift ;;
+        --rebuild) rebuild=true; shift ;;
+        *) break ;;
+    esac
+done
+
+if [[ $rebuild == true || ! -f $JAR || ! -d target/spring-aot ]]; then
+    mvn -B -q -Pfast-start -DskipTests -Dspring-boot.aot.jvmArguments="${AOT_ARGS:-}" package
+fi
+
+# AppCDS only archives classes from jar files on a literal class path, so the
+# nested jars are unpacked; the archive is tied to this exact class path.
+if [[ ! -f $ARCHIVE || $JAR -nt $ARCHIVE ]]; then
+    rm -rf "$APP_DIR"
+    mkdir -p "$APP_DIR/app"
+    (cd "$APP_DIR/app" && jar -xf ../../../$JAR)
+    (cd "$APP_DIR/app/BOOT-INF/classes" && jar -cf ../../../application.jar .)
+    ls "$APP_DIR"/app/BOOT-INF/lib/*.jar | sort > "$APP_DIR/classpath.txt"
+fi
+CLASSPATH="$APP_DIR/application.jar:$(paste -sd: "$APP_DIR/classpath.txt")"
+
+JAVA_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-start ${JAVA_OPTS:-})
+
+if [[ ! -f $ARCHIVE ]]; then
+    echo "Recording AppCDS archive $ARCHIVE ..."
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.context.exit=onRefresh \
+         "${JAVA_OPTS[@]}" -cp "$CLASSPATH" "$MAIN_CLASS" > "$APP_DIR/training.log" 2>&1
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto \
+     -Dspring.main.lazy-initialization=$lazy \
+     "${JAVA_OPTS[@]}" -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+#
+# Native image against the JVM builds of the backend: time to first request,
+# RSS once started, steady-state throughput and latency of the REST endpoints
+# under the load test harness (../loadtest, read-heavy mix), and RSS/peak RSS
+# after the load.
+#
+#   scripts/native-benchmark.sh [rate] [duration] [port]
+#
+#   jvm              java -jar, fast-start Spring profile
+#   jvm-fast-start   Spring AOT + AppCDS (scripts/fast-start.sh)
+#   native           mvn -Pnative native:compile (needs GraalVM native-image)
+#
+# The rate (default 200/s) is open-loop: raise it until the p99 of one build
+# climbs, and the throughput column shows where each saturates. The load
+# generator shares the host, so give it spare cores. SKIP_BUILD=1 reuses the
+# existing binary, jar and load test harness.
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RATE=${1:-200}
+DURATION=${2:-60s}
+PORT=${3:-8081}
+JAR=target/usermanagement-backend-1.0.0-SNAPSHOT.jar
+NATIVE=target/usermanagement-backend
+LOADTEST=../loadtest/target/loadtest.jar
+REPORTS=target/native-benchmark
+APP_ARGS=(--server.port=$PORT --app.rate-limit.enabled=false --spring.profiles.active=fast-start)
+
+source scripts/benchmark-common.sh
+
+# The AOT builds fix their beans at build time, so the rate limiter is turned off there
+export AOT_ARGS=-Dapp.rate-limit.enabled=false
+
+if [[ -z ${SKIP_BUILD:-} ]]; then
+    if command -v native-image > /dev/null; then
+        mvn -B -q -Pnative -DskipTests -Dspring-boot.aot.jvmArguments="$AOT_ARGS" native:compile
+    else
+        echo "native-image not found (GraalVM 22.3+ required); measuring the JVM builds only" >&2
+    fi
+    # Also leaves the -Pfast-start jar in target/ for the jvm mode
+    start_app scripts/fast-start.sh --rebuild --server.port=$PORT || true
+    stop_app
+    (cd ../loadtest && mvn -B -q -DskipTests package)
+fi
+
+run_mode() {
+    local name=$1
+    shift
+    local ttfr rss report
+    if ! start_app "$@"; then
+        printf '%-16s failed to start\n' "$name"
+        return
+    fi
+    ttfr=$TTFR_MILLIS
+    rss=$(rss_mb)
+    java -jar "$LOADTEST" --stack=rest --profile=read-heavy --rate="$RATE" --duration="$DURATION" \
+         --warmup=15s --rest-url="http://localhost:$PORT" --out="$REPORTS/$name" > "$REPORTS/$name.log" 2>&1
+    report="$REPORTS/$name/report.json"
+    printf '%-16s %7s ms %7s MB %10s req/s %9s ms %7s MB %7s MB\n' "$name" "$ttfr" "$rss" \
+        "$(grep -o '"throughput": [0-9.]*' "$report" | head -1 | cut -d' ' -f2)" \
+        "$(grep -o '"p99": [0-9.]*' "$report" | head -1 | cut -d' ' -f2)" \
+        "$(rss_mb)" "$(rss_mb peak)"
+    stop_app
+}
+
+mkdir -p "$REPORTS"
+printf '%-16s %10s %10s %16s %12s %10s %10s\n' mode startup rss throughput p99 rss-load rss-peak
+run_mode jvm java -jar "$JAR" "${APP_ARGS[@]}"
+run_mode jvm-fast-start scripts/fast-start.sh "${APP_ARGS[@]}"
+if [[ -x $NATIVE ]]; then
+    run_mode native "$NATIVE" "${APP_ARGS[@]}"
+else
+    printf '%-16s no binary at %s\n' native "$NATIVE"
+fi
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+#
+# Time to first request: milliseconds from launching the JVM until
+# GET /api/users/1 answers 200, for each startup mode, median of N runs.
+#
+#   scripts/startup-benchmark.sh [runs] [port]
+#
+# All modes run the same -Pfast-start jar; without -Dspring.aot.enabled the
+# generated initializers are ignored and startup is the regular one.
+#
+#   baseline         java -jar, default profile (eager beans)
+#   aot              Spring AOT initializers + fast-start profile
+#   aot+cds          ... + AppCDS archive (scripts/fast-start.sh)
+#   aot+cds+lazy     ... + lazy bean initialization
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${2:-8081}
+JAR=target/usermanagement-backend-1.0.0-SNAPSHOT.jar
+APP_DIR=target/fast-start
+APP_ARGS=(--server.port=$PORT --app.rate-limit.enabled=false)
+
+source scripts/benchmark-common.sh
+
+time_to_first_request() {
+    start_app "$@" || true
+    stop_app
+    echo "$TTFR_MILLIS"
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        times+=("$(time_to_first_request "$@")")
+    done
+    printf '%-14s %6s ms   (%s)\n' "$name" "$(printf '%s\n' "${times[@]}" | median)" "${times[*]}"
+}
+
+# Builds the fast-start jar and records the archive; not counted
+time_to_first_request scripts/fast-start.sh --rebuild "${APP_ARGS[@]}" > /dev/null
+
+CLASSPATH="$APP_DIR/application.jar:$(paste -sd: "$APP_DIR/classpath.txt")"
+MAIN_CLASS=com.example.usermanagement.UserManagementApplication
+
+run_mode baseline java -jar "$JAR" "${APP_ARGS[@]}"
+run_mode aot java -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start \
+    -cp "$CLASSPATH" "$MAIN_CLASS" "${APP_ARGS[@]}"
+run_mode aot+cds scripts/fast-start.sh "${APP_ARGS[@]}"
+run_mode aot+cds+lazy scripts/fast-start.sh --lazy "${APP_ARGS[@]}"
@@ -0,0 +1,94 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.jdbc.InstrumentedDataSource;
+import com.example.usermanagement.slowquery.SlowQueryLog;
+import com.example.usermanagement.slowquery.SlowQueryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+
+import javax.sql.DataSource;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Per-statement cost of the JDBC layer behind UserService.getUserById:
+ * a primary-key select on an in-memory H2 table, prepared and executed per call.
+ * <ul>
+ *   <li>plain: the datasource as is</li>
+ *   <li>show-sql: what spring.jpa.show-sql + format_sql did, formatting each
+ *       statement and printing it synchronously (to /dev/null here, so a
+ *       lower bound of the console cost)</li>
+ *   <li>slow-query log: InstrumentedDataSource with the SlowQueryLog, at a
+ *       threshold no statement reaches</li>
+ * </ul>
+ * Run with (after mvn -Pbenchmark test-compile): java -cp target/classes:target/test-classes:...
+ * com.example.usermanagement.benchmark.SlowQueryOverheadBenchmark [statements]
+ */
+public class SlowQueryOverheadBenchmark {
+
+    private static final String SQL = "select u1_0.id,u1_0.email,u1_0.first_name,u1_0.last_name,u1_0.phone "
+            + "from users u1_0 where u1_0.id=?";
+    private static final int ROWS = 1_000;
+
+    public static void main(String[] args) throws SQLException, IOException {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id bigint primary key, email varchar(100), "
+                    + "first_name varchar(50), last_name varchar(50), phone varchar(20))");
+            for (int i = 1; i <= ROWS; i++) {
+                statement.execute("insert into users values (" + i + ", 'user" + i + "@example.com', 'First"
+                        + i + "', 'Last" + i + "', '555-0100')");
+            }
+        }
+
+        SlowQueryProperties properties = new SlowQueryProperties();
+        DataSource slowQueryLog = new InstrumentedDataSource(h2,
+                List.of(new SlowQueryLog(properties, new SimpleMeterRegistry())));
+        PrintStream console = new PrintStream(new FileOutputStream("/dev/null"), true);
+
+        for (int round = 1; round <= 3; round++) {
+            System.out.printf("round %d, %,d statements%n", round, statements);
+            report("plain", run(h2, statements, null));
+            report("show-sql", run(h2, statements, console));
+            report("slow-query log", run(slowQueryLog, statements, null));
+        }
+    }
+
+    private static long run(DataSource dataSource, int statements, PrintStream showSql) throws SQLException {
+        long checksum = 0;
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < statements; i++) {
+                if (showSql != null) {
+                    showSql.println("Hibernate: " + FormatStyle.BASIC.getFormatter().format(SQL));
+                }
+                try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+                    statement.setLong(1, 1 + i % ROWS);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        rs.next();
+                        checksum += rs.getLong(1);
+                    }
+                }
+            }
+        }
+        if (checksum == 0) {
+            throw new IllegalStateException("no rows read");
+        }
+        return (System.nanoTime() - start) / statements;
+    }
+
+    private static void report(String name, long nanosPerStatement) {
+        System.out.printf("%-16s %,8d ns/statement%n", name, nanosPerStatement);
+    }
+}
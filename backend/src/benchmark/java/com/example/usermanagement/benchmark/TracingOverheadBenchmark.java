@@ -0,0 +1,130 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.UserManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost of the tracing spans on PUT /api/users/{id}, which runs validation,
+ * findById, existsByEmail, save and serialization. Three instances of the
+ * application run side by side, each with its own in-memory database and
+ * without the second-level cache, so every lookup also produces a JDBC span:
+ * <ul>
+ *   <li>off: management.tracing.enabled=false, app.tracing.enabled=false</li>
+ *   <li>1%, no app spans: Boot's HTTP server span only, at the default
+ *       sampling probability</li>
+ *   <li>1%: the default sampling probability</li>
+ *   <li>100%: every request traced, the worst case</li>
+ * </ul>
+ * One client thread sends updates back to back; the measurement windows of
+ * the instances are interleaved so JIT and machine noise affect all of them,
+ * and the median window is reported.
+ * Run with (after mvn -Pbenchmark test-compile): java -cp target/classes:target/test-classes:...
+ * com.example.usermanagement.benchmark.TracingOverheadBenchmark [warmup rounds] [rounds] [seconds per window]
+ */
+public class TracingOverheadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int warmupRounds = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        Map<String, String[]> modes = new LinkedHashMap<>();
+        modes.put("off", new String[] {"management.tracing.enabled=false", "app.tracing.enabled=false"});
+        modes.put("1%, no app spans", new String[] {"management.tracing.sampling.probability=0.01",
+                "app.tracing.enabled=false"});
+        modes.put("1%", new String[] {"management.tracing.sampling.probability=0.01"});
+        modes.put("100%", new String[] {"management.tracing.sampling.probability=1.0"});
+
+        HttpClient client = HttpClient.newHttpClient();
+        Map<String, ConfigurableApplicationContext> contexts = new LinkedHashMap<>();
+        Map<String, double[]> micros = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, String[]> mode : modes.entrySet()) {
+                contexts.put(mode.getKey(), start(mode.getKey(), mode.getValue()));
+                micros.put(mode.getKey(), new double[rounds]);
+            }
+            for (int round = -warmupRounds + 1; round <= rounds; round++) {
+                for (String mode : modes.keySet()) {
+                    long[] result = run(client, port(contexts.get(mode)), seconds);
+                    double perRequest = result[1] / 1000.0 / result[0];
+                    if (round > 0) {
+                        micros.get(mode)[round - 1] = perRequest;
+                    }
+                    System.out.printf("%-8s %-16s %8.1f us/request%n",
+                            round > 0 ? "round " + round : "warmup", mode, perRequest);
+                }
+            }
+        } finally {
+            contexts.values().forEach(ConfigurableApplicationContext::close);
+        }
+
+        double baseline = median(micros.get("off"));
+        for (Map.Entry<String, double[]> mode : micros.entrySet()) {
+            double median = median(mode.getValue());
+            System.out.printf("%-16s median %8.1f us/request  %+6.2f%%%n", mode.getKey(), median,
+                    (median / baseline - 1) * 100);
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Settings are passed as command-line arguments, which take precedence
+     * over application.properties
+     */
+    private static ConfigurableApplicationContext start(String name, String[] properties) {
+        List<String> args = new ArrayList<>(List.of("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:tracing-" + name.replaceAll("\\W", ""),
+                "app.rate-limit.enabled=false",
+                "app.cache.enabled=false",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(UserManagementApplication.class)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * @return requests completed and nanoseconds spent; alternates the phone
+     *         number so every update reaches the database
+     */
+    private static long[] run(HttpClient client, int port, int seconds) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/users/1");
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long start = System.nanoTime();
+        long requests = 0;
+        while (System.nanoTime() < end) {
+            String body = "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\","
+                    + "\"phone\":\"555-01" + (requests % 2 == 0 ? "01" : "02") + "\"}";
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("PUT returned " + response.statusCode());
+            }
+            requests++;
+        }
+        return new long[] {requests, System.nanoTime() - start};
+    }
+}
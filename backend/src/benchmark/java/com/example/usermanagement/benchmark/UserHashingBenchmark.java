@@ -0,0 +1,95 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HashSet/HashMap operations on 100k User entities, comparing the previous
+ * constant hashCode (every user in one bucket) with the uuid business key.
+ * The uuid variant runs three times to warm up; the constant-hash variant
+ * runs once, since every operation on it scans all users added so far.
+ * Run with (after mvn -Pbenchmark test-compile): java -cp target/classes:target/test-classes:...
+ * com.example.usermanagement.benchmark.UserHashingBenchmark [users] [constantHashUsers]
+ */
+public class UserHashingBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int constantHashCount = args.length > 1 ? Integer.parseInt(args[1]) : count;
+
+        List<User> users = new ArrayList<>(count);
+        List<ConstantHashUser> before = new ArrayList<>(constantHashCount);
+        for (long i = 1; i <= count; i++) {
+            User user = new User("First" + i, "Last" + i, "user" + i + "@example.com", null);
+            user.setId(i);
+            users.add(user);
+        }
+        for (long i = 1; i <= constantHashCount; i++) {
+            before.add(new ConstantHashUser(i));
+        }
+
+        System.out.printf("%,d users%n", count);
+        for (int round = 0; round < 3; round++) {
+            run("after:  uuid hashCode", users);
+        }
+        // Quadratic: at 100k this takes well over ten minutes
+        System.out.printf("%,d users%n", constantHashCount);
+        run("before: constant hashCode", before);
+    }
+
+    private static <T> void run(String name, List<T> users) {
+        long start = System.nanoTime();
+        Set<T> set = new HashSet<>();
+        for (T user : users) {
+            set.add(user);
+        }
+        long added = System.nanoTime();
+        int found = 0;
+        for (T user : users) {
+            if (set.contains(user)) {
+                found++;
+            }
+        }
+        long looked = System.nanoTime();
+        Map<T, Integer> map = new HashMap<>();
+        for (T user : users) {
+            map.merge(user, 1, Integer::sum);
+        }
+        long mapped = System.nanoTime();
+        if (found != users.size() || map.size() != users.size()) {
+            throw new IllegalStateException("lost users");
+        }
+        System.out.printf("  %-26s set.add %9.1f ms  set.contains %9.1f ms  map.merge %9.1f ms%n",
+                name, (added - start) / 1e6, (looked - added) / 1e6, (mapped - looked) / 1e6);
+    }
+
+    /**
+     * The previous User identity: equal by id, one hash for the whole class
+     */
+    private static final class ConstantHashUser {
+        private final Long id;
+
+        ConstantHashUser(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ConstantHashUser user = (ConstantHashUser) o;
+            return id != null && id.equals(user.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encode/decode time and payload size of a 100k-user list (GET /api/users)
+ * in JSON and CBOR, with Jackson's default bean serializer ("baseline",
+ * the @JsonSerialize annotation ignored) and with UserDTOSerializer plus
+ * Blackbird as configured in CodecConfig ("tuned").
+ * Run with (after mvn -Pbenchmark test-compile): java -cp target/classes:target/test-classes:...
+ * com.example.usermanagement.benchmark.UserSerializationBenchmark [users]
+ */
+public class UserSerializationBenchmark {
+
+    private static final TypeReference<List<UserDTO>> USER_LIST = new TypeReference<>() {
+    };
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<UserDTO> users = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            users.add(new UserDTO(i, "First" + i, "Last" + i, "user" + i + "@example.com",
+                    i % 3 == 0 ? null : "555-" + (1000 + i % 9000)));
+        }
+
+        ObjectMapper jsonBaseline = JsonMapper.builder().annotationIntrospector(new IgnoreJsonSerialize()).build();
+        ObjectMapper jsonTuned = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+        ObjectMapper cborBaseline = CBORMapper.builder().annotationIntrospector(new IgnoreJsonSerialize()).build();
+        ObjectMapper cborTuned = CBORMapper.builder().addModule(new BlackbirdModule()).build();
+        for (int round = 1; round <= 3; round++) {
+            System.out.printf("round %d, %,d users%n", round, count);
+            run("JSON baseline", jsonBaseline, users);
+            run("JSON tuned", jsonTuned, users);
+            run("CBOR baseline", cborBaseline, users);
+            run("CBOR tuned", cborTuned, users);
+        }
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<UserDTO> users) throws IOException {
+        ObjectWriter writer = mapper.writerFor(USER_LIST);
+        ObjectReader reader = mapper.readerFor(USER_LIST);
+
+        byte[] encoded = writer.writeValueAsBytes(users);
+        for (int i = 0; i < WARMUP; i++) {
+            writer.writeValueAsBytes(users);
+            reader.readValue(encoded);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encoded = writer.writeValueAsBytes(users);
+        }
+        long encodeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        List<UserDTO> decoded = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoded = reader.readValue(encoded);
+        }
+        long decodeNanos = (System.nanoTime() - start) / ITERATIONS;
+        if (decoded.size() != users.size()) {
+            throw new IllegalStateException("decoded " + decoded.size() + " users");
+        }
+
+        System.out.printf("%-14s encode %8.2f ms  decode %8.2f ms  size %,11d bytes%n",
+                name, encodeNanos / 1e6, decodeNanos / 1e6, encoded.length);
+    }
+
+    /**
+     * Disables the custom serializer to measure Jackson's default bean serialization
+     */
+    private static final class IgnoreJsonSerialize extends JacksonAnnotationIntrospector {
+        @Override
+        public Object findSerializer(com.fasterxml.jackson.databind.introspect.Annotated annotated) {
+            return null;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.usermanagement;
 
+import com.example.usermanagement.startup.UserApiRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(UserApiRuntimeHints.class)
 public class UserManagementApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,160 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV: comma separated, fields optionally in double quotes (which
+ * may then contain commas, line breaks and doubled quotes). The header row
+ * names the columns; firstName, lastName and email are required, phone is
+ * optional, snake_case names are accepted and other columns are ignored.
+ * Empty fields are read as missing values.
+ */
+final class CsvRowReader implements RowReader {
+
+    private static final String[] COLUMNS = {"firstname", "lastname", "email", "phone"};
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private boolean unterminatedQuote;
+    private long line = 1;
+
+    /** Position of each of COLUMNS in a row, -1 when the file has no such column */
+    private final int[] columnIndex = new int[COLUMNS.length];
+
+    CsvRowReader(Reader in) throws IOException {
+        this.in = in;
+        Arrays.fill(columnIndex, -1);
+        List<String> header = readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equals(name) && columnIndex[c] == -1) {
+                    columnIndex[c] = i;
+                }
+            }
+        }
+        if (columnIndex[0] == -1 || columnIndex[1] == -1 || columnIndex[2] == -1) {
+            throw new IllegalArgumentException("The CSV header must name the columns firstName, lastName and email");
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() == 1 && record.get(0).isEmpty() && !unterminatedQuote) {
+                continue;
+            }
+            CreateUserRequest user = new CreateUserRequest(
+                    value(record, 0), value(record, 1), value(record, 2), value(record, 3));
+            return new ImportRow(start, user, unterminatedQuote ? "Quoted field is not closed" : null);
+        }
+    }
+
+    private String value(List<String> record, int column) {
+        int index = columnIndex[column];
+        if (index == -1 || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    /**
+     * @return the fields of the next record, reusing one list, or null at
+     *         the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        unterminatedQuote = false;
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    unterminatedQuote = true;
+                    break;
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == EOF || c == '\n') {
+                line++;
+                break;
+            } else if (c == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                line++;
+                break;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
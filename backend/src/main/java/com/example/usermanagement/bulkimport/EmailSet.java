@@ -0,0 +1,100 @@
+package com.example.usermanagement.bulkimport;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.ToLongFunction;
+
+/**
+ * Emails seen so far in one import, for spotting duplicates within the file.
+ * Only a 64-bit hash of each address is kept, in an open-addressing table,
+ * so ten million addresses take a 128 MiB table (plus the previous 64 MiB
+ * one while it grows) instead of gigabytes of strings.
+ * <p>
+ * Two different addresses share a hash with a probability of about
+ * n^2 / 2^65 (3 in a million for n = 10 million), so a match only means the
+ * address may have been seen; UserImporter confirms it against the exact
+ * addresses of the batch and the database before reporting a duplicate.
+ */
+final class EmailSet {
+
+    private static final float MAX_LOAD = 0.75f;
+
+    private final ToLongFunction<String> hashFunction;
+
+    /** 0 marks a free slot; a hash of 0 is stored as 1 */
+    private long[] slots = new long[1 << 16];
+    private int size;
+
+    EmailSet() {
+        this(EmailSet::hash);
+    }
+
+    /**
+     * @param hashFunction replaces the default hash, e.g. to force collisions
+     */
+    EmailSet(ToLongFunction<String> hashFunction) {
+        this.hashFunction = hashFunction;
+    }
+
+    /**
+     * @return false if the email, or another with the same hash, was
+     *         already in the set
+     */
+    boolean add(String email) {
+        long hash = hashFunction.applyAsLong(email);
+        if (hash == 0) {
+            hash = 1;
+        }
+        if (insert(slots, hash)) {
+            if (++size > slots.length * MAX_LOAD) {
+                grow();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (table[index] != 0) {
+            if (table[index] == hash) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = hash;
+        return true;
+    }
+
+    private void grow() {
+        long[] larger = new long[slots.length * 2];
+        for (long hash : slots) {
+            if (hash != 0) {
+                insert(larger, hash);
+            }
+        }
+        slots = larger;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, followed by the murmur3 finalizer to
+     * spread the bits over the table index
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+/**
+ * Bulk import of users from CSV or NDJSON files. Imports write to the JPA
+ * datasource, so they are not available with sharded storage.
+ */
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+@ConditionalOnExpression(ImportConfig.ENABLED)
+public class ImportConfig {
+
+    static final String ENABLED = "${app.import.enabled:true} and !${app.sharding.enabled:false}";
+
+    private static final Logger log = LoggerFactory.getLogger(ImportConfig.class);
+
+    @Bean
+    public UserImporter userImporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                     UserRepository userRepository, EntityManagerFactory entityManagerFactory,
+                                     Validator validator, ObjectMapper objectMapper, ImportProperties properties) {
+        return new UserImporter(dataSource, transactionManager, userRepository, entityManagerFactory,
+                validator, objectMapper, properties);
+    }
+
+    @Bean
+    public ImportJobs importJobs(UserImporter userImporter, ImportProperties properties) {
+        return new ImportJobs(userImporter, properties);
+    }
+
+    /**
+     * Command line mode: start with app.import.file set to a CSV or NDJSON
+     * file (.ndjson/.jsonl for NDJSON); it is imported with progress logged
+     * every five seconds, and the application exits with 0 on success.
+     * Point spring.datasource.url at a persistent database for this.
+     */
+    @Bean
+    @ConditionalOnExpression("'${app.import.file:}' != ''")
+    public ApplicationRunner userImportRunner(ImportJobs importJobs, ImportProperties properties,
+                                              ApplicationContext context) {
+        return args -> {
+            Path file = Path.of(properties.getFile());
+            ImportJob job = importJobs.submit(file, ImportFormat.ofFileName(file.getFileName().toString()));
+            for (int tick = 1; !job.isFinished(); tick++) {
+                Thread.sleep(100);
+                if (tick % 50 == 0) {
+                    logProgress(job.status());
+                }
+            }
+            ImportJobStatus status = job.status();
+            logProgress(status);
+            status.errors().forEach(error -> log.warn("Line {}: {}", error.line(), error.message()));
+            if (status.failure() != null) {
+                log.error("Import failed: {}", status.failure());
+            }
+            System.exit(SpringApplication.exit(context, () -> job.getState() == ImportJob.State.COMPLETED ? 0 : 1));
+        };
+    }
+
+    private static void logProgress(ImportJobStatus status) {
+        log.info("Import {}: {} rows read ({}%), {} imported, {} rejected, {} duplicates, {} rows/s",
+                status.state(), status.rowsRead(),
+                status.bytesTotal() == 0 ? 100 : status.bytesRead() * 100 / status.bytesTotal(),
+                status.rowsImported(), status.rowsRejected(), status.rowsDuplicate(), status.rowsPerSecond());
+    }
+
+}
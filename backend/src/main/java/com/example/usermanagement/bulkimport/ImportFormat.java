@@ -0,0 +1,36 @@
+package com.example.usermanagement.bulkimport;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by the bulk import
+ */
+public enum ImportFormat {
+
+    /** Header row naming the columns (firstName, lastName, email, phone), then one user per row */
+    CSV(new MediaType("text", "csv")),
+
+    /** One JSON object per line, with the fields of POST /api/users */
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ImportFormat of(MediaType contentType) {
+        return NDJSON.mediaType.isCompatibleWith(contentType) ? NDJSON : CSV;
+    }
+
+    public static ImportFormat ofFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
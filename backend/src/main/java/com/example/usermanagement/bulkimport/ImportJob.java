@@ -0,0 +1,134 @@
+package com.example.usermanagement.bulkimport;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import. Counters are updated by the reader and writer
+ * threads and read by the status endpoint at any time.
+ */
+public class ImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String tenantId;
+    private final String source;
+    private final ImportFormat format;
+    private final int maxErrors;
+
+    private volatile State state = State.QUEUED;
+    private volatile String failure;
+    private volatile long bytesTotal;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong rowsDuplicate = new AtomicLong();
+
+    /** The first maxErrors rejected rows; guarded by itself */
+    private final List<ImportJobStatus.RowError> errors = new ArrayList<>();
+
+    ImportJob(String id, String tenantId, String source, ImportFormat format, int maxErrors) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.source = source;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * The tenant that submitted the import; its users are created there
+     */
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void start(long bytesTotal) {
+        this.bytesTotal = bytesTotal;
+        this.startedAt = Instant.now();
+        this.state = State.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    void fail(String reason) {
+        failure = reason;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+
+    void bytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    void rowsRead(long rows) {
+        rowsRead.addAndGet(rows);
+    }
+
+    void imported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    void rejected(ImportRow row) {
+        rowsRejected.incrementAndGet();
+        error(row);
+    }
+
+    void duplicate(ImportRow row) {
+        rowsDuplicate.incrementAndGet();
+        error(row);
+    }
+
+    private void error(ImportRow row) {
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportJobStatus.RowError(row.line(), row.error()));
+            }
+        }
+    }
+
+    public ImportJobStatus status() {
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        long millis = started == null ? 0
+                : Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+        long read = rowsRead.get();
+        List<ImportJobStatus.RowError> rowErrors;
+        synchronized (errors) {
+            rowErrors = List.copyOf(errors);
+        }
+        long errorCount = rowsRejected.get() + rowsDuplicate.get();
+        return new ImportJobStatus(id, state, source, format, failure,
+                bytesTotal, bytesRead.get(), read, rowsImported.get(), rowsRejected.get(), rowsDuplicate.get(),
+                millis == 0 ? 0 : read * 1000 / millis,
+                started, finished, rowErrors, errorCount > rowErrors.size());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.usermanagement.bulkimport;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What GET /api/users/import/{id} returns
+ * @param bytesTotal size of the file; bytesRead / bytesTotal is the progress
+ * @param rowsRejected rows that could not be parsed or failed validation
+ * @param rowsDuplicate rows whose email appeared earlier in the file or already belongs to a user
+ * @param rowsPerSecond rows read per second since the start
+ * @param errors the first app.import.max-errors rejected and duplicate rows
+ * @param errorsTruncated whether more rows were rejected than are listed
+ */
+public record ImportJobStatus(String id, ImportJob.State state, String source, ImportFormat format,
+                              String failure, long bytesTotal, long bytesRead, long rowsRead,
+                              long rowsImported, long rowsRejected, long rowsDuplicate, long rowsPerSecond,
+                              Instant startedAt, Instant finishedAt, List<RowError> errors,
+                              boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
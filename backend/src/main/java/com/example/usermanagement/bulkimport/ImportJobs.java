@@ -0,0 +1,129 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.tenant.TenantContext;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs imports one after another and keeps their status. Uploads are first
+ * spooled to a file, so a slow client never holds up the database writes.
+ */
+public class ImportJobs implements DisposableBean {
+
+    private final UserImporter importer;
+    private final ImportProperties properties;
+    private final ExecutorService executor;
+
+    /** In submission order; guarded by itself */
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    public ImportJobs(UserImporter importer, ImportProperties properties) {
+        this.importer = importer;
+        this.properties = properties;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Spool an upload and queue it for import
+     * @param body the file contents
+     * @param format how the file is encoded
+     * @param source shown in the job status
+     * @return the queued job
+     */
+    public ImportJob submit(InputStream body, ImportFormat format, String source) throws IOException {
+        Path spoolDirectory = properties.getSpoolDirectory() != null
+                ? Files.createDirectories(Path.of(properties.getSpoolDirectory()))
+                : Path.of(System.getProperty("java.io.tmpdir"));
+        Path file = Files.createTempFile(spoolDirectory, "user-import-", "." + format.name().toLowerCase());
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return queue(file, format, source, true);
+    }
+
+    /**
+     * Queue a file already on this machine for import
+     * @param file the file, which is left in place
+     * @param format how the file is encoded
+     * @return the queued job
+     */
+    public ImportJob submit(Path file, ImportFormat format) {
+        return queue(file, format, file.toString(), false);
+    }
+
+    /**
+     * @return the job, if it belongs to the current tenant
+     */
+    public Optional<ImportJob> find(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id))
+                    .filter(job -> job.getTenantId().equals(TenantContext.current()));
+        }
+    }
+
+    /**
+     * @return the retained jobs of the current tenant, oldest first
+     */
+    public List<ImportJob> list() {
+        String tenantId = TenantContext.current();
+        synchronized (jobs) {
+            return jobs.values().stream().filter(job -> job.getTenantId().equals(tenantId)).toList();
+        }
+    }
+
+    private ImportJob queue(Path file, ImportFormat format, String source, boolean deleteWhenDone) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), TenantContext.current(), source, format,
+                properties.getMaxErrors());
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            int finished = (int) jobs.values().stream().filter(ImportJob::isFinished).count();
+            for (Iterator<ImportJob> it = jobs.values().iterator(); finished > properties.getMaxRetainedJobs()
+                    && it.hasNext(); ) {
+                if (it.next().isFinished()) {
+                    it.remove();
+                    finished--;
+                }
+            }
+        }
+        executor.execute(() -> {
+            try {
+                importer.run(job, file);
+            } finally {
+                if (deleteWhenDone) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        });
+        return job;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.usermanagement.bulkimport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for bulk user imports (POST /api/users/import and the
+ * app.import.file command line mode)
+ */
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    private boolean enabled = true;
+
+    /** Rows per validation task and per insert transaction */
+    private int batchSize = 1000;
+
+    /** Threads validating rows; batches in flight are bounded by this plus one */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Row errors kept per job for the status endpoint; later ones are only counted */
+    private int maxErrors = 1000;
+
+    /** Finished jobs whose status is kept; the oldest are forgotten first */
+    private int maxRetainedJobs = 20;
+
+    /** Where uploads are spooled before they are imported; the system temp directory if unset */
+    private String spoolDirectory;
+
+    /** Import this CSV or NDJSON file at startup and exit (command line mode) */
+    private String file;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+
+    public void setMaxRetainedJobs(int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+
+    public String getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    public void setSpoolDirectory(String spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+
+/**
+ * One row of an import file
+ * @param line line number in the file where the row starts
+ * @param user the parsed fields; null when the row could not be parsed
+ * @param error why the row is rejected, or null while it is valid
+ */
+record ImportRow(long line, CreateUserRequest user, String error) {
+
+    ImportRow rejected(String reason) {
+        return new ImportRow(line, user, reason);
+    }
+}
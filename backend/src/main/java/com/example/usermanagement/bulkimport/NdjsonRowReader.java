@@ -0,0 +1,43 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Newline-delimited JSON: one object per line with the fields of
+ * POST /api/users; blank lines are skipped
+ */
+final class NdjsonRowReader implements RowReader {
+
+    private final BufferedReader in;
+    private final ObjectReader reader;
+    private long line;
+
+    NdjsonRowReader(Reader in, ObjectMapper objectMapper) {
+        this.in = new BufferedReader(in, 64 * 1024);
+        this.reader = objectMapper.readerFor(CreateUserRequest.class);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        try {
+            return new ImportRow(line, reader.readValue(text), null);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(line, null, "Line is not a JSON object with the user fields");
+        }
+    }
+}
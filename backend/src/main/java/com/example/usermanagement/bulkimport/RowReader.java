@@ -0,0 +1,16 @@
+package com.example.usermanagement.bulkimport;
+
+import java.io.IOException;
+
+/**
+ * Streams the rows of an import file without holding more than the current
+ * row in memory
+ */
+interface RowReader {
+
+    /**
+     * @return the next row, possibly already rejected because it could not
+     *         be parsed, or null at the end of the file
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,63 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.exception.ImportJobNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users/import")
+@ConditionalOnExpression(ImportConfig.ENABLED)
+public class UserImportController {
+
+    private final ImportJobs importJobs;
+
+    public UserImportController(ImportJobs importJobs) {
+        this.importJobs = importJobs;
+    }
+
+    /**
+     * POST /api/users/import
+     * Start importing the CSV (text/csv) or NDJSON (application/x-ndjson)
+     * file in the request body; the response points at the job status
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseEntity<ImportJobStatus> startImport(InputStream body, @RequestHeader HttpHeaders headers,
+                                                       @RequestParam(defaultValue = "upload") String name)
+            throws IOException {
+        ImportJob job = importJobs.submit(body, ImportFormat.of(headers.getContentType()), name);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/import/" + job.getId()))
+                .body(job.status());
+    }
+
+    /**
+     * GET /api/users/import
+     * Get the status of the recent imports, oldest first
+     */
+    @GetMapping
+    public ResponseEntity<List<ImportJobStatus>> getImports() {
+        return ResponseEntity.ok(importJobs.list().stream().map(ImportJob::status).toList());
+    }
+
+    /**
+     * GET /api/users/import/{id}
+     * Get the progress of an import, with throughput and rejected rows
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobStatus> getImport(@PathVariable String id) {
+        return importJobs.find(id)
+                .map(job -> ResponseEntity.ok(job.status()))
+                .orElseThrow(ImportJobNotFoundException::new);
+    }
+
+}
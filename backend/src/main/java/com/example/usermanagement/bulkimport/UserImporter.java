@@ -0,0 +1,350 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.cache.UserCacheRegions;
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Imports one file at a time in three stages:
+ * <ol>
+ *   <li>the calling thread streams rows from the file and cuts them into
+ *       batches of app.import.batch-size rows;</li>
+ *   <li>each batch is validated against the rules of POST /api/users as a
+ *       task in a fork-join pool of app.import.parallelism threads;</li>
+ *   <li>a writer thread takes the batches in file order, drops emails seen
+ *       earlier in the file or already in the database, and inserts the rest
+ *       with one JDBC batch and transaction per batch. Earlier batches are
+ *       committed by then, so an email that {@link EmailSet} may have seen in
+ *       one of them is confirmed by the database lookup.</li>
+ * </ol>
+ * At most parallelism + 1 batches wait for the writer, so memory use depends
+ * on the batch size and the email set, not on the size of the file.
+ */
+public class UserImporter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImporter.class);
+
+    /** uuid, created_at and updated_at come from the column defaults */
+    private static final String INSERT =
+            "INSERT INTO users (tenant_id, first_name, last_name, email, phone, change_seq) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Gives the rows of a batch their change feed positions once the rest of
+     * its transaction is done; see {@link #insertNew}
+     */
+    private static final String ASSIGN_CHANGE_SEQS =
+            "UPDATE users SET change_seq = ? - change_seq WHERE tenant_id = ? AND change_seq BETWEEN ? AND ?";
+
+    /** Provisional positions of a batch are -(batch * stride + 1) down to -(batch * stride + rows) */
+    private static final long PROVISIONAL_STRIDE = 1L << 31;
+
+    private static final String DUPLICATE_IN_FILE = "Duplicate email in file";
+
+    /** Queued after the last batch */
+    private static final ForkJoinTask<List<ImportRow>> END = ForkJoinTask.adapt(() -> List.of());
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int parallelism;
+    private final ForkJoinPool validators;
+    private final ExecutorService writer;
+
+    public UserImporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                        UserRepository userRepository, EntityManagerFactory entityManagerFactory,
+                        Validator validator, ObjectMapper objectMapper, ImportProperties properties) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = properties.getBatchSize();
+        this.parallelism = Math.max(1, properties.getParallelism());
+        this.validators = new ForkJoinPool(parallelism);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Import a file, recording progress and the outcome in the job
+     */
+    public void run(ImportJob job, Path file) {
+        Throwable failure = null;
+        Future<?> written = null;
+        try {
+            job.start(Files.size(file));
+            BlockingQueue<ForkJoinTask<List<ImportRow>>> batches = new ArrayBlockingQueue<>(parallelism + 1);
+            written = writer.submit(() -> TenantContext.call(job.getTenantId(), () -> {
+                write(job, batches);
+                return null;
+            }));
+            try (InputStream in = new ProgressInputStream(Files.newInputStream(file), job)) {
+                read(job, rowReader(job.getFormat(), in), batches, written);
+            } catch (Exception e) {
+                failure = e;
+            }
+            enqueue(batches, END, written);
+            written.get();
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        if (failure == null) {
+            job.complete();
+        } else if (failure instanceof IllegalArgumentException) {
+            job.fail(failure.getMessage());
+        } else {
+            log.error("Import {} failed", job.getId(), failure);
+            job.fail("Import stopped by an unexpected error, see the server log");
+        }
+        if (written != null && !written.isDone()) {
+            written.cancel(true);
+        }
+    }
+
+    private RowReader rowReader(ImportFormat format, InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return format == ImportFormat.NDJSON ? new NdjsonRowReader(reader, objectMapper) : new CsvRowReader(reader);
+    }
+
+    private void read(ImportJob job, RowReader rows, BlockingQueue<ForkJoinTask<List<ImportRow>>> batches,
+                      Future<?> written) throws IOException, InterruptedException {
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        for (ImportRow row = rows.next(); row != null; row = rows.next()) {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                job.rowsRead(batch.size());
+                if (!enqueue(batches, validate(batch), written)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            job.rowsRead(batch.size());
+            enqueue(batches, validate(batch), written);
+        }
+    }
+
+    /**
+     * @return false if the writer has stopped, after a failure
+     */
+    private static boolean enqueue(BlockingQueue<ForkJoinTask<List<ImportRow>>> batches,
+                                   ForkJoinTask<List<ImportRow>> batch, Future<?> written)
+            throws InterruptedException {
+        while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (written.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ForkJoinTask<List<ImportRow>> validate(List<ImportRow> batch) {
+        return validators.submit(() -> {
+            batch.replaceAll(this::validate);
+            return batch;
+        });
+    }
+
+    private ImportRow validate(ImportRow row) {
+        if (row.error() != null) {
+            return row;
+        }
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(row.user());
+        if (violations.isEmpty()) {
+            return row;
+        }
+        return row.rejected(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+    }
+
+    /**
+     * Overridden by tests to force hash collisions
+     */
+    EmailSet newEmailSet() {
+        return new EmailSet();
+    }
+
+    private void write(ImportJob job, BlockingQueue<ForkJoinTask<List<ImportRow>>> batches)
+            throws InterruptedException {
+        EmailSet emails = newEmailSet();
+        for (ForkJoinTask<List<ImportRow>> batch = batches.take(); batch != END; batch = batches.take()) {
+            List<ImportRow> accepted = new ArrayList<>(batchSize);
+            Set<String> batchEmails = new HashSet<>();
+            // Possibly in an earlier batch; inserted unless the database has the email by now
+            Set<ImportRow> seenBefore = new HashSet<>();
+            for (ImportRow row : batch.join()) {
+                if (row.error() != null) {
+                    job.rejected(row);
+                } else if (!batchEmails.add(row.user().getEmail())) {
+                    job.duplicate(row.rejected(DUPLICATE_IN_FILE));
+                } else {
+                    if (!emails.add(row.user().getEmail())) {
+                        seenBefore.add(row);
+                    }
+                    accepted.add(row);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                insert(job, accepted, seenBefore);
+            }
+        }
+    }
+
+    private void insert(ImportJob job, List<ImportRow> rows, Set<ImportRow> seenBefore) {
+        List<ImportRow> existing;
+        try {
+            existing = transaction.execute(status -> insertNew(job.getTenantId(), rows));
+        } catch (DuplicateKeyException e) {
+            // A user with one of the emails was created through the API in the meantime
+            existing = transaction.execute(status -> insertNew(job.getTenantId(), rows));
+        }
+        for (ImportRow row : existing) {
+            job.duplicate(row.rejected(seenBefore.contains(row)
+                    ? DUPLICATE_IN_FILE : "A user with this email address already exists"));
+        }
+        job.imported(rows.size() - existing.size());
+        // existsByEmail/findByEmail results are cached; the new emails must not be reported missing
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(UserCacheRegions.USERS_BY_EMAIL);
+    }
+
+    /**
+     * @return the rows left out because their email already belongs to a
+     *         user of the tenant
+     */
+    private List<ImportRow> insertNew(String tenantId, List<ImportRow> rows) {
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        List<Object> arguments = new ArrayList<>(rows.size() + 1);
+        arguments.add(tenantId);
+        rows.forEach(row -> arguments.add(row.user().getEmail()));
+        Set<String> taken = new HashSet<>(jdbc.queryForList(
+                "SELECT email FROM users WHERE tenant_id = ? AND email IN (" + placeholders + ")", String.class,
+                arguments.toArray()));
+        List<ImportRow> fresh = new ArrayList<>(rows.size());
+        List<ImportRow> existing = new ArrayList<>();
+        for (ImportRow row : rows) {
+            (taken.contains(row.user().getEmail()) ? existing : fresh).add(row);
+        }
+        if (fresh.isEmpty()) {
+            return existing;
+        }
+
+        // Taking positions locks the change counter until commit, which would hold up
+        // every other write for the whole batch; so the rows go in with negative
+        // placeholders unique to the batch, and get their positions in one statement last
+        long provisionalBase = jdbc.queryForObject("SELECT NEXT VALUE FOR user_import_batch_seq", Long.class)
+                * PROVISIONAL_STRIDE;
+        jdbc.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                CreateUserRequest user = fresh.get(i).user();
+                statement.setString(1, tenantId);
+                statement.setString(2, user.getFirstName());
+                statement.setString(3, user.getLastName());
+                statement.setString(4, user.getEmail());
+                statement.setString(5, user.getPhone());
+                statement.setLong(6, -(provisionalBase + i + 1));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return fresh.size();
+            }
+        });
+        long firstChangeSeq = userRepository.nextChangeSeqs(fresh.size()) - fresh.size() + 1;
+        jdbc.update(ASSIGN_CHANGE_SEQS, firstChangeSeq - provisionalBase - 1, tenantId,
+                -(provisionalBase + fresh.size()), -(provisionalBase + 1));
+        return existing;
+    }
+
+    @Override
+    public void destroy() {
+        writer.shutdownNow();
+        validators.shutdownNow();
+    }
+
+    /**
+     * Counts the bytes taken from the file, for the progress of the job
+     */
+    private static final class ProgressInputStream extends FilterInputStream {
+
+        private final ImportJob job;
+
+        ProgressInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.bytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                job.bytesRead(read);
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.usermanagement.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+@ConditionalOnProperty(prefix = "app.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserCacheConfig {
+
+    /**
+     * Caffeine-backed JCache manager with one cache per Hibernate region,
+     * created here rather than from a config file so sizes and TTLs come
+     * from application properties
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager userCacheManager(UserCacheProperties properties) {
+        // A manager of its own: the provider's default one is shared by every context in the JVM
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:user-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        createCache(cacheManager, UserCacheRegions.USERS, properties.getUsers(), properties);
+        createCache(cacheManager, UserCacheRegions.USERS_BY_EMAIL, properties.getUsersByEmail(), properties);
+        createCache(cacheManager, UserCacheRegions.DEFAULT_QUERY_RESULTS, properties.getUsersByEmail(), properties);
+        // Update timestamps must outlive every cached query result, so they are neither bounded nor expired
+        createCache(cacheManager, UserCacheRegions.UPDATE_TIMESTAMPS, null, properties);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer userCacheHibernateProperties(CacheManager userCacheManager,
+                                                                      UserCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", true);
+            hibernateProperties.put("hibernate.cache.use_query_cache", true);
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", userCacheManager);
+            // Every region is created above; a missing one is a configuration error
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            hibernateProperties.put("hibernate.generate_statistics", properties.isStatisticsEnabled());
+        };
+    }
+
+    @Bean
+    public UserCacheStatisticsEndpoint userCacheStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new UserCacheStatisticsEndpoint(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, UserCacheProperties.Region region,
+                                    UserCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores immutable disassembled entries, so copying them on every access buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(properties.isStatisticsEnabled());
+        if (region != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+
+}
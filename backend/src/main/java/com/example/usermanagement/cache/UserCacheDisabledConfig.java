@@ -0,0 +1,24 @@
+package com.example.usermanagement.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With app.cache.enabled=false. Hibernate would otherwise find the JCache
+ * region factory on the classpath by itself and cache the annotated entity
+ * and queries in unbounded caches of the provider's default manager.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.cache", name = "enabled", havingValue = "false")
+public class UserCacheDisabledConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer noUserCacheHibernateProperties() {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", false);
+            hibernateProperties.put("hibernate.cache.use_query_cache", false);
+        };
+    }
+}
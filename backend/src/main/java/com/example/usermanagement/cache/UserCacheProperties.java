@@ -0,0 +1,86 @@
+package com.example.usermanagement.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizes and lifetimes of the Hibernate second-level cache regions for users.
+ * Entries are evicted by size (least recently/frequently used) or once their
+ * time to live has passed since they were written.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class UserCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Collect Hibernate statistics, which back the /actuator/usercache hit rates */
+    private boolean statisticsEnabled = true;
+
+    private Region users = new Region(10_000, Duration.ofMinutes(10));
+    private Region usersByEmail = new Region(10_000, Duration.ofMinutes(5));
+
+    public static class Region {
+
+        private long maxEntries;
+
+        private Duration timeToLive;
+
+        public Region() {
+        }
+
+        public Region(long maxEntries, Duration timeToLive) {
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public Region getUsers() {
+        return users;
+    }
+
+    public void setUsers(Region users) {
+        this.users = users;
+    }
+
+    public Region getUsersByEmail() {
+        return usersByEmail;
+    }
+
+    public void setUsersByEmail(Region usersByEmail) {
+        this.usersByEmail = usersByEmail;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.usermanagement.cache;
+
+/**
+ * Names of the Hibernate second-level cache regions used for users
+ */
+public final class UserCacheRegions {
+
+    /** User entities by id */
+    public static final String USERS = "users";
+
+    /** Results of the findByEmail / existsByEmail queries */
+    public static final String USERS_BY_EMAIL = "users-by-email";
+
+    /** Hibernate's own regions, needed once the query cache is on */
+    static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private UserCacheRegions() {
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.usermanagement.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Hit rates of the user cache regions at /actuator/usercache; counters are
+ * zero unless app.cache.statistics-enabled is set
+ */
+@Endpoint(id = "usercache")
+public class UserCacheStatisticsEndpoint {
+
+    private final SessionFactory sessionFactory;
+
+    public UserCacheStatisticsEndpoint(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @ReadOperation
+    public CacheReport report() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return new CacheReport(
+                statistics.isStatisticsEnabled(),
+                statistics.getPrepareStatementCount(),
+                List.of(
+                        RegionReport.of(UserCacheRegions.USERS,
+                                statistics.getDomainDataRegionStatistics(UserCacheRegions.USERS)),
+                        RegionReport.of(UserCacheRegions.USERS_BY_EMAIL,
+                                statistics.getQueryRegionStatistics(UserCacheRegions.USERS_BY_EMAIL))));
+    }
+
+    public record CacheReport(boolean statisticsEnabled, long statementCount, List<RegionReport> regions) {
+    }
+
+    public record RegionReport(String region, long hits, long misses, long puts, double hitRate) {
+
+        static RegionReport of(String region, CacheRegionStatistics statistics) {
+            if (statistics == null) {
+                return new RegionReport(region, 0, 0, 0, 0.0);
+            }
+            long hits = statistics.getHitCount();
+            long misses = statistics.getMissCount();
+            long lookups = hits + misses;
+            return new RegionReport(region, hits, misses, statistics.getPutCount(),
+                    lookups == 0 ? 0.0 : (double) hits / lookups);
+        }
+    }
+}
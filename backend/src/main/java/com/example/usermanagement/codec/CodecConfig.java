@@ -0,0 +1,54 @@
+package com.example.usermanagement.codec;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+/**
+ * Serialization setup for the REST API: JSON by default, CBOR (RFC 8949)
+ * for clients that send {@code Accept: application/cbor} or post CBOR bodies.
+ * The schema of the CBOR user payloads is specs/main/contracts/user-dto.cddl.
+ */
+@Configuration
+public class CodecConfig {
+
+    /**
+     * Generates bytecode accessors instead of reflection for the remaining
+     * bean (de)serializers; Boot registers Module beans with its JSON ObjectMapper
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return accessorModule();
+    }
+
+    /**
+     * Added ahead of Boot's default converters; JSON stays the default
+     * because it is listed first in the produces of a request without Accept.
+     * Dates are written as RFC 3339 strings, the same as in JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        CBORMapper mapper = CBORMapper.builder()
+                .addModule(accessorModule())
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+
+    /**
+     * A native image cannot define classes at runtime, so Blackbird is left
+     * out there and Jackson keeps its reflection-based accessors
+     */
+    private static Module accessorModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("no-blackbird") : new BlackbirdModule();
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.usermanagement.codec;
+
+import com.example.usermanagement.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for UserDTO, used for both JSON and CBOR.
+ * <p>
+ * Field names are {@link SerializedString}s, which keep their encoded
+ * bytes after first use, and the fields are written directly rather than
+ * through per-property bean serializers. The output is the same as Jackson's
+ * default for this class (same names, order and explicit nulls), so any field
+ * added to UserDTO must be added here too.
+ */
+public class UserDTOSerializer extends StdSerializer<UserDTO> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString PHONE = new SerializedString("phone");
+
+    public UserDTOSerializer() {
+        super(UserDTO.class);
+    }
+
+    @Override
+    public void serialize(UserDTO user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(user, 5);
+        generator.writeFieldName(ID);
+        if (user.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(user.getId());
+        }
+        writeString(generator, FIRST_NAME, user.getFirstName());
+        writeString(generator, LAST_NAME, user.getLastName());
+        writeString(generator, EMAIL, user.getEmail());
+        writeString(generator, PHONE, user.getPhone());
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+}
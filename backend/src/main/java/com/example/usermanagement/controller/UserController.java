@@ -2,7 +2,10 @@ package com.example.usermanagement.controller;
 
 import com.example.usermanagement.dto.CreateUserRequest;
 import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserChangesDTO;
 import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.exception.TooManyIdsException;
+import com.example.usermanagement.service.UserLookupProperties;
 import com.example.usermanagement.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -13,13 +16,14 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = "http://localhost:5173")
 public class UserController {
 
     private final UserService userService;
+    private final UserLookupProperties lookupProperties;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserLookupProperties lookupProperties) {
         this.userService = userService;
+        this.lookupProperties = lookupProperties;
     }
 
     /**
@@ -32,6 +36,32 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/users?ids=1,2,3
+     * Get several users by ID in one request; unknown IDs are left out
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserDTO>> getUsersByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > lookupProperties.getMaxIds()) {
+            throw new TooManyIdsException(lookupProperties.getMaxIds());
+        }
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
+    /**
+     * GET /api/users/changes?since=42&limit=100
+     * Get the users created, updated or deleted after the watermark of a
+     * previous call; pass the returned watermark as since= next time and call
+     * again straight away while hasMore is set
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangesDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(required = false) Integer limit) {
+        int maxChanges = lookupProperties.getMaxChanges();
+        int pageSize = limit == null || limit < 1 ? maxChanges : Math.min(limit, maxChanges);
+        return ResponseEntity.ok(userService.getChanges(since, pageSize));
+    }
+
     /**
      * GET /api/users/{id}
      * Get a user by ID
@@ -0,0 +1,101 @@
+package com.example.usermanagement.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Per-thread read-your-writes state for the current request.
+ * <p>
+ * A request is pinned to the primary once it has committed a write, or when
+ * the client wrote recently (signalled by the sticky cookie). Writes are
+ * marked by the service methods that make them: a transaction that is
+ * merely not read-only, like the change feed's, does not count. The filter
+ * sets the state at request start and clears it afterwards.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * @param onFirstWrite run once, when the request's first write commits
+     */
+    static void begin(boolean sticky, Runnable onFirstWrite) {
+        STATE.set(new State(sticky, onFirstWrite));
+    }
+
+    static void end() {
+        STATE.remove();
+    }
+
+    /**
+     * @return true if reads on this thread must see the primary
+     */
+    public static boolean requiresPrimary() {
+        State state = STATE.get();
+        return state != null && (state.sticky || state.wrote);
+    }
+
+    /**
+     * Run work on another thread with the routing of the request it is done
+     * for, e.g. a batched load: pinned to the primary if that request is
+     */
+    public static <T> T call(boolean requiresPrimary, Callable<T> work) throws Exception {
+        State previous = STATE.get();
+        STATE.set(new State(requiresPrimary, () -> { }));
+        try {
+            return work.call();
+        } finally {
+            if (previous != null) {
+                STATE.set(previous);
+            } else {
+                STATE.remove();
+            }
+        }
+    }
+
+    /**
+     * Record that the current request writes. It takes effect when the
+     * transaction commits, or straight away outside one; a no-op outside a
+     * request, e.g. on an import worker.
+     */
+    public static void markWrite() {
+        State state = STATE.get();
+        if (state == null || state.wrote) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    state.wrote();
+                }
+            });
+        } else {
+            state.wrote();
+        }
+    }
+
+    private static final class State {
+
+        private final boolean sticky;
+        private final Runnable onFirstWrite;
+        private boolean wrote;
+
+        State(boolean sticky, Runnable onFirstWrite) {
+            this.sticky = sticky;
+            this.onFirstWrite = onFirstWrite;
+        }
+
+        void wrote() {
+            if (!wrote) {
+                wrote = true;
+                onFirstWrite.run();
+            }
+        }
+    }
+}
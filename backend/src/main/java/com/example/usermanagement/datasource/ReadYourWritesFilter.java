@@ -0,0 +1,70 @@
+package com.example.usermanagement.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reads the sticky cookie set after a write and pins the request to the
+ * primary while its deadline has not passed. When the request itself
+ * commits a write, the cookie is set for the sticky window.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final String cookieName;
+    private final long stickyWindowMillis;
+
+    public ReadYourWritesFilter(String cookieName, long stickyWindowMillis) {
+        this.cookieName = cookieName;
+        this.stickyWindowMillis = stickyWindowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWrites.begin(isSticky(request), () -> setStickyCookie(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+    private boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tell the client to keep reading from the primary for the sticky window.
+     * Writes commit before the body is written, so the response is still open.
+     */
+    private void setStickyCookie(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + stickyWindowMillis;
+        Cookie cookie = new Cookie(cookieName, Long.toString(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, stickyWindowMillis / 1000));
+        response.addCookie(cookie);
+    }
+}
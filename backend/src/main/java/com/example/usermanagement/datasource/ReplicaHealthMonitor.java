@@ -0,0 +1,74 @@
+package com.example.usermanagement.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Probes replicas periodically and publishes the ones fit to serve reads.
+ * <p>
+ * A replica is evicted when its connection check fails, or, when the local
+ * replication job is running, when it has not been refreshed for three
+ * replication intervals. It is re-admitted as soon as both checks pass.
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final Map<String, DataSource> replicas;
+    private final long maxStalenessMillis;
+    private final Map<String, Long> lastSynced = new ConcurrentHashMap<>();
+    private volatile String[] healthy = new String[0];
+
+    /**
+     * @param maxStalenessMillis replicas not synced within this window are evicted; 0 disables the check
+     */
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, long maxStalenessMillis) {
+        this.replicas = replicas;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    String[] getHealthyReplicas() {
+        return healthy;
+    }
+
+    void recordSync(String replica) {
+        lastSynced.put(replica, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval-millis:5000}")
+    public void check() {
+        List<String> fit = new ArrayList<>(replicas.size());
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            String name = entry.getKey();
+            boolean reachable = isReachable(entry.getValue());
+            boolean fresh = maxStalenessMillis == 0
+                    || now - lastSynced.getOrDefault(name, 0L) <= maxStalenessMillis;
+            if (reachable && fresh) {
+                fit.add(name);
+            }
+        }
+
+        String[] updated = fit.toArray(new String[0]);
+        if (updated.length != healthy.length) {
+            log.info("Replicas serving reads: {} of {} {}", updated.length, replicas.size(), fit);
+        }
+        healthy = updated;
+    }
+
+    private static boolean isReachable(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(1);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
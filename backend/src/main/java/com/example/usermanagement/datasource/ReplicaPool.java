@@ -0,0 +1,39 @@
+package com.example.usermanagement.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pools for the configured replicas, keyed by routing name
+ */
+public class ReplicaPool implements AutoCloseable {
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+    public ReplicaPool(ReplicaRoutingProperties properties) {
+        List<String> urls = properties.getReplicaUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(urls.get(i));
+            dataSource.setUsername(properties.getUsername());
+            dataSource.setPassword(properties.getPassword());
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            dataSource.setPoolName("replica-" + i);
+            replicas.put("replica-" + i, dataSource);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(dataSource -> ((HikariDataSource) dataSource).close());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.usermanagement.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured datasource with one that sends read-only
+ * transactions to replicas when app.datasource.routing.enabled=true
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(ReplicaRoutingProperties properties) {
+        return new ReplicaPool(properties);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(ReplicaPool replicaPool,
+                                                     ReplicaRoutingProperties properties) {
+        long maxStaleness = properties.getReplication().isEnabled()
+                ? properties.getReplication().getIntervalMillis() * 3
+                : 0;
+        return new ReplicaHealthMonitor(replicaPool.getReplicas(), maxStaleness);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.routing.replication", name = "enabled",
+            havingValue = "true", matchIfMissing = true)
+    public SnapshotReplicationJob snapshotReplicationJob(HikariDataSource primaryDataSource,
+                                                         ReplicaPool replicaPool,
+                                                         ReplicaHealthMonitor health) {
+        return new SnapshotReplicationJob(primaryDataSource, replicaPool.getReplicas(), health);
+    }
+
+    /**
+     * The datasource JPA and everything else uses. The lazy proxy defers
+     * fetching a connection until the first statement, by which point the
+     * transaction's read-only flag has been set.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaPool replicaPool,
+                                 ReplicaHealthMonitor health) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(health);
+        Map<Object, Object> targets = new HashMap<>(replicaPool.getReplicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getStickyCookieName(),
+                        properties.getStickyWindowMillis()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.example.usermanagement.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to a healthy replica, round robin, and
+ * everything else to the primary, as are reads that must see the client's
+ * own writes ({@link ReadYourWrites}). Must be wrapped in a
+ * LazyConnectionDataSourceProxy so the routing decision happens after the
+ * transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor health;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaHealthMonitor health) {
+        this.health = health;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.requiresPrimary()) {
+            return PRIMARY;
+        }
+        String[] healthy = health.getHealthyReplicas();
+        if (healthy.length == 0) {
+            return PRIMARY;
+        }
+        return healthy[Math.floorMod(next.getAndIncrement(), healthy.length)];
+    }
+}
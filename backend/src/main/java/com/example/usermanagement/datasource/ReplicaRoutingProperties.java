@@ -0,0 +1,135 @@
+package com.example.usermanagement.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for sending read-only transactions to replicas.
+ * The primary is configured through the usual spring.datasource.* properties.
+ */
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<String> replicaUrls = new ArrayList<>(List.of(
+            "jdbc:h2:mem:usersdb-replica-0;DB_CLOSE_DELAY=-1"));
+
+    private String username = "sa";
+    private String password = "";
+
+    /** Connection pool size per replica */
+    private int poolSize = 10;
+
+    /** How long after a write the same client keeps reading from the primary */
+    private long stickyWindowMillis = 2000;
+
+    /** Name of the cookie carrying the read-your-writes deadline */
+    private String stickyCookieName = "RW_STICKY";
+
+    /** How often replicas are probed; failing replicas receive no reads until they recover */
+    private long healthCheckIntervalMillis = 5000;
+
+    private Replication replication = new Replication();
+
+    /**
+     * Built-in copy job for local testing with H2 replicas
+     */
+    public static class Replication {
+
+        private boolean enabled = true;
+
+        private long intervalMillis = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getIntervalMillis() {
+            return intervalMillis;
+        }
+
+        public void setIntervalMillis(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getReplicaUrls() {
+        return replicaUrls;
+    }
+
+    public void setReplicaUrls(List<String> replicaUrls) {
+        this.replicaUrls = replicaUrls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public long getStickyWindowMillis() {
+        return stickyWindowMillis;
+    }
+
+    public void setStickyWindowMillis(long stickyWindowMillis) {
+        this.stickyWindowMillis = stickyWindowMillis;
+    }
+
+    public String getStickyCookieName() {
+        return stickyCookieName;
+    }
+
+    public void setStickyCookieName(String stickyCookieName) {
+        this.stickyCookieName = stickyCookieName;
+    }
+
+    public long getHealthCheckIntervalMillis() {
+        return healthCheckIntervalMillis;
+    }
+
+    public void setHealthCheckIntervalMillis(long healthCheckIntervalMillis) {
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+    }
+
+    public Replication getReplication() {
+        return replication;
+    }
+
+    public void setReplication(Replication replication) {
+        this.replication = replication;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.usermanagement.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies the users table from the primary to each replica on a fixed delay.
+ * <p>
+ * Stand-in for real database replication when running locally on H2: the
+ * replica schema is cloned from the primary on first run, then rows are
+ * upserted and rows deleted on the primary are removed. Columns are read
+ * from result set metadata so schema changes need no code change here.
+ */
+public class SnapshotReplicationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotReplicationJob.class);
+
+    private final JdbcTemplate primary;
+    private final Map<String, DataSource> replicas;
+    private final ReplicaHealthMonitor health;
+
+    public SnapshotReplicationJob(DataSource primary, Map<String, DataSource> replicas, ReplicaHealthMonitor health) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas;
+        this.health = health;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.replication.interval-millis:1000}")
+    public void replicate() {
+        if (!tableExists(primary)) {
+            // Hibernate has not created the schema yet
+            return;
+        }
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            try {
+                copyTo(new JdbcTemplate(entry.getValue()));
+                health.recordSync(entry.getKey());
+            } catch (Exception e) {
+                log.warn("Replication to {} failed: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void copyTo(JdbcTemplate replica) {
+        if (!tableExists(replica)) {
+            for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+                if (!statement.startsWith("CREATE USER")) {
+                    replica.execute(statement);
+                }
+            }
+        }
+
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        primary.query("SELECT * FROM users", rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            if (columns.isEmpty()) {
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(meta.getColumnName(i));
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+            ids.add(rs.getLong("id"));
+        });
+
+        if (!rows.isEmpty()) {
+            String placeholders = String.join(", ", columns.stream().map(c -> "?").toList());
+            replica.batchUpdate("MERGE INTO users (" + String.join(", ", columns) + ") KEY (id) VALUES ("
+                    + placeholders + ")", rows);
+        }
+        List<Object[]> deleted = new ArrayList<>();
+        for (Long id : replica.queryForList("SELECT id FROM users", Long.class)) {
+            if (!ids.contains(id)) {
+                deleted.add(new Object[]{id});
+            }
+        }
+        if (!deleted.isEmpty()) {
+            replica.batchUpdate("DELETE FROM users WHERE id = ?", deleted);
+        }
+    }
+
+    private static boolean tableExists(JdbcTemplate jdbc) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS'", Integer.class);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.usermanagement.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page of the change feed (GET /api/users/changes): users created or
+ * updated and users deleted after the caller's watermark, plus the watermark
+ * to pass as since= on the next call
+ */
+public class UserChangesDTO {
+
+    private List<UserDTO> changed;
+    private List<DeletedUser> deleted;
+    private long watermark;
+    private boolean hasMore;
+
+    public static class DeletedUser {
+
+        private Long id;
+        private Instant deletedAt;
+
+        public DeletedUser() {
+        }
+
+        public DeletedUser(Long id, Instant deletedAt) {
+            this.id = id;
+            this.deletedAt = deletedAt;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Instant getDeletedAt() {
+            return deletedAt;
+        }
+
+        public void setDeletedAt(Instant deletedAt) {
+            this.deletedAt = deletedAt;
+        }
+    }
+
+    // Constructors
+    public UserChangesDTO() {
+    }
+
+    public UserChangesDTO(List<UserDTO> changed, List<DeletedUser> deleted, long watermark, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<UserDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<UserDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<DeletedUser> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<DeletedUser> deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
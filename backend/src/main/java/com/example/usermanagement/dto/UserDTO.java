@@ -1,5 +1,9 @@
 package com.example.usermanagement.dto;
 
+import com.example.usermanagement.codec.UserDTOSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonSerialize(using = UserDTOSerializer.class)
 public class UserDTO {
 
     private Long id;
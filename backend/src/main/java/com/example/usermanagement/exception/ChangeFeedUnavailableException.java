@@ -0,0 +1,12 @@
+package com.example.usermanagement.exception;
+
+/**
+ * GET /api/users/changes was called while users are stored in shards,
+ * which keep no change sequence
+ */
+public class ChangeFeedUnavailableException extends RuntimeException {
+
+    public ChangeFeedUnavailableException() {
+        super("The change feed is not available with sharded storage");
+    }
+}
@@ -1,83 +1,164 @@
 package com.example.usermanagement.exception;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Maps exceptions to RFC 7807 problem+json responses.
+ * <p>
+ * Errors whose body never varies (not found, conflicts, malformed requests)
+ * are served from preencoded bytes so that abusive traffic such as 404 scans
+ * or invalid payloads costs no more than a successful request.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final PreencodedProblem USER_NOT_FOUND = new PreencodedProblem(
+            HttpStatus.NOT_FOUND, "Resource Not Found", "User not found with id: ");
+    private static final PreencodedProblem ENTITY_NOT_FOUND = new PreencodedProblem(
+            HttpStatus.NOT_FOUND, "Resource Not Found", "User not found");
+    private static final PreencodedProblem IMPORT_JOB_NOT_FOUND = new PreencodedProblem(
+            HttpStatus.NOT_FOUND, "Resource Not Found", "Import job not found");
+    private static final PreencodedProblem NO_RESOURCE = new PreencodedProblem(
+            HttpStatus.NOT_FOUND, "Resource Not Found", "No resource exists at this path");
+    private static final PreencodedProblem EMAIL_CONFLICT = new PreencodedProblem(
+            HttpStatus.CONFLICT, "Data Integrity Violation", "A user with this email address already exists");
+    private static final PreencodedProblem INTEGRITY_CONFLICT = new PreencodedProblem(
+            HttpStatus.CONFLICT, "Data Integrity Violation", "Data integrity violation");
+    private static final PreencodedProblem MALFORMED_BODY = new PreencodedProblem(
+            HttpStatus.BAD_REQUEST, "Bad Request", "Request body is missing or malformed");
+    private static final PreencodedProblem INVALID_PARAMETER = new PreencodedProblem(
+            HttpStatus.BAD_REQUEST, "Bad Request", "Request parameter has an invalid value");
+    private static final PreencodedProblem METHOD_NOT_ALLOWED = new PreencodedProblem(
+            HttpStatus.METHOD_NOT_ALLOWED, "Method Not Allowed", "Request method is not supported for this path");
+    private static final PreencodedProblem UNSUPPORTED_MEDIA_TYPE = new PreencodedProblem(
+            HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported Media Type", "Content type is not supported for this path");
+    private static final PreencodedProblem CHANGE_FEED_UNAVAILABLE = new PreencodedProblem(
+            HttpStatus.NOT_IMPLEMENTED, "Not Implemented", "The change feed is not available with sharded storage");
+    private static final PreencodedProblem LOOKUP_TIMEOUT = new PreencodedProblem(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", "User lookup timed out");
+    private static final PreencodedProblem INTERNAL_ERROR = new PreencodedProblem(
+            HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred");
+
+    private final RateLimitedLogger unexpectedErrors = new RateLimitedLogger(
+            LoggerFactory.getLogger(GlobalExceptionHandler.class), 10, 60_000);
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationExceptions(
+    public ResponseEntity<ProblemResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
-        Map<String, Object> response = new HashMap<>();
-        Map<String, String> errors = new HashMap<>();
-
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
+        List<FieldError> fieldErrors = ex.getBindingResult().getFieldErrors();
+        Map<String, String> errors = new LinkedHashMap<>(fieldErrors.size() * 2);
+        for (FieldError error : fieldErrors) {
+            errors.put(error.getField(), error.getDefaultMessage());
+        }
 
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.BAD_REQUEST.value());
-        response.put("error", "Validation Failed");
-        response.put("errors", errors);
+        return ResponseEntity.badRequest()
+                .contentType(PreencodedProblem.PROBLEM_JSON)
+                .body(ProblemResponse.validation("One or more fields are invalid", errors));
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<byte[]> handleUserNotFound(UserNotFoundException ex) {
+        return USER_NOT_FOUND.toResponse(ex.getId());
     }
 
+    /**
+     * Thrown by Hibernate itself, with a message naming the entity class
+     */
     @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleEntityNotFound(
-            EntityNotFoundException ex) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<byte[]> handleEntityNotFound(EntityNotFoundException ex) {
+        return ENTITY_NOT_FOUND.toResponse();
+    }
 
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.NOT_FOUND.value());
-        response.put("error", "Resource Not Found");
-        response.put("message", ex.getMessage());
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<byte[]> handleImportJobNotFound(ImportJobNotFoundException ex) {
+        return IMPORT_JOB_NOT_FOUND.toResponse();
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<byte[]> handleNoResource(NoResourceFoundException ex) {
+        return NO_RESOURCE.toResponse();
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
-    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(
-            DataIntegrityViolationException ex) {
-        Map<String, Object> response = new HashMap<>();
-
-        String message = "Data integrity violation";
+    public ResponseEntity<byte[]> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
         if (ex.getMessage() != null && ex.getMessage().contains("email")) {
-            message = "A user with this email address already exists";
+            return EMAIL_CONFLICT.toResponse();
         }
+        return INTEGRITY_CONFLICT.toResponse();
+    }
 
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.CONFLICT.value());
-        response.put("error", "Data Integrity Violation");
-        response.put("message", message);
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleMalformedBody(HttpMessageNotReadableException ex) {
+        return MALFORMED_BODY.toResponse();
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return INVALID_PARAMETER.toResponse();
     }
 
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneralException(
-            Exception ex) {
-        Map<String, Object> response = new HashMap<>();
+    @ExceptionHandler(TooManyIdsException.class)
+    public ResponseEntity<ProblemResponse> handleTooManyIds(TooManyIdsException ex) {
+        return ResponseEntity.badRequest()
+                .contentType(PreencodedProblem.PROBLEM_JSON)
+                .body(ProblemResponse.of(400, "Bad Request", ex.getMessage()));
+    }
 
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        response.put("error", "Internal Server Error");
-        response.put("message", ex.getMessage());
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<byte[]> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException ex) {
+        return UNSUPPORTED_MEDIA_TYPE.toResponse();
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+    @ExceptionHandler(ChangeFeedUnavailableException.class)
+    public ResponseEntity<byte[]> handleChangeFeedUnavailable(ChangeFeedUnavailableException ex) {
+        return CHANGE_FEED_UNAVAILABLE.toResponse();
+    }
+
+    @ExceptionHandler(UserLookupTimeoutException.class)
+    public ResponseEntity<byte[]> handleLookupTimeout(UserLookupTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(PreencodedProblem.PROBLEM_JSON)
+                .body(LOOKUP_TIMEOUT.body());
+    }
+
+    @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+    public ResponseEntity<byte[]> handleMethodNotSupported(HttpRequestMethodNotSupportedException ex) {
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                .allow(ex.getSupportedHttpMethods() != null
+                        ? ex.getSupportedHttpMethods().toArray(new HttpMethod[0])
+                        : new HttpMethod[0])
+                .contentType(PreencodedProblem.PROBLEM_JSON)
+                .body(METHOD_NOT_ALLOWED.body());
+    }
+
+    /**
+     * Catch-all: never echo the exception message, which may leak internals,
+     * and rate-limit the stack traces written to the log
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleGeneralException(Exception ex) {
+        unexpectedErrors.error("Unhandled exception while processing request", ex);
+        return INTERNAL_ERROR.toResponse();
     }
 
 }
@@ -0,0 +1,12 @@
+package com.example.usermanagement.exception;
+
+/**
+ * No import job with the requested id, or it finished long enough ago to
+ * have been forgotten (app.import.max-retained-jobs)
+ */
+public class ImportJobNotFoundException extends RuntimeException {
+
+    public ImportJobNotFoundException() {
+        super("Import job not found");
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.usermanagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Problem body whose content never changes apart from the timestamp.
+ * The JSON is encoded once per second and served as raw bytes, so the
+ * hot 404/409 paths skip map allocation and Jackson serialization. A
+ * number such as the missing id can be appended to the detail per response.
+ */
+public final class PreencodedProblem {
+
+    public static final MediaType PROBLEM_JSON = MediaType.APPLICATION_PROBLEM_JSON;
+
+    private static final String TIMESTAMP_MEMBER = "\",\"timestamp\":\"";
+
+    private final HttpStatus status;
+    /** Up to the end of the detail text, without its closing quote */
+    private final byte[] head;
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private volatile Encoded encoded = new Encoded(-1, new byte[0]);
+
+    public PreencodedProblem(HttpStatus status, String title, String detail) {
+        this.status = status;
+        // Titles and details are fixed literals without characters that need escaping
+        String head = "{\"type\":\"" + ProblemResponse.DEFAULT_TYPE + "\",\"title\":\"" + title
+                + "\",\"status\":" + status.value() + ",\"detail\":\"" + detail;
+        this.head = head.getBytes(StandardCharsets.UTF_8);
+        this.prefix = (head + TIMESTAMP_MEMBER).getBytes(StandardCharsets.UTF_8);
+        this.suffix = "\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public ResponseEntity<byte[]> toResponse() {
+        return ResponseEntity.status(status).contentType(PROBLEM_JSON).body(body());
+    }
+
+    /**
+     * @param detailSuffix appended to the detail, e.g. "User not found with id: " + 42
+     */
+    public ResponseEntity<byte[]> toResponse(long detailSuffix) {
+        byte[] body = body();
+        byte[] number = Long.toString(detailSuffix).getBytes(StandardCharsets.US_ASCII);
+        byte[] withNumber = new byte[body.length + number.length];
+        System.arraycopy(head, 0, withNumber, 0, head.length);
+        System.arraycopy(number, 0, withNumber, head.length, number.length);
+        System.arraycopy(body, head.length, withNumber, head.length + number.length, body.length - head.length);
+        return ResponseEntity.status(status).contentType(PROBLEM_JSON).body(withNumber);
+    }
+
+    public byte[] body() {
+        ProblemTimestamp.Cached now = ProblemTimestamp.cached(System.currentTimeMillis() / 1000);
+        Encoded current = encoded;
+        if (current.epochSecond != now.epochSecond()) {
+            byte[] timestamp = now.text().getBytes(StandardCharsets.UTF_8);
+            byte[] body = new byte[prefix.length + timestamp.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(timestamp, 0, body, prefix.length, timestamp.length);
+            System.arraycopy(suffix, 0, body, prefix.length + timestamp.length, suffix.length);
+            current = new Encoded(now.epochSecond(), body);
+            encoded = current;
+        }
+        return current.body;
+    }
+
+    private record Encoded(long epochSecond, byte[] body) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.usermanagement.exception;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * RFC 7807 problem details body.
+ * <p>
+ * {@code errors} is an extension member carrying field-level validation
+ * messages and is omitted when null.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"type", "title", "status", "detail", "timestamp", "errors"})
+public record ProblemResponse(
+        String type,
+        String title,
+        int status,
+        String detail,
+        String timestamp,
+        Map<String, String> errors) {
+
+    public static final String DEFAULT_TYPE = "about:blank";
+
+    public static ProblemResponse of(int status, String title, String detail) {
+        return new ProblemResponse(DEFAULT_TYPE, title, status, detail, ProblemTimestamp.now(), null);
+    }
+
+    public static ProblemResponse validation(String detail, Map<String, String> errors) {
+        return new ProblemResponse(DEFAULT_TYPE, "Validation Failed", 400, detail,
+                ProblemTimestamp.now(), Collections.unmodifiableMap(errors));
+    }
+}
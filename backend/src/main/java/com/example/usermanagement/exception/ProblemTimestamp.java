@@ -0,0 +1,38 @@
+package com.example.usermanagement.exception;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * ISO-8601 timestamp for error bodies, formatted at most once per second.
+ * Error bodies only need second precision, so every error within the same
+ * second shares one formatted string.
+ */
+final class ProblemTimestamp {
+
+    private static volatile Cached cached = new Cached(-1, "");
+
+    private ProblemTimestamp() {
+    }
+
+    static String now() {
+        return cached(System.currentTimeMillis() / 1000).text;
+    }
+
+    /**
+     * Current second and its formatted text; racing threads may both format,
+     * which is harmless since they produce the same value
+     */
+    static Cached cached(long epochSecond) {
+        Cached current = cached;
+        if (current.epochSecond != epochSecond) {
+            current = new Cached(epochSecond,
+                    DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochSecond(epochSecond)));
+            cached = current;
+        }
+        return current;
+    }
+
+    record Cached(long epochSecond, String text) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.usermanagement.exception;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs at most {@code maxPerWindow} errors per time window and reports how
+ * many were suppressed once the next window opens. Keeps a flood of failing
+ * requests from turning into a flood of stack traces.
+ */
+class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int maxPerWindow;
+    private final long windowMillis;
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    RateLimitedLogger(Logger logger, int maxPerWindow, long windowMillis) {
+        this.logger = logger;
+        this.maxPerWindow = maxPerWindow;
+        this.windowMillis = windowMillis;
+    }
+
+    void error(String message, Throwable ex) {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            loggedInWindow.set(0);
+            long dropped = suppressed.getAndSet(0);
+            if (dropped > 0) {
+                logger.warn("Suppressed {} similar errors in the last {} ms", dropped, windowMillis);
+            }
+        }
+
+        if (loggedInWindow.incrementAndGet() <= maxPerWindow) {
+            logger.error(message, ex);
+        } else {
+            suppressed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.usermanagement.exception;
+
+/**
+ * A multi-id lookup asked for more ids than app.user-lookup.max-ids allows
+ */
+public class TooManyIdsException extends RuntimeException {
+
+    public TooManyIdsException(int maxIds) {
+        super("At most " + maxIds + " ids can be requested at once");
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.usermanagement.exception;
+
+/**
+ * A coalesced user lookup did not load within
+ * app.user-lookup.batching.timeout-millis
+ */
+public class UserLookupTimeoutException extends RuntimeException {
+
+    public UserLookupTimeoutException() {
+        super("User lookup timed out");
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.usermanagement.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * No user with the requested id in the current tenant
+ */
+public class UserNotFoundException extends EntityNotFoundException {
+
+    private final long id;
+
+    public UserNotFoundException(long id) {
+        super("User not found with id: " + id);
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
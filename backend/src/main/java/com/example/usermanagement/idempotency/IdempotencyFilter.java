@@ -0,0 +1,258 @@
+package com.example.usermanagement.idempotency;
+
+import com.example.usermanagement.exception.PreencodedProblem;
+import com.example.usermanagement.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Makes user creates (POST /api/users) and updates (PUT/PATCH
+ * /api/users/{id}) carrying an Idempotency-Key safe to retry. Other
+ * endpoints, such as the streamed bulk import, are passed through untouched.
+ * <p>
+ * The first request with a key executes normally and its response (anything
+ * but a 5xx) is stored. A retry with the same key and the same request gets
+ * the stored response back, marked with {@code Idempotent-Replayed: true},
+ * without reaching the service. A duplicate arriving while the first is
+ * still running waits for it rather than racing it into the database;
+ * if the first fails with a 5xx or an exception the key is released and
+ * the duplicate executes in its place. Reusing a key for a different
+ * request is rejected with 422, and a wait longer than the in-flight
+ * timeout with 409. The body is read into memory for the fingerprint, so
+ * bodies over app.idempotency.max-body-size are rejected with 413.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Pattern USER = Pattern.compile("/api/users/[^/]+");
+
+    private static final PreencodedProblem INVALID_KEY = new PreencodedProblem(
+            HttpStatus.BAD_REQUEST, "Bad Request", "Idempotency-Key must be 1 to 255 characters");
+    private static final PreencodedProblem KEY_REUSED = new PreencodedProblem(
+            HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity",
+            "Idempotency-Key was already used for a different request");
+    private static final PreencodedProblem BODY_TOO_LARGE = new PreencodedProblem(
+            HttpStatus.PAYLOAD_TOO_LARGE, "Payload Too Large",
+            "Request body is too large for a request with an Idempotency-Key");
+    private static final PreencodedProblem IN_PROGRESS = new PreencodedProblem(
+            HttpStatus.CONFLICT, "Conflict", "A request with this Idempotency-Key is still being processed");
+
+    private final IdempotencyStore store;
+    private final String headerName;
+    private final String clientKeyHeader;
+    private final long inFlightTimeoutMillis;
+    private final int maxBodySize;
+    private final Counter replayed;
+    private final Counter waited;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, MeterRegistry registry) {
+        this.store = store;
+        this.headerName = properties.getHeaderName();
+        this.clientKeyHeader = properties.getClientKeyHeader();
+        this.inFlightTimeoutMillis = properties.getInFlightTimeout().toMillis();
+        this.maxBodySize = Math.toIntExact(properties.getMaxBodySize().toBytes());
+        this.replayed = Counter.builder("users.idempotency.replayed")
+                .description("Requests answered with a stored response").register(registry);
+        this.waited = Counter.builder("users.idempotency.waited")
+                .description("Duplicates that waited for an in-flight request with the same key").register(registry);
+        Gauge.builder("users.idempotency.keys", store, IdempotencyStore::size).register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(headerName) == null) {
+            return true;
+        }
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (HttpMethod.POST.matches(method)) {
+            return !path.equals("/api/users");
+        }
+        return !(HttpMethod.PUT.matches(method) || HttpMethod.PATCH.matches(method))
+                || !USER.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(headerName);
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            write(response, INVALID_KEY);
+            return;
+        }
+        if (request.getContentLengthLong() > maxBodySize) {
+            write(response, BODY_TOO_LARGE);
+            return;
+        }
+        // Chunked bodies have no length up front; read one byte past the limit to detect them
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            write(response, BODY_TOO_LARGE);
+            return;
+        }
+        byte[] fingerprint = fingerprint(request, body);
+        // Two tenants' clients may pick the same key without seeing each other's responses
+        String key = TenantContext.current() + '|' + clientKey(request) + '|' + idempotencyKey;
+
+        // A second attempt covers a first request that failed while we waited for it
+        for (int attempt = 0; attempt < 2; attempt++) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            if (!claim.matches(fingerprint)) {
+                write(response, KEY_REUSED);
+                return;
+            }
+            if (claim.owner()) {
+                execute(new CachedBodyRequest(request, body), response, filterChain, key, claim);
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                if (!claim.response().isDone()) {
+                    waited.increment();
+                }
+                stored = claim.response().get(inFlightTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.setHeader("Retry-After", "1");
+                write(response, IN_PROGRESS);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (stored != null) {
+                replayed.increment();
+                replay(response, stored);
+                return;
+            }
+        }
+        write(response, IN_PROGRESS);
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < 500) {
+                store.complete(key, claim, new StoredResponse(
+                        wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.abandon(key, claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientKeyHeader);
+        return apiKey != null && !apiKey.isEmpty() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * SHA-256 over method, path and body, so the same key on another endpoint
+     * or with another payload is detected as misuse
+     */
+    private static byte[] fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return digest.digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void write(HttpServletResponse response, PreencodedProblem problem) throws IOException {
+        byte[] body = problem.body();
+        response.setStatus(problem.getStatus().value());
+        response.setContentType(PreencodedProblem.PROBLEM_JSON.toString());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Request whose body was read up front for the fingerprint
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
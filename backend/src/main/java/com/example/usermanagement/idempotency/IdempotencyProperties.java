@@ -0,0 +1,100 @@
+package com.example.usermanagement.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for Idempotency-Key handling on the user write endpoints
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private String headerName = "Idempotency-Key";
+
+    /** Keys are scoped per client, identified like the rate limiter does */
+    private String clientKeyHeader = "X-API-Key";
+
+    /** Most completed keys remembered at once; keys still in flight are never evicted */
+    private long maxEntries = 100_000;
+
+    /** How long a completed response is replayed for */
+    private Duration timeToLive = Duration.ofHours(24);
+
+    /** How long a duplicate waits for the original request before getting 409 */
+    private Duration inFlightTimeout = Duration.ofSeconds(10);
+
+    /** Largest request body accepted with a key; the body is held in memory for the fingerprint */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    /** Also keep completed responses in the idempotency_keys table, so they survive restarts */
+    private boolean persistent = false;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public void setHeaderName(String headerName) {
+        this.headerName = headerName;
+    }
+
+    public String getClientKeyHeader() {
+        return clientKeyHeader;
+    }
+
+    public void setClientKeyHeader(String clientKeyHeader) {
+        this.clientKeyHeader = clientKeyHeader;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public Duration getInFlightTimeout() {
+        return inFlightTimeout;
+    }
+
+    public void setInFlightTimeout(Duration inFlightTimeout) {
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+}
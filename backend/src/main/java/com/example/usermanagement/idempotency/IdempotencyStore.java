@@ -0,0 +1,104 @@
+package com.example.usermanagement.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers the outcome of requests by idempotency key.
+ * <p>
+ * The first request with a key claims it and gets an in-flight entry whose
+ * future the caller completes with the response; later requests with the
+ * same key find the entry and wait on that future instead of executing.
+ * Completed entries are bounded in number and expire after a fixed time to
+ * live. In-flight entries weigh nothing, so size-based eviction never
+ * removes the claim of a request that is still running, which would let a
+ * duplicate execute next to it.
+ * Completed responses can additionally be written through to a
+ * {@link JdbcIdempotencyRepository}, which is consulted on a local miss.
+ */
+public class IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final JdbcIdempotencyRepository repository;
+
+    public IdempotencyStore(long maxEntries, Duration timeToLive, JdbcIdempotencyRepository repository) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((String key, Entry entry) -> entry.response.isDone() ? 1 : 0)
+                .expireAfterWrite(timeToLive)
+                .build();
+        this.repository = repository;
+    }
+
+    /**
+     * Claim a key, or find the request that already holds it
+     * @param key the client-scoped idempotency key
+     * @param fingerprint hash of the request, to detect a key reused for a different request
+     */
+    public Claim claim(String key, byte[] fingerprint) {
+        Entry created = new Entry(fingerprint);
+        Entry existing = entries.asMap().putIfAbsent(key, created);
+        if (existing == null && repository != null) {
+            JdbcIdempotencyRepository.Record record = repository.find(key);
+            if (record != null) {
+                // Completed before a restart or on another instance
+                Entry restored = new Entry(record.fingerprint());
+                restored.response.complete(record.response());
+                entries.put(key, restored);
+                created.response.complete(null);
+                existing = restored;
+            }
+        }
+        return existing == null ? new Claim(created, true) : new Claim(existing, false);
+    }
+
+    /**
+     * Record the response of the request that claimed the key
+     */
+    public void complete(String key, Claim claim, StoredResponse response) {
+        if (repository != null) {
+            repository.save(key, claim.entry.fingerprint, response);
+        }
+        claim.entry.response.complete(response);
+        // Weighed again now that it is done, which makes it evictable
+        entries.asMap().replace(key, claim.entry, claim.entry);
+    }
+
+    /**
+     * Release a key whose request failed, so a retry executes again.
+     * Waiting duplicates are woken with no response and claim it anew.
+     */
+    public void abandon(String key, Claim claim) {
+        entries.asMap().remove(key, claim.entry);
+        claim.entry.response.complete(null);
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    public record Claim(Entry entry, boolean owner) {
+
+        public boolean matches(byte[] fingerprint) {
+            return Arrays.equals(entry.fingerprint, fingerprint);
+        }
+
+        public CompletableFuture<StoredResponse> response() {
+            return entry.response;
+        }
+    }
+
+    public static final class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usermanagement.idempotency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Completed idempotent responses in the idempotency_keys table. Rows older
+ * than the time to live are ignored, and purged at most once a minute.
+ */
+public class JdbcIdempotencyRepository {
+
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration timeToLive;
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    public JdbcIdempotencyRepository(DataSource dataSource, Duration timeToLive) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.timeToLive = timeToLive;
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_keys ("
+                + "scope_key VARCHAR(512) PRIMARY KEY, "
+                + "fingerprint VARBINARY(32) NOT NULL, "
+                + "status INT NOT NULL, "
+                + "content_type VARCHAR(100), "
+                + "body VARBINARY, "
+                + "created_at TIMESTAMP NOT NULL)");
+    }
+
+    public Record find(String key) {
+        List<Record> records = jdbcTemplate.query(
+                "SELECT fingerprint, status, content_type, body FROM idempotency_keys "
+                        + "WHERE scope_key = ? AND created_at > ?",
+                (rs, rowNum) -> new Record(rs.getBytes("fingerprint"), new StoredResponse(
+                        rs.getInt("status"), rs.getString("content_type"), rs.getBytes("body"))),
+                key, cutoff());
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    public void save(String key, byte[] fingerprint, StoredResponse response) {
+        jdbcTemplate.update("MERGE INTO idempotency_keys (scope_key, fingerprint, status, content_type, body, created_at) "
+                        + "KEY (scope_key) VALUES (?, ?, ?, ?, ?, ?)",
+                key, fingerprint, response.status(), response.contentType(), response.body(),
+                new Timestamp(System.currentTimeMillis()));
+        purgeExpired();
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last >= PURGE_INTERVAL_MILLIS && lastPurge.compareAndSet(last, now)) {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at <= ?", cutoff());
+        }
+    }
+
+    private Timestamp cutoff() {
+        return new Timestamp(System.currentTimeMillis() - timeToLive.toMillis());
+    }
+
+    public record Record(byte[] fingerprint, StoredResponse response) {
+    }
+}
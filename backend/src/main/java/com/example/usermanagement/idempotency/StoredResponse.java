@@ -0,0 +1,7 @@
+package com.example.usermanagement.idempotency;
+
+/**
+ * A completed response kept for replay
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,233 @@
+package com.example.usermanagement.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Datasource wrapper that times every statement execution and reports it to
+ * the StatementListeners (slow-query log, JDBC tracing spans). Bind values
+ * are remembered as they are set, which is a field store per parameter.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final StatementListener[] listeners;
+
+    public InstrumentedDataSource(DataSource target, List<StatementListener> listeners) {
+        super(target);
+        this.listeners = listeners.toArray(new StatementListener[0]);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Closes the pool behind it; the wrapper replaces the datasource bean,
+     * so it is also what the container closes on shutdown
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Identity of the proxy itself rather than the target, so pools and
+     * Hibernate can compare and hash the handles they were given
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], (Connection) proxy));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], (Connection) proxy));
+                case "createStatement" -> proxy(Statement.class,
+                        new StatementHandler((Statement) result, null, (Connection) proxy));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler, StatementListener.ExecutedStatement {
+
+        private final Statement target;
+        private final Connection connection;
+        private String sql;
+        private Object[] binds = new Object[9];
+        private int bindCount;
+        private int batchSize;
+
+        // The execution being reported to the listeners
+        private String executedSql;
+        private int executedBatchSize;
+        private long elapsedNanos;
+        private Throwable error;
+
+        StatementHandler(Statement target, String sql, Connection connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(method, args, name.endsWith("Batch"));
+            }
+            if (args != null && args.length >= 2 && args[0] instanceof Integer index && name.startsWith("set")
+                    && method.getDeclaringClass() != Statement.class) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(binds, null);
+                bindCount = 0;
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null) {
+                    sql = (String) args[0];
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.equals("getConnection")) {
+                return connection;
+            }
+            return InstrumentedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, boolean batch) throws Throwable {
+            executedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            executedBatchSize = batch ? batchSize : 0;
+            Object[] states = null;
+            for (int i = 0; i < listeners.length; i++) {
+                Object state = listeners[i].beforeExecute(executedSql);
+                if (state != null) {
+                    if (states == null) {
+                        states = new Object[listeners.length];
+                    }
+                    states[i] = state;
+                }
+            }
+
+            long start = System.nanoTime();
+            error = null;
+            try {
+                return InstrumentedDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                error = e;
+                throw e;
+            } finally {
+                elapsedNanos = System.nanoTime() - start;
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].afterExecute(states != null ? states[i] : null, this);
+                }
+                if (batch) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+            }
+            binds[index] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        @Override
+        public String getSql() {
+            return executedSql;
+        }
+
+        @Override
+        public Object getBind(int index) {
+            return binds[index];
+        }
+
+        @Override
+        public int getBindCount() {
+            return bindCount;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return executedBatchSize;
+        }
+
+        @Override
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.usermanagement.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class JdbcInstrumentationConfig {
+
+    private static final String JPA_DATA_SOURCE = "dataSource";
+
+    /**
+     * Wraps the datasource JPA uses (the auto-configured pool, or the routing
+     * datasource when read/write splitting is on) if any StatementListener
+     * is configured. Static, and resolving the listeners only when the
+     * datasource is created, so the post-processor does not pull beans in early.
+     */
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (JPA_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    List<StatementListener> configured = listeners.orderedStream().toList();
+                    if (!configured.isEmpty()) {
+                        return new InstrumentedDataSource(dataSource, configured);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+}
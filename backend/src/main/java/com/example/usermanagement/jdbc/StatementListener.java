@@ -0,0 +1,39 @@
+package com.example.usermanagement.jdbc;
+
+/**
+ * Notified around every statement execution on the instrumented JPA
+ * datasource, on the thread that runs the statement. Listeners are called
+ * on the request path, so the common case must stay cheap.
+ */
+public interface StatementListener {
+
+    /**
+     * @return state handed back to {@link #afterExecute}, or null
+     */
+    default Object beforeExecute(String sql) {
+        return null;
+    }
+
+    void afterExecute(Object state, ExecutedStatement statement);
+
+    /**
+     * The statement that just ran; only valid during the afterExecute call
+     */
+    interface ExecutedStatement {
+
+        String getSql();
+
+        /** Bind values by parameter index, 1 to getBindCount() */
+        Object getBind(int index);
+
+        int getBindCount();
+
+        /** Rows in the batch for executeBatch, otherwise 0 */
+        int getBatchSize();
+
+        long getElapsedNanos();
+
+        /** What the statement threw, or null */
+        Throwable getError();
+    }
+}
@@ -1,18 +1,52 @@
 package com.example.usermanagement.model;
 
+import com.example.usermanagement.cache.UserCacheRegions;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        uniqueConstraints = @UniqueConstraint(name = "uk_users_tenant_email", columnNames = {"tenant_id", "email"}),
+        indexes = {
+                @Index(name = "idx_users_tenant", columnList = "tenant_id, id"),
+                @Index(name = "idx_users_tenant_change_seq", columnList = "tenant_id, change_seq", unique = true)})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserCacheRegions.USERS)
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Owning tenant, from the X-Tenant-Id header (see TenantFilter). Set on
+     * persist and added to every query by Hibernate; loads by id are checked
+     * by UserService, so a tenant never sees another tenant's users.
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    /**
+     * Business key behind equals/hashCode. Assigned on first use (or persist)
+     * rather than by the database, so it is stable before and after the
+     * entity is saved; rows inserted by plain SQL get one from the column default.
+     */
+    @Column(name = "uuid", nullable = false, unique = true, updatable = false)
+    @ColumnDefault("random_uuid()")
+    private UUID uuid;
+
     @Column(name = "first_name", nullable = false, length = 50)
     @NotBlank(message = "First name is required")
     @Size(max = 50, message = "First name must not exceed 50 characters")
@@ -23,7 +57,8 @@ public class User {
     @Size(max = 50, message = "Last name must not exceed 50 characters")
     private String lastName;
 
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    /** Unique within the tenant (uk_users_tenant_email) */
+    @Column(name = "email", nullable = false, length = 100)
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be a valid email address")
     @Size(max = 100, message = "Email must not exceed 100 characters")
@@ -33,6 +68,24 @@ public class User {
     @Size(max = 20, message = "Phone must not exceed 20 characters")
     private String phone;
 
+    /**
+     * Position of the user's latest change in the change feed
+     * (GET /api/users/changes). Taken from user_change_counter inside the
+     * writing transaction, so positions are assigned in commit order.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @ColumnDefault("current_timestamp")
+    @CreationTimestamp
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @ColumnDefault("current_timestamp")
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // Constructors
     public User() {
     }
@@ -53,6 +106,17 @@ public class User {
         this.id = id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public UUID getUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -85,17 +149,38 @@ public class User {
         this.phone = phone;
     }
 
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    void assignUuid() {
+        getUuid();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        User user = (User) o;
-        return id != null && id.equals(user.id);
+        // instanceof and getters rather than fields so Hibernate proxies compare equal
+        if (!(o instanceof User user)) return false;
+        return getUuid().equals(user.getUuid());
     }
 
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        return getUuid().hashCode();
     }
 
     @Override
@@ -0,0 +1,66 @@
+package com.example.usermanagement.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+/**
+ * Marker left behind by a deleted user so that the change feed
+ * (GET /api/users/changes) can report the deletion. Shares the position
+ * sequence with User.changeSeq.
+ */
+@Entity
+@Table(name = "user_tombstones",
+        indexes = @Index(name = "idx_user_tombstones_tenant_change_seq", columnList = "tenant_id, change_seq",
+                unique = true))
+public class UserTombstone {
+
+    /** Id of the deleted user; ids are never reused */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** Tenant of the deleted user */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    // Constructors
+    protected UserTombstone() {
+    }
+
+    public UserTombstone(Long userId, long changeSeq, Instant deletedAt) {
+        this.userId = userId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "UserTombstone{" +
+                "userId=" + userId +
+                ", changeSeq=" + changeSeq +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.usermanagement.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps in-flight requests with a limit that adapts to observed latency.
+ * <p>
+ * The limit grows by one after each request that finishes within the
+ * latency target and is cut by a quarter when the smoothed latency exceeds
+ * it (additive increase, multiplicative decrease), staying between two
+ * and {@code maxLimit}. Requests arriving while the
+ * limit is reached are shed instead of queueing behind a slow database.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_LIMIT = 2;
+
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    /** Exponentially weighted moving average of latency, in nanoseconds */
+    private final AtomicLong smoothedLatency = new AtomicLong();
+    private final AtomicLong lastDecrease = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(int maxLimit, long latencyTargetMillis) {
+        this.maxLimit = Math.max(MIN_LIMIT, maxLimit);
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.limit = new AtomicInteger(this.maxLimit);
+    }
+
+    /**
+     * @return true if the caller may proceed and must call {@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        long average = smoothedLatency.updateAndGet(
+                previous -> previous == 0 ? latencyNanos : previous + (latencyNanos - previous) / 8);
+
+        if (average > latencyTargetNanos) {
+            // Back off at most once per target interval so one slow burst is not punished repeatedly
+            long now = System.nanoTime();
+            long last = lastDecrease.get();
+            if (now - last > latencyTargetNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(MIN_LIMIT, current - Math.max(1, current / 4)));
+            }
+        } else if (latencyNanos <= latencyTargetNanos) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public double getSmoothedLatencyMillis() {
+        return smoothedLatency.get() / 1_000_000.0;
+    }
+}
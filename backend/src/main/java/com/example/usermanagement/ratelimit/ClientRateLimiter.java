@@ -0,0 +1,68 @@
+package com.example.usermanagement.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Token buckets keyed by client. The map is striped internally by
+ * {@link ConcurrentHashMap}; the buckets themselves are lock-free.
+ */
+public class ClientRateLimiter {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> reserved = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final double requestsPerSecond;
+    private final int burst;
+    private final int maxTrackedClients;
+
+    public ClientRateLimiter(double requestsPerSecond, int burst, int maxTrackedClients) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxTrackedClients = maxTrackedClients;
+    }
+
+    /**
+     * Gives a client a rate of its own instead of the default. Its bucket is
+     * never evicted and does not count towards the tracked clients.
+     */
+    public void reserve(String clientKey, double requestsPerSecond, int burst) {
+        reserved.put(clientKey, new TokenBucket(requestsPerSecond, burst));
+    }
+
+    /**
+     * @return 0 if the client may proceed, otherwise nanoseconds to wait
+     */
+    public long tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = reserved.isEmpty() ? null : reserved.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.get(clientKey);
+        }
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedClients) {
+                evictIdle(now);
+            }
+            bucket = buckets.computeIfAbsent(clientKey, key -> new TokenBucket(requestsPerSecond, burst));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    /**
+     * Drop buckets that have refilled; one thread at a time does the sweep
+     */
+    private void evictIdle(long now) {
+        if (evicting.compareAndSet(false, true)) {
+            try {
+                buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
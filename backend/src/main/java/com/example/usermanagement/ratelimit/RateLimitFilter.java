@@ -0,0 +1,146 @@
+package com.example.usermanagement.ratelimit;
+
+import com.example.usermanagement.exception.PreencodedProblem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the REST API.
+ * <p>
+ * Each request first takes a token from its client's read, write or import
+ * bucket (429 when empty), then a slot from the matching shared concurrency
+ * limiter (503 when the latency-driven limit is reached). Clients configured
+ * under app.rate-limit.clients get buckets of their own size. Both rejections
+ * carry a Retry-After header; CORS headers are added by the filter ahead of
+ * this one.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final PreencodedProblem TOO_MANY_REQUESTS = new PreencodedProblem(
+            HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", "Request rate limit exceeded");
+    private static final PreencodedProblem OVERLOADED = new PreencodedProblem(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", "Server is overloaded, retry later");
+    private static final String IMPORT_PATH = "/api/users/import";
+    private static final String KEY_PREFIX = "key:";
+
+    private final String clientKeyHeader;
+    private final Budget read;
+    private final Budget write;
+    private final Budget imports;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        this.clientKeyHeader = properties.getClientKeyHeader();
+        this.read = new Budget("read", properties.getRead(), properties.getMaxTrackedClients(), registry);
+        this.write = new Budget("write", properties.getWrite(), properties.getMaxTrackedClients(), registry);
+        this.imports = new Budget("import", properties.getImports(), properties.getMaxTrackedClients(), registry);
+        for (RateLimitProperties.Client client : properties.getClients().values()) {
+            if (client.getKey() == null || client.getKey().isEmpty()) {
+                continue;
+            }
+            if (client.getRead() != null) {
+                read.clients.reserve(KEY_PREFIX + client.getKey(),
+                        client.getRead().getRequestsPerSecond(), client.getRead().getBurst());
+            }
+            if (client.getWrite() != null) {
+                write.clients.reserve(KEY_PREFIX + client.getKey(),
+                        client.getWrite().getRequestsPerSecond(), client.getWrite().getBurst());
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        if (HttpMethod.OPTIONS.matches(method)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Budget budget = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? read
+                : isImport(request) ? imports : write;
+
+        long waitNanos = budget.clients.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            budget.rateLimited.increment();
+            reject(response, TOO_MANY_REQUESTS, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+            return;
+        }
+
+        if (!budget.concurrency.tryAcquire()) {
+            budget.shed.increment();
+            reject(response, OVERLOADED, 1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            budget.concurrency.release(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isImport(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(IMPORT_PATH) || path.startsWith(IMPORT_PATH + "/");
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientKeyHeader);
+        return apiKey != null && !apiKey.isEmpty() ? KEY_PREFIX + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, PreencodedProblem problem,
+                               long retryAfterSeconds) throws IOException {
+        byte[] body = problem.body();
+        response.setStatus(problem.getStatus().value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(PreencodedProblem.PROBLEM_JSON.toString());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Limiters and meters for one class of request
+     */
+    private static final class Budget {
+
+        final ClientRateLimiter clients;
+        final AdaptiveConcurrencyLimiter concurrency;
+        final Counter rateLimited;
+        final Counter shed;
+
+        Budget(String name, RateLimitProperties.Budget settings, int maxTrackedClients, MeterRegistry registry) {
+            this.clients = new ClientRateLimiter(
+                    settings.getRequestsPerSecond(), settings.getBurst(), maxTrackedClients);
+            this.concurrency = new AdaptiveConcurrencyLimiter(
+                    settings.getMaxConcurrent(), settings.getLatencyTargetMillis());
+            this.rateLimited = Counter.builder("users.ratelimit.rejected")
+                    .description("Requests rejected with 429 by the per-client rate limiter")
+                    .tag("budget", name).register(registry);
+            this.shed = Counter.builder("users.concurrency.shed")
+                    .description("Requests rejected with 503 by the concurrency limiter")
+                    .tag("budget", name).register(registry);
+            Gauge.builder("users.concurrency.in_flight", concurrency, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("budget", name).register(registry);
+            Gauge.builder("users.concurrency.limit", concurrency, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("budget", name).register(registry);
+            Gauge.builder("users.concurrency.latency_ms", concurrency,
+                            AdaptiveConcurrencyLimiter::getSmoothedLatencyMillis)
+                    .tag("budget", name).register(registry);
+            Gauge.builder("users.ratelimit.tracked_clients", clients, ClientRateLimiter::getTrackedClients)
+                    .tag("budget", name).register(registry);
+        }
+    }
+}
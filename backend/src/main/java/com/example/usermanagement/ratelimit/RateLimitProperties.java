@@ -0,0 +1,235 @@
+package com.example.usermanagement.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for per-client rate limiting and admission control on /api/*.
+ * Reads (GET/HEAD), writes (everything else) and import uploads have
+ * separate budgets.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Header identifying API clients; requests without it are keyed by remote address */
+    private String clientKeyHeader = "X-API-Key";
+
+    /** Idle client buckets are dropped once more than this many are tracked */
+    private int maxTrackedClients = 100_000;
+
+    private Budget read = new Budget(50, 100, 64, 250);
+    private Budget write = new Budget(10, 20, 16, 500);
+
+    /**
+     * Writes to /api/users/import. An upload takes as long as the file does,
+     * so it gets its own slots and a latency target that does not shrink
+     * the write limit.
+     */
+    private Budget imports = new Budget(0.2, 3, 4, 60_000);
+
+    /**
+     * Clients with rates of their own instead of the read and write
+     * defaults, by name; e.g. the Struts app, whose calls carry the traffic
+     * of all its users. Entries without a key are ignored.
+     */
+    private Map<String, Client> clients = new LinkedHashMap<>();
+
+    public static class Client {
+
+        /** Value of the client key header that identifies the client */
+        private String key;
+
+        /** Rates for reads and writes; the defaults apply where unset */
+        private Rate read;
+        private Rate write;
+
+        /**
+         * Leave the client out of its tenant's shared budgets, so that it is
+         * limited by its own rates here only
+         */
+        private boolean tenantExempt;
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Rate getRead() {
+            return read;
+        }
+
+        public void setRead(Rate read) {
+            this.read = read;
+        }
+
+        public Rate getWrite() {
+            return write;
+        }
+
+        public void setWrite(Rate write) {
+            this.write = write;
+        }
+
+        public boolean isTenantExempt() {
+            return tenantExempt;
+        }
+
+        public void setTenantExempt(boolean tenantExempt) {
+            this.tenantExempt = tenantExempt;
+        }
+    }
+
+    public static class Rate {
+
+        /** Sustained requests per second */
+        private double requestsPerSecond;
+
+        /** Requests that may be sent in a burst above the sustained rate */
+        private int burst;
+
+        public Rate() {
+        }
+
+        public Rate(double requestsPerSecond, int burst) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public static class Budget {
+
+        /** Sustained requests per second per client */
+        private double requestsPerSecond;
+
+        /** Requests a client may send in a burst above the sustained rate */
+        private int burst;
+
+        /** Upper bound on concurrently executing requests across all clients */
+        private int maxConcurrent;
+
+        /** Latency target; the concurrency limit shrinks while it is exceeded */
+        private long latencyTargetMillis;
+
+        public Budget() {
+        }
+
+        public Budget(double requestsPerSecond, int burst, int maxConcurrent, long latencyTargetMillis) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+            this.maxConcurrent = maxConcurrent;
+            this.latencyTargetMillis = latencyTargetMillis;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public long getLatencyTargetMillis() {
+            return latencyTargetMillis;
+        }
+
+        public void setLatencyTargetMillis(long latencyTargetMillis) {
+            this.latencyTargetMillis = latencyTargetMillis;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientKeyHeader() {
+        return clientKeyHeader;
+    }
+
+    public void setClientKeyHeader(String clientKeyHeader) {
+        this.clientKeyHeader = clientKeyHeader;
+    }
+
+    public int getMaxTrackedClients() {
+        return maxTrackedClients;
+    }
+
+    public void setMaxTrackedClients(int maxTrackedClients) {
+        this.maxTrackedClients = maxTrackedClients;
+    }
+
+    public Budget getRead() {
+        return read;
+    }
+
+    public void setRead(Budget read) {
+        this.read = read;
+    }
+
+    public Budget getWrite() {
+        return write;
+    }
+
+    public void setWrite(Budget write) {
+        this.write = write;
+    }
+
+    public Budget getImports() {
+        return imports;
+    }
+
+    public void setImports(Budget imports) {
+        this.imports = imports;
+    }
+
+    public Map<String, Client> getClients() {
+        return clients;
+    }
+
+    public void setClients(Map<String, Client> clients) {
+        this.clients = clients;
+    }
+}
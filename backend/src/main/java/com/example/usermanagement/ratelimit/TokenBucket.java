@@ -0,0 +1,52 @@
+package com.example.usermanagement.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm.
+ * <p>
+ * Instead of a token count it stores the theoretical arrival time (TAT) of
+ * the next conforming request in one {@link AtomicLong}. A request conforms
+ * if the TAT is at most {@code burst - 1} emission intervals in the
+ * future, which is equivalent to a bucket of {@code burst} tokens
+ * refilled at {@code rate} per second, but needs a single CAS and no
+ * allocation per request.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double requestsPerSecond, int burst) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * Try to take one token
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return 0 if allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long tat = current == Long.MIN_VALUE || current < nowNanos ? nowNanos : current;
+            long waitNanos = tat - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, tat + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True when the bucket would be full again, so dropping it loses nothing
+     */
+    public boolean isIdle(long nowNanos) {
+        long current = theoreticalArrival.get();
+        return current == Long.MIN_VALUE || current <= nowNanos;
+    }
+}
@@ -1,19 +1,44 @@
 package com.example.usermanagement.repository;
 
+import com.example.usermanagement.cache.UserCacheRegions;
 import com.example.usermanagement.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    /**
+     * All users of the current tenant, by id like the sharded store returns
+     * them; without the order H2 returns them in the order of whichever index
+     * it scans for the tenant. Reads cached users but does not add the rest
+     * to the second-level cache, so listing a large tenant does not push the
+     * other tenants' users out of it.
+     * @return the users
+     */
+    @Override
+    @Query("select u from User u order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<User> findAll();
 
     /**
      * Find a user by email address
      * @param email the email address to search for
      * @return Optional containing the user if found
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = UserCacheRegions.USERS_BY_EMAIL)
+    })
     Optional<User> findByEmail(String email);
 
     /**
@@ -21,6 +46,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email the email address to check
      * @return true if a user exists with this email
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = UserCacheRegions.USERS_BY_EMAIL)
+    })
     boolean existsByEmail(String email);
 
+    /**
+     * Users whose latest change lies in the given range of the change feed,
+     * read through idx_users_change_seq
+     * @param after exclusive lower bound
+     * @param upTo inclusive upper bound
+     * @param limit most users returned
+     * @return the users in change order
+     */
+    @Query("select u from User u where u.changeSeq > :after and u.changeSeq <= :upTo order by u.changeSeq")
+    List<User> findChanged(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
 }
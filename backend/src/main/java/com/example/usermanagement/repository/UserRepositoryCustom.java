@@ -0,0 +1,41 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Load several users at once. Users already in the persistence context or
+     * the second-level cache are taken from there; the rest are fetched with
+     * one multi-id query per chunk of app.user-lookup.chunk-size ids.
+     * @param ids the user IDs, without duplicates
+     * @return the users in the order of ids, with null where no user exists
+     */
+    List<User> findAllByIdInOrder(List<Long> ids);
+
+    /**
+     * Take the next position of the change feed. The counter row stays
+     * locked until the calling transaction ends, so concurrent writers commit
+     * in the order of their positions. Every write waits for that lock, so
+     * take the position as the last step before the transaction commits.
+     * @return the new position
+     */
+    long nextChangeSeq();
+
+    /**
+     * Take several consecutive positions of the change feed at once, like
+     * {@link #nextChangeSeq()}
+     * @param count how many positions
+     * @return the last of them; the block starts at the returned value - count + 1
+     */
+    long nextChangeSeqs(int count);
+
+    /**
+     * @return the latest position taken by a committed transaction (or by
+     *         the calling one)
+     */
+    long lastChangeSeq();
+
+}
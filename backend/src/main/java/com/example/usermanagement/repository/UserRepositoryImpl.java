@@ -0,0 +1,71 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.service.UserLookupProperties;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    /** Single-row table created by schema.sql */
+    private static final String CHANGE_COUNTER = "user_change_counter";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserLookupProperties properties;
+
+    UserRepositoryImpl(UserLookupProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllByIdInOrder(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                // Without an explicit cache mode multiLoad skips the second-level cache
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .withBatchSize(properties.getChunkSize())
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+
+    @Override
+    @Transactional
+    public long nextChangeSeq() {
+        return nextChangeSeqs(1);
+    }
+
+    @Override
+    @Transactional
+    public long nextChangeSeqs(int count) {
+        return changeCounterQuery("SELECT seq FROM FINAL TABLE (UPDATE " + CHANGE_COUNTER
+                + " SET seq = seq + " + count + " WHERE id = 1)");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long lastChangeSeq() {
+        return changeCounterQuery("SELECT seq FROM " + CHANGE_COUNTER + " WHERE id = 1");
+    }
+
+    /**
+     * Declaring the counter as the only table touched keeps Hibernate from
+     * flushing the session or evicting cached users for these statements
+     */
+    private long changeCounterQuery(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(CHANGE_COUNTER)
+                .getSingleResult()).longValue();
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.UserTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+
+    /**
+     * Deletions in the given range of the change feed
+     * @param after exclusive lower bound
+     * @param upTo inclusive upper bound
+     * @param limit most tombstones returned
+     * @return the tombstones in change order
+     */
+    @Query("select t from UserTombstone t where t.changeSeq > :after and t.changeSeq <= :upTo order by t.changeSeq")
+    List<UserTombstone> findDeleted(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+}
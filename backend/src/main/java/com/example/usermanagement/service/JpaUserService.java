@@ -0,0 +1,214 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.datasource.ReadYourWrites;
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserChangesDTO;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.exception.UserNotFoundException;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserTombstone;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserTombstoneRepository;
+import com.example.usermanagement.tenant.TenantContext;
+import com.example.usermanagement.tenant.TenantUserCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * UserService over JPA and the application datasource. Replaced by
+ * ShardedUserService when app.sharding.enabled=true.
+ */
+@Service
+@Transactional
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class JpaUserService implements UserService {
+
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository tombstoneRepository;
+
+    /** Null unless app.user-lookup.batching.enabled is set */
+    private final UserBatchLoader batchLoader;
+
+    /** Null when app.tenancy.cache.enabled=false */
+    private final TenantUserCache tenantCache;
+
+    public JpaUserService(UserRepository userRepository, UserTombstoneRepository tombstoneRepository,
+                          ObjectProvider<UserBatchLoader> batchLoader, ObjectProvider<TenantUserCache> tenantCache) {
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.batchLoader = batchLoader.getIfAvailable();
+        this.tenantCache = tenantCache.getIfAvailable();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO> getAllUsers() {
+        return userRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    // SUPPORTS: a batched lookup must not hold a transaction (and connection) while it waits
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserDTO getUserById(Long id) {
+        UserDTO cached = tenantCache != null ? tenantCache.get(id) : null;
+        if (cached != null) {
+            return cached;
+        }
+        User user = (batchLoader != null ? batchLoader.load(id) : userRepository.findById(id))
+                .filter(JpaUserService::inCurrentTenant)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        UserDTO dto = convertToDTO(user);
+        if (tenantCache != null) {
+            tenantCache.put(dto);
+        }
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO> getUsersByIds(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<UserDTO> users = new ArrayList<>(distinctIds.size());
+        for (User user : userRepository.findAllByIdInOrder(distinctIds)) {
+            if (user != null && inCurrentTenant(user)) {
+                users.add(convertToDTO(user));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public UserDTO createUser(CreateUserRequest request) {
+        // Check if email already exists
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new DataIntegrityViolationException("A user with this email address already exists");
+        }
+
+        User user = new User();
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        user.setEmail(request.getEmail());
+        user.setPhone(request.getPhone());
+        user.setChangeSeq(userRepository.nextChangeSeq());
+
+        User savedUser = userRepository.save(user);
+        ReadYourWrites.markWrite();
+        return convertToDTO(savedUser);
+    }
+
+    @Override
+    public UserDTO updateUser(Long id, UpdateUserRequest request) {
+        User user = userRepository.findById(id)
+                .filter(JpaUserService::inCurrentTenant)
+                .orElseThrow(() -> new UserNotFoundException(id));
+
+        // Check if email is being changed and if the new email already exists
+        if (!user.getEmail().equals(request.getEmail()) && 
+            userRepository.existsByEmail(request.getEmail())) {
+            throw new DataIntegrityViolationException("A user with this email address already exists");
+        }
+
+        // A no-op update leaves the row, and the user's place in the change feed, as it is
+        if (!user.getFirstName().equals(request.getFirstName())
+                || !user.getLastName().equals(request.getLastName())
+                || !user.getEmail().equals(request.getEmail())
+                || !Objects.equals(user.getPhone(), request.getPhone())) {
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
+            user.setEmail(request.getEmail());
+            user.setPhone(request.getPhone());
+            user.setChangeSeq(userRepository.nextChangeSeq());
+            if (tenantCache != null) {
+                tenantCache.evict(id);
+            }
+            ReadYourWrites.markWrite();
+        }
+
+        User updatedUser = userRepository.save(user);
+        return convertToDTO(updatedUser);
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        User user = userRepository.findById(id)
+                .filter(JpaUserService::inCurrentTenant)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        userRepository.delete(user);
+        if (tenantCache != null) {
+            tenantCache.evict(id);
+        }
+        tombstoneRepository.save(new UserTombstone(id, userRepository.nextChangeSeq(), Instant.now()));
+        ReadYourWrites.markWrite();
+    }
+
+    // Read-write so that it is served by the primary: replicas only receive the users table.
+    // Writes are marked explicitly, so polling the feed does not pin the client to the primary.
+    @Override
+    public UserChangesDTO getChanges(long since, int limit) {
+        // Every position up to the counter belongs to a committed (or rolled back) write,
+        // so nothing can later appear below the watermark returned here
+        long upTo = userRepository.lastChangeSeq();
+        List<User> users = userRepository.findChanged(since, upTo, Limit.of(limit + 1));
+        List<UserTombstone> tombstones = tombstoneRepository.findDeleted(since, upTo, Limit.of(limit + 1));
+
+        List<UserDTO> changed = new ArrayList<>();
+        List<UserChangesDTO.DeletedUser> deleted = new ArrayList<>();
+        long watermark = since;
+        int u = 0;
+        int t = 0;
+        while (u < users.size() || t < tombstones.size()) {
+            boolean nextIsUser = t == tombstones.size()
+                    || (u < users.size() && users.get(u).getChangeSeq() < tombstones.get(t).getChangeSeq());
+            long seq = nextIsUser ? users.get(u).getChangeSeq() : tombstones.get(t).getChangeSeq();
+            if (changed.size() + deleted.size() == limit) {
+                // Stop at the last change returned; the rest comes with the next call
+                return new UserChangesDTO(changed, deleted, watermark, true);
+            }
+            if (nextIsUser) {
+                changed.add(convertToDTO(users.get(u++)));
+            } else {
+                UserTombstone tombstone = tombstones.get(t++);
+                deleted.add(new UserChangesDTO.DeletedUser(tombstone.getUserId(), tombstone.getDeletedAt()));
+            }
+            watermark = seq;
+        }
+        return new UserChangesDTO(changed, deleted, upTo, false);
+    }
+
+    /**
+     * Hibernate scopes queries to the current tenant but not loads by id,
+     * which also serve other tenants' users; those must look like missing ones
+     */
+    private static boolean inCurrentTenant(User user) {
+        return user.getTenantId().equals(TenantContext.current());
+    }
+
+    /**
+     * Convert User entity to UserDTO
+     */
+    private UserDTO convertToDTO(User user) {
+        return new UserDTO(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                user.getPhone()
+        );
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.datasource.ReadYourWrites;
+import com.example.usermanagement.exception.UserLookupTimeoutException;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.tenant.TenantContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Merges concurrent single-id lookups into one multi-id load, DataLoader style.
+ * <p>
+ * The first lookup of a batch opens a window of {@code windowMillis}; lookups
+ * arriving within it join the batch (lookups of the same id share one
+ * result), and the batch is loaded when the window closes or as soon as it
+ * reaches {@code maxBatchSize} ids. Callers block until their batch is loaded,
+ * so this trades a little latency for far fewer queries under load.
+ * <p>
+ * Each tenant has batches of its own, loaded on behalf of that tenant, so a
+ * lookup never shares a result with another tenant's lookup of the same id.
+ * Lookups of requests pinned to the primary (read-your-writes) are batched
+ * apart from the others and loaded from the primary. A lookup whose batch
+ * has not loaded within {@code timeoutMillis} fails instead of holding its
+ * request thread.
+ */
+public class UserBatchLoader implements DisposableBean {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService executor;
+
+    /** The open batch of each tenant and routing; guarded by this */
+    private final Map<BatchKey, Map<Long, CompletableFuture<Optional<User>>>> batches = new HashMap<>();
+
+    public UserBatchLoader(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           UserLookupProperties.Batching properties) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowMillis = properties.getWindowMillis();
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.timeoutMillis = properties.getTimeoutMillis();
+        this.executor = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load a user as part of the current batch
+     * @param id the user ID
+     * @return the user, or empty if none exists with this id
+     */
+    public Optional<User> load(Long id) {
+        BatchKey key = new BatchKey(TenantContext.current(), ReadYourWrites.requiresPrimary());
+        CompletableFuture<Optional<User>> result;
+        Map<Long, CompletableFuture<Optional<User>>> full = null;
+        synchronized (this) {
+            Map<Long, CompletableFuture<Optional<User>>> current =
+                    batches.computeIfAbsent(key, k -> new HashMap<>());
+            result = current.get(id);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                current.put(id, result);
+                if (current.size() == 1) {
+                    executor.schedule(() -> flushIfCurrent(key, current), windowMillis, TimeUnit.MILLISECONDS);
+                }
+                if (current.size() >= maxBatchSize) {
+                    full = current;
+                    batches.remove(key);
+                }
+            }
+        }
+        if (full != null) {
+            Map<Long, CompletableFuture<Optional<User>>> ready = full;
+            executor.execute(() -> flush(key, ready));
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new UserLookupTimeoutException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserLookupTimeoutException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Window expired; load the batch unless it already filled up and was loaded
+     */
+    private void flushIfCurrent(BatchKey key, Map<Long, CompletableFuture<Optional<User>>> scheduled) {
+        synchronized (this) {
+            if (!batches.remove(key, scheduled)) {
+                return;
+            }
+        }
+        flush(key, scheduled);
+    }
+
+    /**
+     * Runs on a loader thread, which has neither a tenant nor a routing of
+     * its own; both are taken from the requests in the batch
+     */
+    private void flush(BatchKey key, Map<Long, CompletableFuture<Optional<User>>> ready) {
+        List<Long> ids = new ArrayList<>(ready.keySet());
+        try {
+            List<User> users = ReadYourWrites.call(key.requiresPrimary(), () -> TenantContext.call(key.tenantId(),
+                    () -> readOnlyTransaction.execute(status -> userRepository.findAllByIdInOrder(ids))));
+            for (int i = 0; i < ids.size(); i++) {
+                ready.get(ids.get(i)).complete(Optional.ofNullable(users.get(i)));
+            }
+        } catch (Exception e) {
+            ready.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Lookups are only batched with others that read the same way
+     */
+    private record BatchKey(String tenantId, boolean requiresPrimary) {
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(UserLookupProperties.class)
+public class UserLookupConfig {
+
+    /**
+     * Only created when batching is enabled; UserService loads ids one at a
+     * time without it
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.user-lookup.batching", name = "enabled", havingValue = "true")
+    public UserBatchLoader userBatchLoader(UserRepository userRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           UserLookupProperties properties) {
+        return new UserBatchLoader(userRepository, transactionManager, properties.getBatching());
+    }
+
+}
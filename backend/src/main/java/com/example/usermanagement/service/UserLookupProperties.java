@@ -0,0 +1,103 @@
+package com.example.usermanagement.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits for multi-id lookups (GET /api/users?ids=) and change feed pages
+ * (GET /api/users/changes), and the optional window that merges concurrent
+ * single-id lookups into one query
+ */
+@ConfigurationProperties(prefix = "app.user-lookup")
+public class UserLookupProperties {
+
+    /** Most ids accepted by one GET /api/users?ids= request */
+    private int maxIds = 100;
+
+    /** Ids per multi-id query; larger requests are split into several */
+    private int chunkSize = 50;
+
+    /** Most changes returned by one GET /api/users/changes request */
+    private int maxChanges = 500;
+
+    private Batching batching = new Batching();
+
+    public static class Batching {
+
+        /** Coalesce concurrent GET /api/users/{id} lookups */
+        private boolean enabled = false;
+
+        /** How long the first lookup waits for others to join its batch */
+        private long windowMillis = 2;
+
+        /** A batch is loaded as soon as it has this many ids */
+        private int maxBatchSize = 50;
+
+        /** How long a lookup waits for its batch to load before failing with 503 */
+        private long timeoutMillis = 2000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getWindowMillis() {
+            return windowMillis;
+        }
+
+        public void setWindowMillis(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    // Getters and Setters
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    public void setMaxIds(int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChanges() {
+        return maxChanges;
+    }
+
+    public void setMaxChanges(int maxChanges) {
+        this.maxChanges = maxChanges;
+    }
+
+    public Batching getBatching() {
+        return batching;
+    }
+
+    public void setBatching(Batching batching) {
+        this.batching = batching;
+    }
+}
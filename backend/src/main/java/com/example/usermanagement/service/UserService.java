@@ -2,48 +2,41 @@ package com.example.usermanagement.service;
 
 import com.example.usermanagement.dto.CreateUserRequest;
 import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserChangesDTO;
 import com.example.usermanagement.dto.UserDTO;
-import com.example.usermanagement.model.User;
-import com.example.usermanagement.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.example.usermanagement.exception.UserNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-@Service
-@Transactional
-public class UserService {
-
-    private final UserRepository userRepository;
-
-    public UserService(UserRepository userRepository) {
-        this.userRepository = userRepository;
-    }
+/**
+ * User operations behind the REST API, all on behalf of the current tenant
+ * (see TenantContext). JpaUserService implements them over the application
+ * datasource, ShardedUserService over the sharded store; exactly one of the
+ * two is a bean, chosen by app.sharding.enabled.
+ */
+public interface UserService {
 
     /**
      * Get all users
      * @return list of all users as DTOs
      */
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
+    List<UserDTO> getAllUsers();
 
     /**
      * Get a user by ID
      * @param id the user ID
      * @return the user as DTO
-     * @throws EntityNotFoundException if user not found
+     * @throws UserNotFoundException if user not found
+     */
+    UserDTO getUserById(Long id);
+
+    /**
+     * Get several users by ID
+     * @param ids the user IDs; duplicates are ignored
+     * @return the users that exist, in the order their IDs were first given
      */
-    public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
-        return convertToDTO(user);
-    }
+    List<UserDTO> getUsersByIds(List<Long> ids);
 
     /**
      * Create a new user
@@ -51,72 +44,33 @@ public class UserService {
      * @return the created user as DTO
      * @throws DataIntegrityViolationException if email already exists
      */
-    public UserDTO createUser(CreateUserRequest request) {
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new DataIntegrityViolationException("A user with this email address already exists");
-        }
-
-        User user = new User();
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        user.setEmail(request.getEmail());
-        user.setPhone(request.getPhone());
-
-        User savedUser = userRepository.save(user);
-        return convertToDTO(savedUser);
-    }
+    UserDTO createUser(CreateUserRequest request);
 
     /**
      * Update an existing user
      * @param id the user ID
      * @param request the update user request
      * @return the updated user as DTO
-     * @throws EntityNotFoundException if user not found
+     * @throws UserNotFoundException if user not found
      * @throws DataIntegrityViolationException if email already exists for another user
      */
-    public UserDTO updateUser(Long id, UpdateUserRequest request) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
-
-        // Check if email is being changed and if the new email already exists
-        if (!user.getEmail().equals(request.getEmail()) && 
-            userRepository.existsByEmail(request.getEmail())) {
-            throw new DataIntegrityViolationException("A user with this email address already exists");
-        }
-
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        user.setEmail(request.getEmail());
-        user.setPhone(request.getPhone());
-
-        User updatedUser = userRepository.save(user);
-        return convertToDTO(updatedUser);
-    }
+    UserDTO updateUser(Long id, UpdateUserRequest request);
 
     /**
      * Delete a user
      * @param id the user ID
-     * @throws EntityNotFoundException if user not found
+     * @throws UserNotFoundException if user not found
      */
-    public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new EntityNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
-    }
+    void deleteUser(Long id);
 
     /**
-     * Convert User entity to UserDTO
+     * Get the users created, updated or deleted after a position of the change
+     * feed, oldest change first. A user changed several times appears once, at
+     * its latest change.
+     * @param since the watermark of the previous call, 0 for everything
+     * @param limit most changes returned
+     * @return the changes and the watermark for the next call
      */
-    private UserDTO convertToDTO(User user) {
-        return new UserDTO(
-                user.getId(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getEmail(),
-                user.getPhone()
-        );
-    }
+    UserChangesDTO getChanges(long since, int limit);
 
 }
@@ -0,0 +1,61 @@
+package com.example.usermanagement.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps user ids to shard indexes on a consistent-hash ring.
+ * <p>
+ * Each shard owns {@code virtualNodes} points on the ring and an id belongs
+ * to the first point at or after its hash. Adding a shard only moves the
+ * ids that land on the new shard's points, roughly 1/N of the data, instead
+ * of reshuffling everything as {@code id % N} would.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    private final int shardCount;
+
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash(("shard-" + shard + "#" + node).getBytes(StandardCharsets.UTF_8)), shard);
+            }
+        }
+    }
+
+    public int shardFor(long id) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(mix(id));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * FNV-1a followed by a final avalanche so nearby node names spread out
+     */
+    private static long hash(byte[] data) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * SplitMix64 finalizer; sequential ids become uniformly spread hashes
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.usermanagement.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * Command line tool that moves users onto a new shard list, run instead of
+ * the application while writes are stopped:
+ * <pre>
+ * java -cp usermanagement-backend-1.0.0-SNAPSHOT.jar \
+ *     -Dloader.main=com.example.usermanagement.sharding.ShardRebalanceCommand \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --app.sharding.rebalance.target-urls=jdbc:h2:file:./data/users-shard-0,...
+ * </pre>
+ * The current shards are read from the same app.sharding settings as the
+ * application's. Afterwards set app.sharding.shard-urls to the target list.
+ * Exits with a non-zero status if the rebalance fails.
+ */
+public class ShardRebalanceCommand {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalanceCommand.class);
+
+    public static void main(String[] args) {
+        // Only for application.properties and the arguments; no beans, no web server
+        SpringApplication application = new SpringApplication(ShardRebalanceCommand.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            ShardingProperties properties = Binder.get(context.getEnvironment())
+                    .bind("app.sharding", ShardingProperties.class)
+                    .orElseGet(ShardingProperties::new);
+            run(properties);
+        }
+    }
+
+    /**
+     * @return number of users moved
+     */
+    static long run(ShardingProperties properties) {
+        List<String> targetUrls = properties.getRebalance().getTargetUrls();
+        if (targetUrls.isEmpty()) {
+            throw new IllegalArgumentException("Set app.sharding.rebalance.target-urls to the new shard list");
+        }
+        ShardedUserStore store = new ShardedUserStore(properties);
+        try {
+            long moved = new ShardRebalancer(store, properties).rebalance(targetUrls);
+            log.info("Rebalance complete: {} users moved onto {} shards", moved, targetUrls.size());
+            return moved;
+        } finally {
+            store.destroy();
+        }
+    }
+}
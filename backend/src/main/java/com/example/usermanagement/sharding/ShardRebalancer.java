@@ -0,0 +1,93 @@
+package com.example.usermanagement.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves users between shards after the shard list changes.
+ * <p>
+ * Rows are read from each current shard in id order, one batch at a time,
+ * and every row whose owner differs under the new ring is upserted on its
+ * new shard and then deleted from the old one. Appending shards to the end
+ * of the list keeps the existing ring points in place, so only the rows that
+ * now belong to the new shards move, each with its tenant. The email
+ * directory is not affected. Writes should be stopped while a rebalance
+ * runs; see {@link ShardRebalanceCommand}.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getLong("id"),
+            rs.getString("tenant_id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getString("phone"));
+
+    private final ShardedUserStore store;
+    private final ShardingProperties properties;
+
+    public ShardRebalancer(ShardedUserStore store, ShardingProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    /**
+     * @param targetUrls the new shard list, in ring order
+     * @return number of users moved
+     */
+    public long rebalance(List<String> targetUrls) {
+        List<String> sourceUrls = properties.getShardUrls();
+        List<JdbcTemplate> targets = new ArrayList<>(targetUrls.size());
+        for (int i = 0; i < targetUrls.size(); i++) {
+            int existing = sourceUrls.indexOf(targetUrls.get(i));
+            JdbcTemplate target = existing >= 0
+                    ? store.getShards().get(existing)
+                    : new JdbcTemplate(store.open(targetUrls.get(i), "rebalance-" + i, properties));
+            target.execute(ShardedUserStore.USERS_DDL);
+            target.execute(ShardedUserStore.TENANT_USERS_INDEX_DDL);
+            targets.add(target);
+        }
+
+        ConsistentHashRing newRing = new ConsistentHashRing(targetUrls.size(), properties.getVirtualNodes());
+        int batchSize = properties.getRebalance().getBatchSize();
+        long moved = 0;
+
+        for (int source = 0; source < sourceUrls.size(); source++) {
+            JdbcTemplate from = store.getShards().get(source);
+            long lastId = 0;
+            long movedFromShard = 0;
+            List<Row> batch;
+            do {
+                batch = from.query("SELECT id, tenant_id, first_name, last_name, email, phone FROM users "
+                        + "WHERE id > ? ORDER BY id LIMIT ?", ROW_MAPPER, lastId, batchSize);
+                for (Row row : batch) {
+                    lastId = row.id();
+                    JdbcTemplate to = targets.get(newRing.shardFor(row.id()));
+                    if (to == from) {
+                        continue;
+                    }
+                    to.update("MERGE INTO users (id, tenant_id, first_name, last_name, email, phone) KEY (id) "
+                                    + "VALUES (?, ?, ?, ?, ?, ?)",
+                            row.id(), row.tenantId(), row.firstName(), row.lastName(), row.email(), row.phone());
+                    from.update("DELETE FROM users WHERE id = ?", row.id());
+                    movedFromShard++;
+                }
+            } while (batch.size() == batchSize);
+
+            log.info("Moved {} users off shard {} ({})", movedFromShard, source, sourceUrls.get(source));
+            moved += movedFromShard;
+        }
+        return moved;
+    }
+
+    private record Row(long id, String tenantId, String firstName, String lastName, String email, String phone) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.usermanagement.sharding;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserChangesDTO;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.exception.ChangeFeedUnavailableException;
+import com.example.usermanagement.exception.UserNotFoundException;
+import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.tenant.TenantContext;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+/**
+ * UserService backed by the sharded store instead of JPA.
+ * The UserService bean when app.sharding.enabled=true.
+ */
+public class ShardedUserService implements UserService {
+
+    private final ShardedUserStore store;
+
+    public ShardedUserService(ShardedUserStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<UserDTO> getAllUsers() {
+        return store.findAll(TenantContext.current());
+    }
+
+    @Override
+    public UserDTO getUserById(Long id) {
+        return store.findById(TenantContext.current(), id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    @Override
+    public List<UserDTO> getUsersByIds(List<Long> ids) {
+        return store.findByIds(TenantContext.current(), ids);
+    }
+
+    @Override
+    public UserDTO createUser(CreateUserRequest request) {
+        String tenantId = TenantContext.current();
+        if (store.existsByEmail(tenantId, request.getEmail())) {
+            throw new DataIntegrityViolationException("A user with this email address already exists");
+        }
+        return store.create(tenantId, request.getFirstName(), request.getLastName(), request.getEmail(),
+                request.getPhone());
+    }
+
+    @Override
+    public UserDTO updateUser(Long id, UpdateUserRequest request) {
+        UserDTO existing = getUserById(id);
+        return store.update(TenantContext.current(), existing, request.getFirstName(), request.getLastName(),
+                request.getEmail(), request.getPhone());
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        store.delete(TenantContext.current(), getUserById(id));
+    }
+
+    /**
+     * The shards have no shared change sequence to order changes by
+     */
+    @Override
+    public UserChangesDTO getChanges(long since, int limit) {
+        throw new ChangeFeedUnavailableException();
+    }
+
+}
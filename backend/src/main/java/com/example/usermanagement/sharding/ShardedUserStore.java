@@ -0,0 +1,280 @@
+package com.example.usermanagement.sharding;
+
+import com.example.usermanagement.dto.UserDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * User storage partitioned across several databases by consistent hash of id.
+ * <p>
+ * Every row carries its tenant, and every operation is scoped to the tenant
+ * it is given. A separate directory database maps (tenant, email) to ids,
+ * which keeps emails unique within a tenant across shards, and hands out ids
+ * from one sequence so they never collide across shards. Single-user operations touch one shard (plus the
+ * directory for email changes); listing queries every shard in parallel
+ * and merges the id-ordered results.
+ */
+public class ShardedUserStore implements DisposableBean {
+
+    static final String USERS_DDL = "CREATE TABLE IF NOT EXISTS users ("
+            + "id BIGINT PRIMARY KEY, "
+            + "tenant_id VARCHAR(64) NOT NULL, "
+            + "first_name VARCHAR(50) NOT NULL, "
+            + "last_name VARCHAR(50) NOT NULL, "
+            + "email VARCHAR(100) NOT NULL, "
+            + "phone VARCHAR(20))";
+    static final String SELECT_COLUMNS = "SELECT id, first_name, last_name, email, phone FROM users";
+    static final String TENANT_USERS_INDEX_DDL =
+            "CREATE INDEX IF NOT EXISTS idx_users_tenant ON users (tenant_id, id)";
+
+    static final RowMapper<UserDTO> USER_ROW_MAPPER = (rs, rowNum) -> new UserDTO(
+            rs.getLong("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getString("phone"));
+
+    private static final String EMAIL_EXISTS = "A user with this email address already exists";
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final JdbcTemplate directory;
+    private final ConsistentHashRing ring;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedUserStore(ShardingProperties properties) {
+        List<String> urls = properties.getShardUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            JdbcTemplate shard = new JdbcTemplate(open(urls.get(i), "shard-" + i, properties));
+            shard.execute(USERS_DDL);
+            shard.execute(TENANT_USERS_INDEX_DDL);
+            shards.add(shard);
+        }
+        this.directory = new JdbcTemplate(open(properties.getDirectoryUrl(), "shard-directory", properties));
+        directory.execute("CREATE TABLE IF NOT EXISTS user_emails ("
+                + "tenant_id VARCHAR(64) NOT NULL, email VARCHAR(100) NOT NULL, user_id BIGINT NOT NULL, "
+                + "PRIMARY KEY (tenant_id, email))");
+        directory.execute("CREATE SEQUENCE IF NOT EXISTS user_ids START WITH 1");
+
+        this.ring = new ConsistentHashRing(shards.size(), properties.getVirtualNodes());
+        this.scatterExecutor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    HikariDataSource open(String url, String poolName, ShardingProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setMaximumPoolSize(properties.getPoolSize());
+        dataSource.setPoolName(poolName);
+        dataSources.add(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * All users of the tenant from every shard, ordered by id
+     */
+    public List<UserDTO> findAll(String tenantId) {
+        return scatterGather(shard -> shard.query(SELECT_COLUMNS + " WHERE tenant_id = ? ORDER BY id",
+                USER_ROW_MAPPER, tenantId));
+    }
+
+    public Optional<UserDTO> findById(String tenantId, long id) {
+        return shardFor(id).query(SELECT_COLUMNS + " WHERE id = ? AND tenant_id = ?", USER_ROW_MAPPER, id, tenantId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Users with the given ids, in the order the ids were first given;
+     * one IN query per shard involved
+     */
+    public List<UserDTO> findByIds(String tenantId, List<Long> ids) {
+        Map<JdbcTemplate, List<Long>> idsByShard = new LinkedHashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            idsByShard.computeIfAbsent(shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+        Map<Long, UserDTO> found = new HashMap<>(ids.size() * 2);
+        idsByShard.forEach((shard, shardIds) -> {
+            String placeholders = String.join(",", Collections.nCopies(shardIds.size(), "?"));
+            List<Object> arguments = new ArrayList<>(shardIds.size() + 1);
+            arguments.add(tenantId);
+            arguments.addAll(shardIds);
+            for (UserDTO user : shard.query(SELECT_COLUMNS + " WHERE tenant_id = ? AND id IN (" + placeholders + ")",
+                    USER_ROW_MAPPER, arguments.toArray())) {
+                found.put(user.getId(), user);
+            }
+        });
+        List<UserDTO> users = new ArrayList<>(found.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            UserDTO user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    public boolean existsByEmail(String tenantId, String email) {
+        Integer count = directory.queryForObject(
+                "SELECT COUNT(*) FROM user_emails WHERE tenant_id = ? AND email = ?", Integer.class, tenantId, email);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Reserve the email in the directory, then write the row to its shard.
+     * The reservation is released again if the shard write fails.
+     * @throws DataIntegrityViolationException if the email is taken in the tenant
+     */
+    public UserDTO create(String tenantId, String firstName, String lastName, String email, String phone) {
+        Long id = directory.queryForObject("SELECT NEXT VALUE FOR user_ids", Long.class);
+        reserveEmail(tenantId, email, id);
+        try {
+            shardFor(id).update("INSERT INTO users (id, tenant_id, first_name, last_name, email, phone) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", id, tenantId, firstName, lastName, email, phone);
+        } catch (RuntimeException e) {
+            releaseEmail(tenantId, email, id);
+            throw e;
+        }
+        return new UserDTO(id, firstName, lastName, email, phone);
+    }
+
+    /**
+     * Update a user of the tenant in place; an email change moves its
+     * directory entry
+     * @param existing the user as found by {@link #findById} for the tenant
+     * @throws DataIntegrityViolationException if the new email is taken in the tenant
+     */
+    public UserDTO update(String tenantId, UserDTO existing, String firstName, String lastName, String email,
+                          String phone) {
+        long id = existing.getId();
+        boolean emailChanged = !existing.getEmail().equals(email);
+        if (emailChanged) {
+            reserveEmail(tenantId, email, id);
+        }
+        try {
+            shardFor(id).update("UPDATE users SET first_name = ?, last_name = ?, email = ?, phone = ? "
+                    + "WHERE id = ? AND tenant_id = ?", firstName, lastName, email, phone, id, tenantId);
+        } catch (RuntimeException e) {
+            if (emailChanged) {
+                releaseEmail(tenantId, email, id);
+            }
+            throw e;
+        }
+        if (emailChanged) {
+            releaseEmail(tenantId, existing.getEmail(), id);
+        }
+        return new UserDTO(id, firstName, lastName, email, phone);
+    }
+
+    /**
+     * @param existing the user as found by {@link #findById} for the tenant
+     */
+    public void delete(String tenantId, UserDTO existing) {
+        shardFor(existing.getId()).update("DELETE FROM users WHERE id = ? AND tenant_id = ?",
+                existing.getId(), tenantId);
+        releaseEmail(tenantId, existing.getEmail(), existing.getId());
+    }
+
+    /**
+     * Run a query on every shard in parallel and merge the id-ordered results
+     */
+    public List<UserDTO> scatterGather(Function<JdbcTemplate, List<UserDTO>> query) {
+        List<CompletableFuture<List<UserDTO>>> futures = new ArrayList<>(shards.size());
+        for (JdbcTemplate shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), scatterExecutor));
+        }
+        List<List<UserDTO>> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<List<UserDTO>> future : futures) {
+            results.add(future.join());
+        }
+        return mergeById(results);
+    }
+
+    /**
+     * K-way merge of lists that are each sorted by id
+     */
+    static List<UserDTO> mergeById(List<List<UserDTO>> sortedLists) {
+        int total = 0;
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparingLong(Cursor::currentId));
+        for (List<UserDTO> list : sortedLists) {
+            total += list.size();
+            if (!list.isEmpty()) {
+                heads.add(new Cursor(list));
+            }
+        }
+        List<UserDTO> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.list.get(cursor.index++));
+            if (cursor.index < cursor.list.size()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private void reserveEmail(String tenantId, String email, Long id) {
+        try {
+            directory.update("INSERT INTO user_emails (tenant_id, email, user_id) VALUES (?, ?, ?)",
+                    tenantId, email, id);
+        } catch (DuplicateKeyException e) {
+            throw new DataIntegrityViolationException(EMAIL_EXISTS, e);
+        }
+    }
+
+    private void releaseEmail(String tenantId, String email, long id) {
+        directory.update("DELETE FROM user_emails WHERE tenant_id = ? AND email = ? AND user_id = ?",
+                tenantId, email, id);
+    }
+
+    JdbcTemplate shardFor(long id) {
+        return shards.get(ring.shardFor(id));
+    }
+
+    List<JdbcTemplate> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void destroy() {
+        scatterExecutor.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    private static final class Cursor {
+
+        private final List<UserDTO> list;
+        private int index;
+
+        Cursor(List<UserDTO> list) {
+            this.list = list;
+        }
+
+        long currentId() {
+            return list.get(index).getId();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.usermanagement.sharding;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sharded user storage: the store and the UserService over it, which then
+ * stands in for JpaUserService. Rebalancing onto a new shard list is a
+ * separate command, see {@link ShardRebalanceCommand}.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedUserStore shardedUserStore(ShardingProperties properties) {
+        return new ShardedUserStore(properties);
+    }
+
+    @Bean
+    public ShardedUserService shardedUserService(ShardedUserStore store) {
+        return new ShardedUserService(store);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.example.usermanagement.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for partitioning users across several H2 databases.
+ * Disabled by default; the JPA datasource is used when off.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /** JDBC URLs of the user shards, in ring order */
+    private List<String> shardUrls = new ArrayList<>(List.of(
+            "jdbc:h2:file:./data/users-shard-0",
+            "jdbc:h2:file:./data/users-shard-1"));
+
+    /** Database holding the email directory and the global id sequence */
+    private String directoryUrl = "jdbc:h2:file:./data/users-directory";
+
+    private String username = "sa";
+    private String password = "";
+
+    /** Points per shard on the hash ring; more points give a more even spread */
+    private int virtualNodes = 128;
+
+    /** Connection pool size per shard */
+    private int poolSize = 8;
+
+    private Rebalance rebalance = new Rebalance();
+
+    public static class Rebalance {
+
+        /** The new shard list, in ring order, that ShardRebalanceCommand moves the rows onto */
+        private List<String> targetUrls = new ArrayList<>();
+
+        private int batchSize = 500;
+
+        public List<String> getTargetUrls() {
+            return targetUrls;
+        }
+
+        public void setTargetUrls(List<String> targetUrls) {
+            this.targetUrls = targetUrls;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getShardUrls() {
+        return shardUrls;
+    }
+
+    public void setShardUrls(List<String> shardUrls) {
+        this.shardUrls = shardUrls;
+    }
+
+    public String getDirectoryUrl() {
+        return directoryUrl;
+    }
+
+    public void setDirectoryUrl(String directoryUrl) {
+        this.directoryUrl = directoryUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public Rebalance getRebalance() {
+        return rebalance;
+    }
+
+    public void setRebalance(Rebalance rebalance) {
+        this.rebalance = rebalance;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.usermanagement.slowquery;
+
+import com.example.usermanagement.jdbc.StatementListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs statements that took at least the threshold, with their bind values,
+ * elapsed time and the calling service method. A fast statement costs one
+ * comparison; the caller lookup and formatting only happen for slow statements
+ * that are sampled, and the logger writes through an async appender
+ * (logback-spring.xml), so the request thread never waits on the console.
+ */
+public class SlowQueryLog implements StatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final String APPLICATION_PACKAGE = "com.example.usermanagement.";
+    /** Instrumentation between the service and the driver, never reported as the caller */
+    private static final List<String> SKIPPED_PACKAGES = List.of(
+            APPLICATION_PACKAGE + "slowquery.", APPLICATION_PACKAGE + "jdbc.", APPLICATION_PACKAGE + "tracing.");
+
+    private final StackWalker stackWalker = StackWalker.getInstance();
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxBindValueLength;
+    private final String callerPackage;
+    private final Counter slowStatements;
+
+    public SlowQueryLog(SlowQueryProperties properties, MeterRegistry registry) {
+        this.thresholdNanos = properties.getThreshold().toNanos();
+        this.sampleRate = properties.getSampleRate();
+        this.maxBindValueLength = properties.getMaxBindValueLength();
+        this.callerPackage = properties.getCallerPackage() + ".";
+        this.slowStatements = Counter.builder("users.sql.slow")
+                .description("Statements on the JPA datasource that exceeded app.slow-query.threshold")
+                .register(registry);
+    }
+
+    /**
+     * Called on the thread that ran the statement, so the caller is still on the stack
+     */
+    @Override
+    public void afterExecute(Object state, ExecutedStatement statement) {
+        long elapsedNanos = statement.getElapsedNanos();
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        slowStatements.increment();
+        if (!log.isWarnEnabled() || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        log.warn("Slow query: {} ms in {}: {}{}{}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), caller(), statement.getSql(),
+                statement.getBindCount() > 0 ? " binds " + formatBinds(statement) : "",
+                statement.getBatchSize() > 0 ? " (batch of " + statement.getBatchSize() + ")" : "");
+    }
+
+    /**
+     * The nearest frame in the caller package (UserService), else the
+     * nearest application frame, skipping Spring's generated proxies
+     */
+    private String caller() {
+        return stackWalker.walk(frames -> {
+            String nearest = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (className.contains("$$") || isSkipped(className)) {
+                    continue;
+                }
+                if (className.startsWith(callerPackage)) {
+                    return describe(frame);
+                }
+                if (nearest == null && className.startsWith(APPLICATION_PACKAGE)) {
+                    nearest = describe(frame);
+                }
+            }
+            return nearest != null ? nearest : "unknown";
+        });
+    }
+
+    private static boolean isSkipped(String className) {
+        for (String prefix : SKIPPED_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private String formatBinds(ExecutedStatement statement) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 1; i <= statement.getBindCount(); i++) {
+            if (i > 1) {
+                text.append(", ");
+            }
+            Object value = statement.getBind(i);
+            if (value instanceof CharSequence || value instanceof UUID) {
+                String string = value.toString();
+                if (string.length() > maxBindValueLength) {
+                    string = string.substring(0, maxBindValueLength) + "...";
+                }
+                text.append('\'').append(string).append('\'');
+            } else if (value instanceof byte[] bytes) {
+                text.append('<').append(bytes.length).append(" bytes>");
+            } else {
+                text.append(value);
+            }
+        }
+        return text.append(']').toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usermanagement.slowquery;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the slow-query log on the JPA datasource
+ */
+@ConfigurationProperties(prefix = "app.slow-query")
+public class SlowQueryProperties {
+
+    private boolean enabled = true;
+
+    /** Statements that take at least this long are logged */
+    private Duration threshold = Duration.ofMillis(100);
+
+    /** Fraction of slow statements that are logged (0..1); all of them are counted */
+    private double sampleRate = 1.0;
+
+    /** Longer bind values, e.g. large strings, are truncated in the log */
+    private int maxBindValueLength = 100;
+
+    /** Package whose nearest frame is reported as the caller, normally the UserService method */
+    private String callerPackage = "com.example.usermanagement.service";
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getMaxBindValueLength() {
+        return maxBindValueLength;
+    }
+
+    public void setMaxBindValueLength(int maxBindValueLength) {
+        this.maxBindValueLength = maxBindValueLength;
+    }
+
+    public String getCallerPackage() {
+        return callerPackage;
+    }
+
+    public void setCallerPackage(String callerPackage) {
+        this.callerPackage = callerPackage;
+    }
+}
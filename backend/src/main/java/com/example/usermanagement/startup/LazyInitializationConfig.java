@@ -0,0 +1,24 @@
+package com.example.usermanagement.startup;
+
+import com.example.usermanagement.datasource.ReplicaHealthMonitor;
+import com.example.usermanagement.datasource.SnapshotReplicationJob;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.sql.init.AbstractScriptDatabaseInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager under spring.main.lazy-initialization (fast-start
+ * --lazy): nothing injects them, so as lazy beans they would never be
+ * created. That would skip data.sql and the replica @Scheduled jobs.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AbstractScriptDatabaseInitializer.class,
+                SnapshotReplicationJob.class, ReplicaHealthMonitor.class);
+    }
+
+}
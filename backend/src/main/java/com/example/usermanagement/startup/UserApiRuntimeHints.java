@@ -0,0 +1,46 @@
+package com.example.usermanagement.startup;
+
+import com.example.usermanagement.codec.UserDTOSerializer;
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.model.User;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative), on top
+ * of what Spring AOT and the GraalVM reachability metadata already cover
+ */
+public class UserApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Jackson binding of the API payloads, including @JsonSerialize(using = UserDTOSerializer.class)
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                UserDTO.class, CreateUserRequest.class, UpdateUserRequest.class);
+        hints.reflection().registerType(UserDTOSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Bean Validation reads the constraint annotations from the fields
+        hints.reflection().registerType(CreateUserRequest.class, MemberCategory.DECLARED_FIELDS);
+        hints.reflection().registerType(UpdateUserRequest.class, MemberCategory.DECLARED_FIELDS);
+
+        // Hibernate field access, the no-arg constructor and the @PrePersist callback
+        hints.reflection().registerType(User.class, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+
+        // H2: the driver is loaded by name from spring.datasource.driverClassName and the
+        // shard/replica URLs; data.zip holds the error messages and the H2 console
+        hints.reflection().registerType(TypeReference.of("org.h2.Driver"), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("org/h2/util/data.zip");
+
+        // UserCacheConfig looks the JCache provider up by class name; its defaults come from reference.conf
+        hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("reference.conf");
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.example.usermanagement.tenant;
+
+import com.example.usermanagement.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Users are partitioned by tenant with Hibernate's @TenantId column. The
+ * resolver is always installed, since the entities need a tenant; with
+ * app.tenancy.enabled=false the header is ignored and everything belongs to
+ * the default tenant. Sharded storage keeps the tenant in a column of its own.
+ */
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+public class TenantConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantHibernateProperties() {
+        return hibernateProperties ->
+                hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER,
+                        new TenantIdentifierResolver());
+    }
+
+    /**
+     * Runs first among the API filters, so the tenant's budgets apply before
+     * the per-client rate limiter and the tenant is known to all later ones.
+     * Clients are only exempted while the rate limiter is on to bound them.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tenancy", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenantProperties properties,
+                                                             ObjectProvider<RateLimitProperties> rateLimits,
+                                                             MeterRegistry registry) {
+        RateLimitProperties rateLimit = rateLimits.getIfAvailable();
+        TenantFilter filter = rateLimit == null
+                ? new TenantFilter(properties, registry)
+                : new TenantFilter(properties, rateLimit.getClientKeyHeader(), exemptClientKeys(rateLimit), registry);
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tenancy.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TenantUserCache tenantUserCache(TenantProperties properties) {
+        return new TenantUserCache(properties.getCache());
+    }
+
+    private static Set<String> exemptClientKeys(RateLimitProperties rateLimit) {
+        Set<String> keys = new HashSet<>();
+        for (RateLimitProperties.Client client : rateLimit.getClients().values()) {
+            if (client.isTenantExempt() && client.getKey() != null && !client.getKey().isEmpty()) {
+                keys.add(client.getKey());
+            }
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.example.usermanagement.tenant;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulkhead per tenant: at most maxConnections requests of a tenant are in
+ * progress at once. Acquiring never blocks, so a tenant over its budget is
+ * turned away instead of queueing behind its own requests.
+ */
+class TenantConnectionBudget {
+
+    private final ConcurrentMap<String, Semaphore> permits;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int maxConnections;
+    private final int maxTrackedTenants;
+
+    TenantConnectionBudget(int maxConnections, int maxTrackedTenants) {
+        this(maxConnections, maxTrackedTenants, new ConcurrentHashMap<>());
+    }
+
+    TenantConnectionBudget(int maxConnections, int maxTrackedTenants, ConcurrentMap<String, Semaphore> permits) {
+        this.maxConnections = maxConnections;
+        this.maxTrackedTenants = maxTrackedTenants;
+        this.permits = permits;
+    }
+
+    /**
+     * @return the permit to release when the request ends, or null if the
+     *         tenant has no connection left
+     */
+    Semaphore tryAcquire(String tenantId) {
+        while (true) {
+            Semaphore semaphore = permits.get(tenantId);
+            if (semaphore == null) {
+                if (permits.size() >= maxTrackedTenants) {
+                    evictIdle();
+                }
+                semaphore = permits.computeIfAbsent(tenantId, key -> new Semaphore(maxConnections));
+            }
+            if (!semaphore.tryAcquire()) {
+                return null;
+            }
+            // Eviction removes a semaphore only while all its permits are free, in one
+            // step; if ours went before we took a permit, retry on the tenant's new one
+            if (permits.get(tenantId) == semaphore) {
+                return semaphore;
+            }
+            semaphore.release();
+        }
+    }
+
+    int getTrackedTenants() {
+        return permits.size();
+    }
+
+    /**
+     * Drop tenants with nothing in progress. The check and the removal are
+     * atomic per tenant, and tryAcquire backs out of a permit taken on a
+     * semaphore that was dropped meanwhile, so a tenant never has two live
+     * semaphores.
+     */
+    private void evictIdle() {
+        if (evicting.compareAndSet(false, true)) {
+            try {
+                for (String tenantId : permits.keySet()) {
+                    permits.computeIfPresent(tenantId, (key, semaphore) ->
+                            semaphore.availablePermits() == maxConnections ? null : semaphore);
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.usermanagement.tenant;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Tenant of the request on the current thread. TenantFilter sets it from the
+ * X-Tenant-Id header; work outside a request (data.sql, the command line
+ * import) and requests without the header belong to the default tenant.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    static void begin(String tenantId) {
+        TENANT.set(tenantId);
+    }
+
+    static void end() {
+        TENANT.remove();
+    }
+
+    /**
+     * Run work on behalf of a tenant outside its request, e.g. on a
+     * background thread
+     */
+    public static void run(String tenantId, Runnable work) {
+        String previous = TENANT.get();
+        TENANT.set(tenantId);
+        try {
+            work.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Like {@link #run}, for work that returns a result or throws checked
+     * exceptions
+     */
+    public static <T> T call(String tenantId, Callable<T> work) throws Exception {
+        String previous = TENANT.get();
+        TENANT.set(tenantId);
+        try {
+            return work.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(String previous) {
+        if (previous != null) {
+            TENANT.set(previous);
+        } else {
+            TENANT.remove();
+        }
+    }
+
+    /**
+     * @return the current tenant id, never null
+     */
+    public static String current() {
+        String tenantId = TENANT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+}
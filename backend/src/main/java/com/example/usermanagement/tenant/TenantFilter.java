@@ -0,0 +1,140 @@
+package com.example.usermanagement.tenant;
+
+import com.example.usermanagement.exception.PreencodedProblem;
+import com.example.usermanagement.ratelimit.ClientRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant of an API request from the X-Tenant-Id header (the
+ * default tenant without it) and applies the tenant's budgets before any
+ * other work is done: a token bucket shared by all the tenant's clients
+ * (429 when empty) and a cap on its requests in progress (503 when reached).
+ * The tenant is then current for the rest of the request, see
+ * {@link TenantContext}. Requests from the tenant-exempt clients of
+ * app.rate-limit.clients skip both budgets; the per-client rate limiter
+ * still applies to them.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final PreencodedProblem INVALID_TENANT = new PreencodedProblem(
+            HttpStatus.BAD_REQUEST, "Bad Request", "Tenant id must be 1 to 64 letters, digits, '.', '_' or '-'");
+    private static final PreencodedProblem TOO_MANY_REQUESTS = new PreencodedProblem(
+            HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", "Tenant request rate limit exceeded");
+    private static final PreencodedProblem BUDGET_EXHAUSTED = new PreencodedProblem(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", "Too many requests in progress for this tenant");
+
+    private final String headerName;
+    private final String clientKeyHeader;
+    private final Set<String> exemptClientKeys;
+    private final ClientRateLimiter rates;
+    private final TenantConnectionBudget connections;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public TenantFilter(TenantProperties properties, MeterRegistry registry) {
+        this(properties, null, Collections.<String>emptySet(), registry);
+    }
+
+    /**
+     * @param clientKeyHeader header carrying the client key
+     * @param exemptClientKeys keys of the clients left out of the tenant budgets
+     */
+    public TenantFilter(TenantProperties properties, String clientKeyHeader, Set<String> exemptClientKeys,
+                        MeterRegistry registry) {
+        this.headerName = properties.getHeaderName();
+        this.clientKeyHeader = clientKeyHeader;
+        this.exemptClientKeys = Set.copyOf(exemptClientKeys);
+        this.rates = new ClientRateLimiter(properties.getRequestsPerSecond(), properties.getBurst(),
+                properties.getMaxTrackedTenants());
+        this.connections = new TenantConnectionBudget(properties.getMaxConnections(),
+                properties.getMaxTrackedTenants());
+        this.rateLimited = Counter.builder("users.tenant.rejected")
+                .description("Requests rejected because their tenant exceeded a budget")
+                .tag("budget", "rate").register(registry);
+        this.shed = Counter.builder("users.tenant.rejected")
+                .description("Requests rejected because their tenant exceeded a budget")
+                .tag("budget", "connections").register(registry);
+        Gauge.builder("users.tenant.tracked", connections, TenantConnectionBudget::getTrackedTenants)
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String tenantId = request.getHeader(headerName);
+        if (tenantId == null || tenantId.isEmpty()) {
+            tenantId = TenantContext.DEFAULT_TENANT;
+        } else if (!TENANT_ID.matcher(tenantId).matches()) {
+            reject(response, INVALID_TENANT, 0);
+            return;
+        }
+
+        Semaphore permit = null;
+        if (!isExempt(request)) {
+            long waitNanos = rates.tryAcquire(tenantId);
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                reject(response, TOO_MANY_REQUESTS, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+                return;
+            }
+            permit = connections.tryAcquire(tenantId);
+            if (permit == null) {
+                shed.increment();
+                reject(response, BUDGET_EXHAUSTED, 1);
+                return;
+            }
+        }
+
+        TenantContext.begin(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.end();
+            if (permit != null) {
+                permit.release();
+            }
+        }
+    }
+
+    private boolean isExempt(HttpServletRequest request) {
+        if (exemptClientKeys.isEmpty()) {
+            return false;
+        }
+        String clientKey = request.getHeader(clientKeyHeader);
+        return clientKey != null && exemptClientKeys.contains(clientKey);
+    }
+
+    private static void reject(HttpServletResponse response, PreencodedProblem problem,
+                               long retryAfterSeconds) throws IOException {
+        byte[] body = problem.body();
+        response.setStatus(problem.getStatus().value());
+        if (retryAfterSeconds > 0) {
+            response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        }
+        response.setContentType(PreencodedProblem.PROBLEM_JSON.toString());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.usermanagement.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Gives each Hibernate session the tenant of the current request, which
+ * Hibernate then writes into and filters by the @TenantId columns
+ */
+class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.usermanagement.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tenant resolution and the budgets each tenant gets, so that one tenant's
+ * heavy traffic cannot use up the capacity of the others
+ */
+@ConfigurationProperties(prefix = "app.tenancy")
+public class TenantProperties {
+
+    /** Read the tenant from the request header; when off, everything belongs to the default tenant */
+    private boolean enabled = true;
+
+    private String headerName = "X-Tenant-Id";
+
+    /**
+     * Requests of one tenant in progress at once. Each holds at most one
+     * pooled connection, so this caps the tenant's share of the pool.
+     */
+    private int maxConnections = 5;
+
+    /** Sustained request rate of one tenant, across all its clients */
+    private double requestsPerSecond = 100;
+
+    private int burst = 200;
+
+    /** Tenants whose rate budget is tracked at once; idle ones are dropped first */
+    private int maxTrackedTenants = 10_000;
+
+    private Cache cache = new Cache();
+
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        /** Users by id kept for each tenant */
+        private long maxEntries = 1000;
+
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        /** Tenants with a cache at once; the least recently used lose theirs first */
+        private long maxTenants = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxTenants() {
+            return maxTenants;
+        }
+
+        public void setMaxTenants(long maxTenants) {
+            this.maxTenants = maxTenants;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public void setHeaderName(String headerName) {
+        this.headerName = headerName;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxTrackedTenants() {
+        return maxTrackedTenants;
+    }
+
+    public void setMaxTrackedTenants(int maxTrackedTenants) {
+        this.maxTrackedTenants = maxTrackedTenants;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usermanagement.tenant;
+
+import com.example.usermanagement.dto.UserDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Users by id in a separately bounded cache per tenant, in front of the
+ * shared second-level cache. A tenant that reads many users only evicts its
+ * own entries, so the hot users of the other tenants stay cached.
+ */
+public class TenantUserCache {
+
+    private final Cache<String, Cache<Long, UserDTO>> tenants;
+    private final long maxEntries;
+    private final Duration timeToLive;
+
+    public TenantUserCache(TenantProperties.Cache settings) {
+        this.tenants = Caffeine.newBuilder().maximumSize(settings.getMaxTenants()).build();
+        this.maxEntries = settings.getMaxEntries();
+        this.timeToLive = settings.getTimeToLive();
+    }
+
+    /**
+     * @return the cached user of the current tenant, or null
+     */
+    public UserDTO get(Long id) {
+        Cache<Long, UserDTO> users = tenants.getIfPresent(TenantContext.current());
+        return users == null ? null : users.getIfPresent(id);
+    }
+
+    public void put(UserDTO user) {
+        tenants.get(TenantContext.current(), tenant -> Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(timeToLive)
+                        .build())
+                .put(user.getId(), user);
+    }
+
+    /**
+     * Forget a user that is being changed; again after the transaction
+     * commits, in case a concurrent read cached the old state meanwhile
+     */
+    public void evict(Long id) {
+        String tenantId = TenantContext.current();
+        evict(tenantId, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId, id);
+                }
+            });
+        }
+    }
+
+    private void evict(String tenantId, Long id) {
+        Cache<Long, UserDTO> users = tenants.getIfPresent(tenantId);
+        if (users != null) {
+            users.invalidate(id);
+        }
+    }
+}
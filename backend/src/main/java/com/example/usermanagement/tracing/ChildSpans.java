@@ -0,0 +1,61 @@
+package com.example.usermanagement.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * Starts application spans under the current request span. Only sampled
+ * requests get them: for the others the check is a thread-local read, which
+ * is what keeps the instrumentation cheap at a low sampling probability.
+ */
+class ChildSpans {
+
+    private final Tracer tracer;
+
+    ChildSpans(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * @return whether {@link #start} would start a span
+     */
+    boolean sampled() {
+        Span parent = tracer.currentSpan();
+        return parent != null && !parent.isNoop();
+    }
+
+    /**
+     * @return a started child of the current span, or null if the current
+     *         span is missing or not sampled
+     */
+    Span start(String name) {
+        Span parent = tracer.currentSpan();
+        if (parent == null || parent.isNoop()) {
+            return null;
+        }
+        return tracer.nextSpan(parent).name(name).start();
+    }
+
+    /**
+     * Runs the call in a child span named {@code name} (or directly, when not
+     * sampled), recording what it throws on the span
+     */
+    <T, E extends Throwable> T inSpan(String name, Call<T, E> call) throws E {
+        Span span = start(name);
+        if (span == null) {
+            return call.call();
+        }
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return call.call();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    interface Call<T, E extends Throwable> {
+        T call() throws E;
+    }
+}
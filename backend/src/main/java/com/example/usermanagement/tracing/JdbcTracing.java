@@ -0,0 +1,60 @@
+package com.example.usermanagement.tracing;
+
+import com.example.usermanagement.jdbc.StatementListener;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+import java.util.Locale;
+
+/**
+ * A span per statement run on the JPA datasource, under the repository or
+ * service span that ran it. Carries the SQL text but not the bind values,
+ * which can hold personal data; those are in the slow-query log only.
+ */
+public class JdbcTracing implements StatementListener {
+
+    private final ChildSpans childSpans;
+    private final String dbSystem;
+
+    public JdbcTracing(Tracer tracer, String dbSystem) {
+        this.childSpans = new ChildSpans(tracer);
+        this.dbSystem = dbSystem;
+    }
+
+    @Override
+    public Object beforeExecute(String sql) {
+        if (!childSpans.sampled()) {
+            return null;
+        }
+        String operation = operation(sql);
+        return childSpans.start("jdbc " + operation.toLowerCase(Locale.ROOT))
+                .tag("db.system", dbSystem)
+                .tag("db.operation", operation)
+                .tag("db.statement", sql == null ? "" : sql);
+    }
+
+    @Override
+    public void afterExecute(Object state, ExecutedStatement statement) {
+        if (state instanceof Span span) {
+            if (statement.getBatchSize() > 0) {
+                span.tag("db.operation.batch.size", statement.getBatchSize());
+            }
+            if (statement.getError() != null) {
+                span.error(statement.getError());
+            }
+            span.end();
+        }
+    }
+
+    private static String operation(String sql) {
+        if (sql == null) {
+            return "EXECUTE";
+        }
+        String trimmed = sql.strip();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "EXECUTE" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
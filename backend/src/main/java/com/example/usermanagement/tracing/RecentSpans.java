@@ -0,0 +1,63 @@
+package com.example.usermanagement.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory exporter keeping the most recent finished spans, oldest first
+ */
+public class RecentSpans implements SpanExporter {
+
+    private final int capacity;
+    private final ArrayDeque<SpanRecord> spans;
+
+    public RecentSpans(int capacity) {
+        this.capacity = capacity;
+        this.spans = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+        List<SpanRecord> records = new ArrayList<>(batch.size());
+        for (SpanData span : batch) {
+            records.add(SpanRecord.of(span));
+        }
+        synchronized (spans) {
+            for (SpanRecord record : records) {
+                if (spans.size() == capacity) {
+                    spans.pollFirst();
+                }
+                spans.addLast(record);
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * @param traceId only the spans of this trace, or all of them when null
+     */
+    public List<SpanRecord> find(String traceId) {
+        synchronized (spans) {
+            if (traceId == null) {
+                return new ArrayList<>(spans);
+            }
+            return spans.stream().filter(span -> span.traceId().equals(traceId)).toList();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.usermanagement.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A finished span as written to the span file and served by /actuator/spans;
+ * one JSON object per span, linked into a trace by traceId and parentSpanId
+ */
+public record SpanRecord(String traceId, String spanId, String parentSpanId, String name, String service,
+                         long startEpochMicros, long durationMicros, String status,
+                         Map<String, Object> attributes) {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    static SpanRecord of(SpanData span) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        String parentSpanId = span.getParentSpanContext().isValid() ? span.getParentSpanId() : null;
+        return new SpanRecord(span.getTraceId(), span.getSpanId(), parentSpanId, span.getName(),
+                span.getResource().getAttribute(SERVICE_NAME),
+                TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()),
+                TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                span.getStatus().getStatusCode().name(), attributes);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.usermanagement.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Recently finished spans at /actuator/spans, or one trace with
+ * ?traceId=; spans show up once the batch processor has exported them
+ */
+@Endpoint(id = "spans")
+public class SpansEndpoint {
+
+    private final RecentSpans recentSpans;
+
+    public SpansEndpoint(RecentSpans recentSpans) {
+        this.recentSpans = recentSpans;
+    }
+
+    @ReadOperation
+    public List<SpanRecord> spans(@Nullable String traceId) {
+        return recentSpans.find(traceId);
+    }
+}
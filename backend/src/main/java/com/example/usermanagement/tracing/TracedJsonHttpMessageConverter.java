@@ -0,0 +1,46 @@
+package com.example.usermanagement.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Boot's JSON converter with {@code deserialize <Type>} and
+ * {@code serialize <Type>} spans around reading request bodies and writing
+ * responses. Replaces the auto-configured converter bean, so it is still the
+ * first JSON converter and Jackson-specific advice keeps applying to it.
+ */
+class TracedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ChildSpans childSpans;
+
+    TracedJsonHttpMessageConverter(ObjectMapper objectMapper, ChildSpans childSpans) {
+        super(objectMapper);
+        this.childSpans = childSpans;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        if (!childSpans.sampled()) {
+            return super.read(type, contextClass, inputMessage);
+        }
+        return childSpans.inSpan("deserialize " + getJavaType(type, contextClass).getRawClass().getSimpleName(),
+                () -> super.read(type, contextClass, inputMessage));
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (!childSpans.sampled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        childSpans.inSpan("serialize " + object.getClass().getSimpleName(), () -> {
+            super.writeInternal(object, type, outputMessage);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.usermanagement.tracing;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * The MVC validator behind {@code @Valid} request bodies, with a
+ * {@code validate <Type>} span around each validation
+ */
+class TracedValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+    private final ChildSpans childSpans;
+
+    TracedValidator(SmartValidator delegate, ChildSpans childSpans) {
+        this.delegate = delegate;
+        this.childSpans = childSpans;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (!childSpans.sampled()) {
+            delegate.validate(target, errors);
+            return;
+        }
+        childSpans.inSpan(spanName(target), () -> {
+            delegate.validate(target, errors);
+            return null;
+        });
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (!childSpans.sampled()) {
+            delegate.validate(target, errors, validationHints);
+            return;
+        }
+        childSpans.inSpan(spanName(target), () -> {
+            delegate.validate(target, errors, validationHints);
+            return null;
+        });
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors,
+                              Object... validationHints) {
+        delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate.unwrap(type);
+    }
+
+    private static String spanName(Object target) {
+        return "validate " + target.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.usermanagement.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Spans around the controller, service and repository methods, named like
+ * {@code JpaUserService.updateUser}. Outermost advice, so a service span also
+ * covers the transaction commit and the statements flushed by it.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+
+    private final Tracer tracer;
+    private final ChildSpans childSpans;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+        this.childSpans = new ChildSpans(tracer);
+    }
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)"
+            + " || @within(org.springframework.stereotype.Service)")
+    public Object traceComponent(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, false);
+    }
+
+    /**
+     * Spring Data repositories are proxies over SimpleJpaRepository, so the
+     * span is named after the repository interface instead
+     */
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, true);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, boolean repository) throws Throwable {
+        if (!childSpans.sampled()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        Class<?> type = repository
+                ? AopProxyUtils.proxiedUserInterfaces(joinPoint.getTarget())[0]
+                : joinPoint.getSignature().getDeclaringType();
+        Span span = childSpans.start(type.getSimpleName() + "." + method)
+                .tag("code.namespace", type.getName())
+                .tag("code.function", method);
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.usermanagement.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Application spans under Boot's HTTP server span: controller, validation,
+ * (de)serialization, service, repository and JDBC. Finished spans are kept
+ * for /actuator/spans and, with app.tracing.file, appended to a file in the
+ * same format as the Struts application's span file. Only sampled requests
+ * get application spans (management.tracing.sampling.probability, or the
+ * sampled flag of an incoming traceparent header).
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    /**
+     * Tracer.NOOP when tracing is switched off in Boot
+     * (management.tracing.enabled=false); nothing is ever sampled then
+     */
+    private static Tracer tracer(ObjectProvider<Tracer> tracer) {
+        return tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(ObjectProvider<Tracer> tracer) {
+        return new TracingAspect(tracer(tracer));
+    }
+
+    /**
+     * Picked up by JdbcInstrumentationConfig
+     */
+    @Bean
+    public JdbcTracing jdbcTracing(ObjectProvider<Tracer> tracer, DataSourceProperties dataSourceProperties) {
+        String dbSystem = DatabaseDriver.fromJdbcUrl(dataSourceProperties.determineUrl()).getId();
+        return new JdbcTracing(tracer(tracer), dbSystem);
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter tracedJsonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                              ObjectProvider<Tracer> tracer) {
+        return new TracedJsonHttpMessageConverter(objectMapper, new ChildSpans(tracer(tracer)));
+    }
+
+    @Bean
+    public WebMvcConfigurer tracedValidatorConfigurer(ObjectProvider<LocalValidatorFactoryBean> validator,
+                                                      ObjectProvider<Tracer> tracer) {
+        return new WebMvcConfigurer() {
+            @Override
+            public Validator getValidator() {
+                LocalValidatorFactoryBean delegate = validator.getIfAvailable();
+                return delegate == null ? null : new TracedValidator(delegate, new ChildSpans(tracer(tracer)));
+            }
+        };
+    }
+
+    /**
+     * Exporters are handed to Boot's batch span processor
+     */
+    @Bean
+    public RecentSpans recentSpans(TracingProperties properties) {
+        return new RecentSpans(properties.getRecentSpans());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "file")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties) throws IOException {
+        return new FileSpanExporter(Path.of(properties.getFile()));
+    }
+
+    @Bean
+    public SpansEndpoint spansEndpoint(RecentSpans recentSpans) {
+        return new SpansEndpoint(recentSpans);
+    }
+
+}
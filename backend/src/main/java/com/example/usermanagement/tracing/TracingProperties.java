@@ -0,0 +1,45 @@
+package com.example.usermanagement.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the application spans (controller, service, repository, JDBC)
+ * and where finished spans go; the sampling probability is Boot's
+ * management.tracing.sampling.probability
+ */
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /** JSON-lines file the finished spans are appended to; none when unset */
+    private String file;
+
+    /** Finished spans kept in memory for /actuator/spans */
+    private int recentSpans = 1000;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public int getRecentSpans() {
+        return recentSpans;
+    }
+
+    public void setRecentSpans(int recentSpans) {
+        this.recentSpans = recentSpans;
+    }
+}
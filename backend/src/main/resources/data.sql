@@ -1,11 +1,14 @@
 -- Sample data initialization for User Management application
 -- These records are automatically loaded when the application starts
 
-INSERT INTO users (first_name, last_name, email, phone) VALUES
-('John', 'Doe', 'john.doe@example.com', '555-0101');
+INSERT INTO users (tenant_id, first_name, last_name, email, phone, change_seq) VALUES
+('default', 'John', 'Doe', 'john.doe@example.com', '555-0101', 1);
 
-INSERT INTO users (first_name, last_name, email, phone) VALUES
-('Jane', 'Smith', 'jane.smith@example.com', '555-0102');
+INSERT INTO users (tenant_id, first_name, last_name, email, phone, change_seq) VALUES
+('default', 'Jane', 'Smith', 'jane.smith@example.com', '555-0102', 2);
 
-INSERT INTO users (first_name, last_name, email, phone) VALUES
-('Mike', 'Johnson', 'mike.johnson@example.com', '555-0103');
+INSERT INTO users (tenant_id, first_name, last_name, email, phone, change_seq) VALUES
+('default', 'Mike', 'Johnson', 'mike.johnson@example.com', '555-0103', 3);
+
+-- Positions 1-3 of the change feed are taken by the rows above
+MERGE INTO user_change_counter (id, seq) KEY (id) VALUES (1, 3);
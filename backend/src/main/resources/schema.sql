@@ -0,0 +1,10 @@
+-- Tables not mapped by JPA; runs after Hibernate has created the entity tables
+
+-- Last position handed out by the change feed (users.change_seq, user_tombstones.change_seq)
+CREATE TABLE IF NOT EXISTS user_change_counter (
+    id INT PRIMARY KEY,
+    seq BIGINT NOT NULL
+);
+
+-- Numbers the import's batches, for their provisional change_seq values (negative, never in the feed)
+CREATE SEQUENCE IF NOT EXISTS user_import_batch_seq;
@@ -0,0 +1,85 @@
+package com.example.usermanagement.bulkimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRowReaderTest {
+
+    private static List<ImportRow> read(String csv) throws IOException {
+        CsvRowReader reader = new CsvRowReader(new StringReader(csv));
+        List<ImportRow> rows = new ArrayList<>();
+        for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void readsColumnsByHeaderName() throws IOException {
+        List<ImportRow> rows = read("email,last_name,First Name,phone,notes\r\n"
+                + "ann@example.com,Lee,Ann,555-0101,ignored\r\n");
+
+        assertThat(rows).hasSize(1);
+        ImportRow row = rows.get(0);
+        assertThat(row.line()).isEqualTo(2);
+        assertThat(row.error()).isNull();
+        assertThat(row.user().getFirstName()).isEqualTo("Ann");
+        assertThat(row.user().getLastName()).isEqualTo("Lee");
+        assertThat(row.user().getEmail()).isEqualTo("ann@example.com");
+        assertThat(row.user().getPhone()).isEqualTo("555-0101");
+    }
+
+    @Test
+    void quotedFieldsMayHoldCommasQuotesAndLineBreaks() throws IOException {
+        List<ImportRow> rows = read("firstName,lastName,email\n"
+                + "\"Lee, Ann\",\"O\"\"Neil\",\"a\nb@example.com\"\n"
+                + "Bob,Ray,bob@example.com\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).user().getFirstName()).isEqualTo("Lee, Ann");
+        assertThat(rows.get(0).user().getLastName()).isEqualTo("O\"Neil");
+        assertThat(rows.get(0).user().getEmail()).isEqualTo("a\nb@example.com");
+        // Line numbers count the line break inside the quoted field
+        assertThat(rows.get(1).line()).isEqualTo(4);
+    }
+
+    @Test
+    void emptyFieldsAreMissingAndBlankLinesAreSkipped() throws IOException {
+        List<ImportRow> rows = read("firstName,lastName,email,phone\n\nAnn,,ann@example.com,\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).line()).isEqualTo(3);
+        assertThat(rows.get(0).user().getLastName()).isNull();
+        assertThat(rows.get(0).user().getPhone()).isNull();
+    }
+
+    @Test
+    void unclosedQuoteRejectsTheRow() throws IOException {
+        List<ImportRow> rows = read("firstName,lastName,email\nAnn,Lee,\"ann@example.com\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).error()).isEqualTo("Quoted field is not closed");
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsIsRefused() {
+        assertThatThrownBy(() -> read("firstName,email\nAnn,ann@example.com\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rowsLongerThanTheBufferAreRead() throws IOException {
+        String longName = "x".repeat(100_000);
+        List<ImportRow> rows = read("firstName,lastName,email\n" + longName + ",Lee,ann@example.com\n");
+
+        assertThat(rows.get(0).user().getFirstName()).isEqualTo(longName);
+        assertThat(rows.get(0).user().getEmail()).isEqualTo("ann@example.com");
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.usermanagement.bulkimport;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailSetTest {
+
+    @Test
+    void reportsEachEmailOnceAcrossGrowth() {
+        EmailSet emails = new EmailSet();
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(emails.add("user" + i + "@example.com")).isTrue();
+        }
+        for (int i = 0; i < 200_000; i += 997) {
+            assertThat(emails.add("user" + i + "@example.com")).isFalse();
+        }
+        assertThat(emails.size()).isEqualTo(200_000);
+    }
+
+    @Test
+    void sharedHashIsReportedAsPossiblySeen() {
+        EmailSet emails = new EmailSet(email -> 42);
+
+        assertThat(emails.add("ann@example.com")).isTrue();
+        // Not a duplicate, which is why UserImporter confirms matches exactly
+        assertThat(emails.add("bob@example.com")).isFalse();
+    }
+}
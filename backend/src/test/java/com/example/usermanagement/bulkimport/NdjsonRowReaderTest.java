@@ -0,0 +1,38 @@
+package com.example.usermanagement.bulkimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonRowReaderTest {
+
+    @Test
+    void readsOneUserPerLineAndSkipsBlankLines() throws IOException {
+        NdjsonRowReader reader = new NdjsonRowReader(new StringReader(
+                "{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann@example.com\"}\n"
+                        + "\n   \n"
+                        + "not json\n"
+                        + "{\"firstName\":\"Bob\",\"lastName\":\"Ray\",\"email\":\"bob@example.com\",\"phone\":\"555\"}"),
+                new ObjectMapper());
+
+        ImportRow ann = reader.next();
+        assertThat(ann.line()).isEqualTo(1);
+        assertThat(ann.error()).isNull();
+        assertThat(ann.user().getEmail()).isEqualTo("ann@example.com");
+
+        ImportRow broken = reader.next();
+        assertThat(broken.line()).isEqualTo(4);
+        assertThat(broken.user()).isNull();
+        assertThat(broken.error()).isEqualTo("Line is not a JSON object with the user fields");
+
+        ImportRow bob = reader.next();
+        assertThat(bob.line()).isEqualTo(5);
+        assertThat(bob.user().getPhone()).isEqualTo("555");
+
+        assertThat(reader.next()).isNull();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.usermanagement.bulkimport;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UserChangesDTO;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports small files against the real database, two rows per batch so
+ * duplicates are found both within a batch and across batches. Each test
+ * imports into a tenant of its own.
+ */
+@SpringBootTest(properties = "app.import.batch-size=2")
+class UserImporterIntegrationTest {
+
+    private static final String HEADER = "firstName,lastName,email\n";
+
+    @Autowired
+    private UserImporter importer;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ImportProperties properties;
+
+    @TempDir
+    private Path directory;
+
+    private ImportJobStatus run(UserImporter importer, String tenantId, String csv) throws IOException {
+        Path file = Files.writeString(directory.resolve(tenantId + ".csv"), csv);
+        ImportJob job = new ImportJob(tenantId, tenantId, "test", ImportFormat.CSV, 100);
+        importer.run(job, file);
+        return job.status();
+    }
+
+    private List<String> emailsIn(String tenantId) throws Exception {
+        return TenantContext.call(tenantId, () -> userService.getAllUsers().stream()
+                .map(UserDTO::getEmail).toList());
+    }
+
+    @Test
+    void countsImportedRejectedAndDuplicateRows() throws Exception {
+        TenantContext.run("import-counts", () -> {
+            CreateUserRequest existing = new CreateUserRequest("Old", "User", "old@example.com", null);
+            userService.createUser(existing);
+        });
+
+        ImportJobStatus status = run(importer, "import-counts", HEADER
+                + "Ann,Lee,ann@example.com\n"     // 2
+                + "Ann,Lee,ann@example.com\n"     // 3: same batch
+                + "Bob,Ray,not-an-email\n"        // 4: invalid
+                + "Cy,Fox,ann@example.com\n"      // 5: earlier batch
+                + "Old,User,old@example.com\n"    // 6: already a user
+                + "Dee,Kim,dee@example.com\n"     // 7
+                + "Eve,Ng,\"eve@example.com\n");  // 8: quote not closed
+
+        assertThat(status.state()).isEqualTo(ImportJob.State.COMPLETED);
+        assertThat(status.rowsRead()).isEqualTo(7);
+        assertThat(status.rowsImported()).isEqualTo(2);
+        assertThat(status.rowsRejected()).isEqualTo(2);
+        assertThat(status.rowsDuplicate()).isEqualTo(3);
+        assertThat(status.errors()).extracting(ImportJobStatus.RowError::line)
+                .containsExactlyInAnyOrder(3L, 4L, 5L, 6L, 8L);
+        assertThat(status.errors()).filteredOn(error -> error.line() == 5)
+                .extracting(ImportJobStatus.RowError::message).containsExactly("Duplicate email in file");
+        assertThat(status.errors()).filteredOn(error -> error.line() == 6)
+                .extracting(ImportJobStatus.RowError::message)
+                .containsExactly("A user with this email address already exists");
+        assertThat(emailsIn("import-counts"))
+                .containsExactlyInAnyOrder("old@example.com", "ann@example.com", "dee@example.com");
+    }
+
+    @Test
+    void rowsWhoseEmailOnlySharesAHashAreImported() throws Exception {
+        UserImporter colliding = new UserImporter(dataSource, transactionManager, userRepository,
+                entityManagerFactory, validator, objectMapper, properties) {
+            @Override
+            EmailSet newEmailSet() {
+                return new EmailSet(email -> 42);
+            }
+        };
+        try {
+            ImportJobStatus status = run(colliding, "import-collisions", HEADER
+                    + "Ann,Lee,ann@example.com\n"
+                    + "Bob,Ray,bob@example.com\n"
+                    + "Cy,Fox,cy@example.com\n"
+                    + "Ann,Lee,ann@example.com\n"
+                    + "Dee,Kim,dee@example.com\n");
+
+            assertThat(status.rowsImported()).isEqualTo(4);
+            assertThat(status.rowsDuplicate()).isEqualTo(1);
+            assertThat(status.errors()).containsExactly(
+                    new ImportJobStatus.RowError(5, "Duplicate email in file"));
+            assertThat(emailsIn("import-collisions")).containsExactlyInAnyOrder(
+                    "ann@example.com", "bob@example.com", "cy@example.com", "dee@example.com");
+        } finally {
+            colliding.destroy();
+        }
+    }
+
+    @Test
+    void importedRowsJoinTheChangeFeedInFileOrder() throws Exception {
+        long start = TenantContext.call("import-feed", () -> userService.getChanges(Long.MAX_VALUE, 1).getWatermark());
+
+        run(importer, "import-feed", HEADER
+                + "Ann,Lee,ann@example.com\n"
+                + "Bob,Ray,bob@example.com\n"
+                + "Cy,Fox,cy@example.com\n");
+
+        UserChangesDTO changes = TenantContext.call("import-feed", () -> userService.getChanges(start, 100));
+        assertThat(changes.getChanged()).extracting(UserDTO::getEmail)
+                .containsExactly("ann@example.com", "bob@example.com", "cy@example.com");
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getWatermark()).isGreaterThanOrEqualTo(start + 3);
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE change_seq < 0", Long.class)).isZero();
+    }
+}
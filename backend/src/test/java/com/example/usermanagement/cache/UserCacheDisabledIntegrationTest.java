@@ -0,0 +1,47 @@
+package com.example.usermanagement.cache;
+
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With the cache switched off every read reaches the database, although
+ * a JCache provider is still on the classpath
+ */
+@SpringBootTest(properties = {"app.cache.enabled=false", "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.tenancy.cache.enabled=false"})
+class UserCacheDisabledIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedFindByIdIssuesAStatementEachTime() {
+        assertThat(entityManagerFactory.getProperties())
+                .containsEntry("hibernate.cache.use_second_level_cache", false)
+                .containsEntry("hibernate.cache.use_query_cache", false);
+
+        Long id = userRepository.findByEmail("john.doe@example.com").orElseThrow().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            userService.getUserById(id);
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.usermanagement.cache;
+
+import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeated reads of the same user are served from the second-level and
+ * query caches instead of issuing new statements. The per-tenant user cache
+ * in front of them is switched off, so the reads reach Hibernate.
+ */
+@SpringBootTest(properties = {"app.cache.enabled=true", "app.cache.statistics-enabled=true",
+        "app.tenancy.cache.enabled=false"})
+class UserSecondLevelCacheIntegrationTest {
+
+    private static final String SEEDED_EMAIL = "john.doe@example.com";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetCachesAndStatistics() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void repeatedFindByIdHitsTheEntityCache() {
+        Long id = userRepository.findByEmail(SEEDED_EMAIL).orElseThrow().getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        userService.getUserById(id);
+        long afterFirstRead = statistics.getPrepareStatementCount();
+        for (int i = 0; i < 10; i++) {
+            userService.getUserById(id);
+        }
+
+        assertThat(afterFirstRead).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirstRead);
+        assertThat(statistics.getDomainDataRegionStatistics(UserCacheRegions.USERS).getHitCount()).isEqualTo(10);
+    }
+
+    @Test
+    void repeatedEmailQueriesHitTheQueryCache() {
+        userRepository.findByEmail(SEEDED_EMAIL);
+        userRepository.existsByEmail(SEEDED_EMAIL);
+        long afterFirstReads = statistics.getPrepareStatementCount();
+        for (int i = 0; i < 10; i++) {
+            assertThat(userRepository.findByEmail(SEEDED_EMAIL)).isPresent();
+            assertThat(userRepository.existsByEmail(SEEDED_EMAIL)).isTrue();
+        }
+
+        assertThat(afterFirstReads).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirstReads);
+        assertThat(statistics.getQueryRegionStatistics(UserCacheRegions.USERS_BY_EMAIL).getHitCount()).isEqualTo(20);
+    }
+
+    @Test
+    void writesInvalidateCachedEmailQueries() {
+        UserDTO user = userService.getAllUsers().get(1);
+        assertThat(userRepository.existsByEmail("renamed@example.com")).isFalse();
+
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setFirstName(user.getFirstName());
+        request.setLastName(user.getLastName());
+        request.setEmail("renamed@example.com");
+        request.setPhone(user.getPhone());
+        userService.updateUser(user.getId(), request);
+
+        try {
+            assertThat(userRepository.existsByEmail("renamed@example.com")).isTrue();
+            assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo("renamed@example.com");
+        } finally {
+            request.setEmail(user.getEmail());
+            userService.updateUser(user.getId(), request);
+        }
+    }
+}
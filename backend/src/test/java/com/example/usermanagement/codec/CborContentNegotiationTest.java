@@ -0,0 +1,69 @@
+package com.example.usermanagement.codec;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CBOR on the user API: bodies are read and written as CBOR when the client
+ * asks for it, JSON otherwise
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CborContentNegotiationTest {
+
+    private static final String TENANT = "cbor-negotiation";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper cbor = new CodecConfig().cborHttpMessageConverter().getObjectMapper();
+
+    @Test
+    void createsAndListsUsersInCbor() throws Exception {
+        byte[] request = cbor.writeValueAsBytes(
+                new CreateUserRequest("Ann", "Lee", "ann@example.com", "555-0101"));
+
+        MvcResult created = mockMvc.perform(post("/api/users").header("X-Tenant-Id", TENANT)
+                        .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        UserDTO user = cbor.readValue(created.getResponse().getContentAsByteArray(), UserDTO.class);
+        assertThat(user.getId()).isNotNull();
+        assertThat(user.getEmail()).isEqualTo("ann@example.com");
+
+        MvcResult listed = mockMvc.perform(get("/api/users").header("X-Tenant-Id", TENANT)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        List<UserDTO> users = cbor.readValue(listed.getResponse().getContentAsByteArray(), new TypeReference<>() {
+        });
+        assertThat(users).extracting(UserDTO::getEmail).containsExactly("ann@example.com");
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/users").header("X-Tenant-Id", TENANT))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.usermanagement.codec;
+
+import com.example.usermanagement.dto.UserChangesDTO;
+import com.example.usermanagement.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written serializer against Jackson's default for UserDTO, and
+ * round trips through the CBOR mapper the API uses
+ */
+class UserDTOSerializerTest {
+
+    private static final List<UserDTO> USERS = List.of(
+            new UserDTO(1L, "Ann", "Lee", "ann@example.com", "555-0101"),
+            new UserDTO(2L, "Bob \"B\" Ray", "Ünal", "bob@example.com", null),
+            new UserDTO(null, "", "Fox", "cy@example.com", null));
+
+    private final ObjectMapper cbor = new CodecConfig().cborHttpMessageConverter().getObjectMapper();
+
+    /** Jackson's own bean serializer, as if UserDTO had no @JsonSerialize */
+    private static final class IgnoreJsonSerialize extends JacksonAnnotationIntrospector {
+        @Override
+        public Object findSerializer(Annotated annotated) {
+            return null;
+        }
+    }
+
+    @Test
+    void writesTheSameJsonAsTheDefaultBeanSerializer() throws Exception {
+        ObjectMapper tuned = JsonMapper.builder().build();
+        ObjectMapper baseline = JsonMapper.builder().annotationIntrospector(new IgnoreJsonSerialize()).build();
+
+        for (UserDTO user : USERS) {
+            assertThat(tuned.writeValueAsString(user)).isEqualTo(baseline.writeValueAsString(user));
+        }
+    }
+
+    /**
+     * Byte for byte the maps differ only in their header: ours is definite-length
+     */
+    @Test
+    void writesTheSameCborItemsAsTheDefaultBeanSerializer() throws Exception {
+        ObjectMapper baseline = new ObjectMapper(new CBORFactory())
+                .setAnnotationIntrospector(new IgnoreJsonSerialize());
+
+        for (UserDTO user : USERS) {
+            JsonNode tuned = cbor.readTree(cbor.writeValueAsBytes(user));
+            JsonNode expected = baseline.readTree(baseline.writeValueAsBytes(user));
+            assertThat(tuned).isEqualTo(expected);
+            assertThat(tuned.fieldNames()).toIterable().containsExactlyElementsOf(() -> expected.fieldNames());
+        }
+    }
+
+    @Test
+    void userListSurvivesACborRoundTrip() throws Exception {
+        byte[] encoded = cbor.writeValueAsBytes(USERS);
+        List<UserDTO> decoded = cbor.readValue(encoded, new TypeReference<>() {
+        });
+
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(USERS);
+        assertThat(encoded.length).isLessThan(new ObjectMapper().writeValueAsBytes(USERS).length);
+    }
+
+    @Test
+    void changeFeedDatesAreRfc3339StringsInCbor() throws Exception {
+        Instant deletedAt = Instant.parse("2026-01-02T03:04:05.678Z");
+        UserChangesDTO changes = new UserChangesDTO(USERS.subList(0, 1),
+                List.of(new UserChangesDTO.DeletedUser(9L, deletedAt)), 42, true);
+
+        byte[] encoded = cbor.writeValueAsBytes(changes);
+        UserChangesDTO decoded = cbor.readValue(encoded, UserChangesDTO.class);
+
+        assertThat(cbor.readTree(encoded).at("/deleted/0/deletedAt").asText()).isEqualTo("2026-01-02T03:04:05.678Z");
+        assertThat(decoded.getDeleted().get(0).getDeletedAt()).isEqualTo(deletedAt);
+        assertThat(decoded.getChanged()).usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(USERS.subList(0, 1));
+        assertThat(decoded.getWatermark()).isEqualTo(42);
+        assertThat(decoded.isHasMore()).isTrue();
+    }
+}
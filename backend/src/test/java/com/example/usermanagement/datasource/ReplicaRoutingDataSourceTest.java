@@ -0,0 +1,208 @@
+package com.example.usermanagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routing between a primary and one replica, two local H2 databases kept in
+ * step by the snapshot replication job, run by hand. A row only on the
+ * primary shows which database a read went to.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final String COOKIE = "RW_STICKY";
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaHealthMonitor health;
+    private SnapshotReplicationJob replication;
+    private JdbcTemplate routed;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void createDatabases() {
+        int n = DATABASES.incrementAndGet();
+        DataSource primaryDataSource = h2("jdbc:h2:mem:routing-primary-" + n + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(h2("jdbc:h2:mem:routing-replica-" + n + ";DB_CLOSE_DELAY=-1")).execute("SELECT 1");
+        // Once shut down, the replica stays unreachable instead of coming back empty
+        DataSource replicaDataSource = h2("jdbc:h2:mem:routing-replica-" + n + ";IFEXISTS=TRUE");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+
+        Map<String, DataSource> replicas = Map.of("replica-0", replicaDataSource);
+        health = new ReplicaHealthMonitor(replicas, 0);
+        replication = new SnapshotReplicationJob(primaryDataSource, replicas, health);
+        replication.replicate();
+        health.check();
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(health);
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+                "replica-0", replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactions = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactions);
+        readOnly = new TransactionTemplate(transactions);
+        readOnly.setReadOnly(true);
+        filter = new ReadYourWritesFilter(COOKIE, 2000);
+    }
+
+    @AfterEach
+    void dropDatabases() {
+        primary.execute("SHUTDOWN");
+        try {
+            replica.execute("SHUTDOWN");
+        } catch (RuntimeException e) {
+            // already shut down by the test
+        }
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private int countUsers() {
+        return readOnly.execute(status -> routed.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+
+    private void insertUser(long id) {
+        readWrite.executeWithoutResult(status -> {
+            routed.update("INSERT INTO users (id, email) VALUES (?, ?)", id, "user" + id + "@example.com");
+            ReadYourWrites.markWrite();
+        });
+    }
+
+    /**
+     * Runs work as an API request behind the read-your-writes filter
+     */
+    private MockHttpServletResponse request(Cookie cookie, Runnable work) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet application = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                work.run();
+            }
+        };
+        new MockFilterChain(application, filter).doFilter(request, response);
+        return response;
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaOnceReplicated() {
+        insertUser(1);
+
+        assertThat(countUsers()).isZero();
+        replication.replicate();
+        assertThat(countUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        insertUser(1);
+
+        Integer count = readWrite.execute(status -> routed.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    void aWriteSetsTheStickyCookieAndPinsTheRestOfTheRequest() throws Exception {
+        AtomicInteger seen = new AtomicInteger(-1);
+
+        MockHttpServletResponse response = request(null, () -> {
+            insertUser(1);
+            seen.set(countUsers());
+        });
+
+        assertThat(seen).hasValue(1);
+        Cookie cookie = response.getCookie(COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+        assertThat(cookie.isHttpOnly()).isTrue();
+    }
+
+    @Test
+    void readWriteTransactionWithoutAMarkedWriteDoesNotPinTheClient() throws Exception {
+        insertUser(1);
+        AtomicInteger seen = new AtomicInteger(-1);
+
+        // Like the change feed: read-write so it reads the primary, but writes nothing
+        MockHttpServletResponse response = request(null, () -> {
+            readWrite.executeWithoutResult(status -> routed.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+            seen.set(countUsers());
+        });
+
+        assertThat(response.getCookie(COOKIE)).isNull();
+        assertThat(seen).hasValue(0);
+    }
+
+    @Test
+    void rolledBackWriteDoesNotSetTheCookie() throws Exception {
+        MockHttpServletResponse response = request(null, () -> readWrite.executeWithoutResult(status -> {
+            routed.update("INSERT INTO users (id, email) VALUES (1, 'a@example.com')");
+            ReadYourWrites.markWrite();
+            status.setRollbackOnly();
+        }));
+
+        assertThat(response.getCookie(COOKIE)).isNull();
+    }
+
+    @Test
+    void stickyCookieSendsReadsToThePrimaryUntilItExpires() throws Exception {
+        insertUser(1);
+        AtomicInteger seen = new AtomicInteger(-1);
+
+        request(new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + 60_000)),
+                () -> seen.set(countUsers()));
+        assertThat(seen).hasValue(1);
+
+        request(new Cookie(COOKIE, Long.toString(System.currentTimeMillis() - 1)),
+                () -> seen.set(countUsers()));
+        assertThat(seen).hasValue(0);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWithoutAHealthyReplica() {
+        insertUser(1);
+        replica.execute("SHUTDOWN");
+        assertThatThrownBy(() -> replica.queryForObject("SELECT 1", Integer.class)).isInstanceOf(RuntimeException.class);
+
+        health.check();
+
+        assertThat(health.getHealthyReplicas()).isEmpty();
+        assertThat(countUsers()).isEqualTo(1);
+    }
+}
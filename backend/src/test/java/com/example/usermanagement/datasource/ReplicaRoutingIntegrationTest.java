@@ -0,0 +1,115 @@
+package com.example.usermanagement.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Which of the user API's calls pin the client to the primary. The scheduled
+ * replication job is off; the test replicates by hand, so a user is on the
+ * replica only once it has done so. Caches are off so every read reaches a
+ * database.
+ */
+@SpringBootTest(properties = {"app.datasource.routing.enabled=true",
+        "app.datasource.routing.replica-urls=jdbc:h2:mem:routing-it-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.routing.replication.enabled=false",
+        "app.cache.enabled=false", "app.tenancy.cache.enabled=false"})
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    private static final String TENANT = "routing";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @Autowired
+    private ReplicaHealthMonitor health;
+
+    @Autowired
+    private ReplicaRoutingProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private SnapshotReplicationJob replication;
+
+    @BeforeEach
+    void replicate() {
+        replication = new SnapshotReplicationJob(primaryDataSource, replicaPool.getReplicas(), health);
+        replication.replicate();
+        health.check();
+        assertThat(health.getHealthyReplicas()).containsExactly("replica-0");
+    }
+
+    private MockHttpServletResponse createUser(String email) throws Exception {
+        return mockMvc.perform(post("/api/users").header("X-Tenant-Id", TENANT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"" + email + "\"}"))
+                .andReturn().getResponse();
+    }
+
+    private int getUser(long id, Cookie... cookies) throws Exception {
+        var request = get("/api/users/" + id).header("X-Tenant-Id", TENANT);
+        if (cookies.length > 0) {
+            request.cookie(cookies);
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getStatus();
+    }
+
+    @Test
+    void createSetsTheStickyCookieThatKeepsReadsOnThePrimary() throws Exception {
+        MockHttpServletResponse created = createUser("sticky@example.com");
+        assertThat(created.getStatus()).isEqualTo(201);
+        long id = objectMapper.readTree(created.getContentAsString()).get("id").asLong();
+
+        Cookie sticky = created.getCookie(properties.getStickyCookieName());
+        assertThat(sticky).isNotNull();
+
+        assertThat(getUser(id, sticky)).isEqualTo(200);
+        // Other clients read the replica, which has not caught up
+        assertThat(getUser(id)).isEqualTo(404);
+        replication.replicate();
+        assertThat(getUser(id)).isEqualTo(200);
+    }
+
+    @Test
+    void changeFeedPollsReadThePrimaryWithoutPinningTheClient() throws Exception {
+        MockHttpServletResponse created = createUser("feed@example.com");
+        long id = objectMapper.readTree(created.getContentAsString()).get("id").asLong();
+
+        MockHttpServletResponse changes = mockMvc.perform(get("/api/users/changes").header("X-Tenant-Id", TENANT))
+                .andReturn().getResponse();
+
+        assertThat(changes.getStatus()).isEqualTo(200);
+        assertThat(changes.getContentAsString()).contains("\"id\":" + id);
+        assertThat(changes.getCookie(properties.getStickyCookieName())).isNull();
+    }
+
+    @Test
+    void failedWriteDoesNotPinTheClient() throws Exception {
+        createUser("taken@example.com");
+
+        MockHttpServletResponse conflict = createUser("taken@example.com");
+
+        assertThat(conflict.getStatus()).isEqualTo(409);
+        assertThat(conflict.getCookie(properties.getStickyCookieName())).isNull();
+    }
+}
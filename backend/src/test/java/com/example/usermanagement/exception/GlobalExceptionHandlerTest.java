@@ -0,0 +1,124 @@
+package com.example.usermanagement.exception;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Error responses of the user API as problem+json bodies
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(GlobalExceptionHandlerTest.FailingController.class)
+class GlobalExceptionHandlerTest {
+
+    private static final String TENANT = "problems";
+    private static final String SECRET = "jdbc:h2:mem:users;PASSWORD=hunter2";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /** Fails the way an unexpected bug would, with internals in the message */
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/api/test-failures")
+        String fail() {
+            throw new IllegalStateException("Cannot connect to " + SECRET);
+        }
+    }
+
+    private static void expectProblem(ResultActions result, int status, String title, String detail)
+            throws Exception {
+        result.andExpect(status().is(status))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("about:blank"))
+                .andExpect(jsonPath("$.title").value(title))
+                .andExpect(jsonPath("$.status").value(status))
+                .andExpect(jsonPath("$.detail").value(detail))
+                .andExpect(jsonPath("$.timestamp").value(matchesPattern("\\d{4}-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\dZ")));
+    }
+
+    private ResultActions create(String body) throws Exception {
+        return mockMvc.perform(post("/api/users").header("X-Tenant-Id", TENANT)
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    @Test
+    void invalidFieldsAreListedInA400() throws Exception {
+        ResultActions result = create("{\"firstName\":\"\",\"lastName\":\"Lee\",\"email\":\"not-an-email\"}");
+
+        expectProblem(result, 400, "Validation Failed", "One or more fields are invalid");
+        result.andExpect(jsonPath("$.errors.firstName").exists())
+                .andExpect(jsonPath("$.errors.email").exists())
+                .andExpect(jsonPath("$.errors.lastName").doesNotExist());
+    }
+
+    @Test
+    void malformedBodiesAreA400() throws Exception {
+        expectProblem(create("{\"firstName\":"), 400, "Bad Request", "Request body is missing or malformed");
+    }
+
+    @Test
+    void missingUsersAreA404WithTheirId() throws Exception {
+        expectProblem(mockMvc.perform(get("/api/users/987654").header("X-Tenant-Id", TENANT)),
+                404, "Resource Not Found", "User not found with id: 987654");
+    }
+
+    @Test
+    void duplicateEmailsAreA409() throws Exception {
+        String body = "{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann.problem@example.com\"}";
+        create(body).andExpect(status().isCreated());
+
+        expectProblem(create(body), 409, "Data Integrity Violation",
+                "A user with this email address already exists");
+    }
+
+    @Test
+    void unexpectedErrorsAreA500WithoutTheirMessage() throws Exception {
+        ResultActions result = mockMvc.perform(get("/api/test-failures"));
+
+        expectProblem(result, 500, "Internal Server Error", "An unexpected error occurred");
+        assertThat(result.andReturn().getResponse().getContentAsString())
+                .doesNotContain(SECRET).doesNotContain("IllegalStateException");
+    }
+
+    @Test
+    void unexpectedErrorsAreLoggedAtMostTenTimesAMinute() throws Exception {
+        Logger logger = (Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class);
+        ListAppender<ILoggingEvent> logged = new ListAppender<>();
+        logged.start();
+        logger.addAppender(logged);
+        try {
+            for (int i = 0; i < 25; i++) {
+                mockMvc.perform(get("/api/test-failures")).andExpect(status().isInternalServerError());
+            }
+        } finally {
+            logger.detachAppender(logged);
+        }
+
+        // Other tests of this context may have used up part of the current window
+        assertThat(logged.list).filteredOn(event -> event.getLevel() == Level.ERROR)
+                .hasSizeLessThanOrEqualTo(10);
+    }
+}
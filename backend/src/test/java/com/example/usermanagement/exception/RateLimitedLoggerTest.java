@@ -0,0 +1,58 @@
+package com.example.usermanagement.exception;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitedLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RateLimitedLoggerTest.class);
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+
+    @BeforeEach
+    void captureLog() {
+        logged.start();
+        logger.addAppender(logged);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        logger.detachAppender(logged);
+    }
+
+    @Test
+    void logsOnlyTheFirstErrorsOfAWindow() {
+        RateLimitedLogger errors = new RateLimitedLogger(logger, 3, 60_000);
+        for (int i = 0; i < 10; i++) {
+            errors.error("Failed " + i, new IllegalStateException());
+        }
+
+        assertThat(logged.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Failed 0", "Failed 1", "Failed 2");
+        assertThat(logged.list).allSatisfy(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.ERROR);
+            assertThat(event.getThrowableProxy()).isNotNull();
+        });
+    }
+
+    @Test
+    void reportsTheSuppressedErrorsWhenTheNextWindowOpens() throws InterruptedException {
+        RateLimitedLogger errors = new RateLimitedLogger(logger, 2, 50);
+        for (int i = 0; i < 5; i++) {
+            errors.error("Failed", new IllegalStateException());
+        }
+        Thread.sleep(60);
+        errors.error("Failed again", new IllegalStateException());
+
+        assertThat(logged.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Failed", "Failed", "Suppressed 3 similar errors in the last 50 ms", "Failed again");
+        assertThat(logged.list.get(2).getLevel()).isEqualTo(Level.WARN);
+    }
+}
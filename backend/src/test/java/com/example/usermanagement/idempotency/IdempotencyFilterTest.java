@@ -0,0 +1,186 @@
+package com.example.usermanagement.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays, key reuse, concurrent duplicates and the limits of the
+ * Idempotency-Key filter, driven directly with mock requests
+ */
+class IdempotencyFilterTest {
+
+    private static final String CREATE = "{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann@example.com\"}";
+
+    private IdempotencyProperties properties;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void createFilter() {
+        properties = new IdempotencyProperties();
+        properties.setInFlightTimeout(Duration.ofSeconds(5));
+        properties.setMaxBodySize(DataSize.ofBytes(1024));
+        filter = new IdempotencyFilter(new IdempotencyStore(100, Duration.ofHours(1), null), properties,
+                new SimpleMeterRegistry());
+    }
+
+    /** Answers 201 with a body naming the execution */
+    private FilterChain created() {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            ((HttpServletResponse) response).setStatus(201);
+            response.setContentType("application/json");
+            response.getOutputStream().write(("{\"id\":" + execution + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheStoredResponse() throws Exception {
+        MockHttpServletResponse first = send(request("POST", "/api/users", "k1", CREATE), created());
+        MockHttpServletResponse retry = send(request("POST", "/api/users", "k1", CREATE), created());
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+    }
+
+    @Test
+    void keyReusedForADifferentPayloadIsRejected() throws Exception {
+        send(request("POST", "/api/users", "k1", CREATE), created());
+        MockHttpServletResponse reused = send(request("POST", "/api/users", "k1",
+                CREATE.replace("Ann", "Bob")), created());
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheOriginalAndGetsItsResponse() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> original =
+                    clients.submit(() -> send(request("POST", "/api/users", "k1", CREATE), slow));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<MockHttpServletResponse> duplicate =
+                    clients.submit(() -> send(request("POST", "/api/users", "k1", CREATE), slow));
+            // The duplicate must not reach the chain while the original runs
+            Thread.sleep(200);
+            assertThat(duplicate.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(original.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+            MockHttpServletResponse replay = duplicate.get(5, TimeUnit.SECONDS);
+            assertThat(replay.getStatus()).isEqualTo(201);
+            assertThat(replay.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+            assertThat(executions).hasValue(1);
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedOriginalReleasesTheKey() throws Exception {
+        FilterChain failing = (request, response) -> ((HttpServletResponse) response).setStatus(500);
+        assertThat(send(request("POST", "/api/users", "k1", CREATE), failing).getStatus()).isEqualTo(500);
+
+        MockHttpServletResponse retry = send(request("POST", "/api/users", "k1", CREATE), created());
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void bodiesOverTheLimitAreRejectedWithoutExecuting() throws Exception {
+        String large = "{\"firstName\":\"" + "x".repeat(2000) + "\"}";
+        assertThat(send(request("POST", "/api/users", "k1", large), created()).getStatus()).isEqualTo(413);
+
+        // Without a declared length the limit is found while reading
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/users") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.addHeader("Idempotency-Key", "k2");
+        chunked.setContent(large.getBytes(StandardCharsets.UTF_8));
+        assertThat(send(chunked, created()).getStatus()).isEqualTo(413);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void onlyUserCreatesAndUpdatesAreCovered() throws Exception {
+        String large = "x".repeat(4096);
+        // The bulk import streams its body and is not buffered, whatever its size
+        assertThat(send(request("POST", "/api/users/import", "k1", large), created()).getStatus()).isEqualTo(201);
+        assertThat(send(request("POST", "/api/users/import", "k1", large), created()).getStatus()).isEqualTo(201);
+        assertThat(executions).hasValue(2);
+
+        send(request("PUT", "/api/users/7", "k2", CREATE), created());
+        MockHttpServletResponse retry = send(request("PUT", "/api/users/7", "k2", CREATE), created());
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(3);
+    }
+
+    @Test
+    void inFlightKeysAreNotEvictedBySize() {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofHours(1), null);
+        IdempotencyStore.Claim inFlight = store.claim("running", new byte[] {1});
+        for (int i = 0; i < 1000; i++) {
+            String key = "done-" + i;
+            store.complete(key, store.claim(key, new byte[] {2}), new StoredResponse(201, null, new byte[0]));
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(11);
+        IdempotencyStore.Claim duplicate = store.claim("running", new byte[] {1});
+        assertThat(duplicate.owner()).isFalse();
+        assertThat(duplicate.response()).isSameAs(inFlight.response());
+    }
+}
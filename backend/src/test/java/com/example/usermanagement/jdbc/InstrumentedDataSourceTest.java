@@ -0,0 +1,136 @@
+package com.example.usermanagement.jdbc;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * What listeners see of statements run through the instrumented datasource
+ */
+class InstrumentedDataSourceTest {
+
+    /** Copy of an ExecutedStatement, which is only valid during the callback */
+    private record Execution(Object state, String sql, List<Object> binds, int batchSize, long elapsedNanos,
+                             Throwable error) {
+    }
+
+    private final List<Execution> executions = new ArrayList<>();
+    private InstrumentedDataSource dataSource;
+    private Connection connection;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+        dataSource = new InstrumentedDataSource(h2, List.of(new StatementListener() {
+            @Override
+            public Object beforeExecute(String sql) {
+                return "state:" + sql;
+            }
+
+            @Override
+            public void afterExecute(Object state, ExecutedStatement statement) {
+                List<Object> binds = new ArrayList<>();
+                for (int i = 1; i <= statement.getBindCount(); i++) {
+                    binds.add(statement.getBind(i));
+                }
+                executions.add(new Execution(state, statement.getSql(), binds, statement.getBatchSize(),
+                        statement.getElapsedNanos(), statement.getError()));
+            }
+        }));
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(100), phone VARCHAR(20))");
+        }
+        executions.clear();
+    }
+
+    @AfterEach
+    void dropTable() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE users");
+        }
+        connection.close();
+        dataSource.close();
+    }
+
+    @Test
+    void reportsPreparedStatementsWithTheirBindValues() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, email, phone) VALUES (?, ?, ?)")) {
+            insert.setLong(1, 7);
+            insert.setString(2, "ann@example.com");
+            insert.setNull(3, Types.VARCHAR);
+            insert.executeUpdate();
+        }
+
+        assertThat(executions).singleElement().satisfies(execution -> {
+            assertThat(execution.sql()).isEqualTo("INSERT INTO users (id, email, phone) VALUES (?, ?, ?)");
+            assertThat(execution.binds()).containsExactly(7L, "ann@example.com", null);
+            assertThat(execution.state()).isEqualTo("state:" + execution.sql());
+            assertThat(execution.batchSize()).isZero();
+            assertThat(execution.elapsedNanos()).isPositive();
+            assertThat(execution.error()).isNull();
+        });
+    }
+
+    @Test
+    void reportsBatchesOnceWithTheirSize() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users (id, email) VALUES (?, ?)")) {
+            for (long id = 1; id <= 3; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "user" + id + "@example.com");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            insert.clearParameters();
+            insert.setLong(1, 4);
+            insert.setString(2, "user4@example.com");
+            insert.executeUpdate();
+        }
+
+        assertThat(executions).extracting(Execution::batchSize).containsExactly(3, 0);
+        assertThat(executions.get(1).binds()).containsExactly(4L, "user4@example.com");
+    }
+
+    @Test
+    void reportsPlainStatementsAndQueries() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+            assertThat(rows.next()).isTrue();
+        }
+
+        assertThat(executions).singleElement().satisfies(execution -> {
+            assertThat(execution.sql()).isEqualTo("SELECT COUNT(*) FROM users");
+            assertThat(execution.binds()).isEmpty();
+        });
+    }
+
+    @Test
+    void reportsStatementsThatFail() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT 1 / ? FROM users")) {
+            select.setInt(1, 0);
+            connection.createStatement().executeUpdate("INSERT INTO users (id) VALUES (1)");
+            executions.clear();
+
+            assertThatThrownBy(select::executeQuery).isInstanceOf(SQLException.class);
+        }
+
+        assertThat(executions).singleElement()
+                .satisfies(execution -> assertThat(execution.error()).isInstanceOf(SQLException.class));
+    }
+}
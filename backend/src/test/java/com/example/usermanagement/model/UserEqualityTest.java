@@ -0,0 +1,75 @@
+package com.example.usermanagement.model;
+
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * equals/hashCode on the uuid business key: stable across saving, equal for
+ * copies of the same row, and spread across hash buckets
+ */
+@SpringBootTest
+class UserEqualityTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private static User user(String email) {
+        return new User("Ann", "Lee", email, null);
+    }
+
+    @Test
+    void hashCodeDoesNotChangeWhenTheIdIsAssigned() {
+        User user = user("ann@example.com");
+        Set<User> users = new HashSet<>();
+        users.add(user);
+        int before = user.hashCode();
+
+        user.setId(42L);
+
+        assertThat(user.hashCode()).isEqualTo(before);
+        assertThat(users).contains(user);
+    }
+
+    @Test
+    void usersWithTheSameFieldsAreStillDistinct() {
+        User first = user("ann@example.com");
+        User second = user("ann@example.com");
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first.getUuid()).isNotEqualTo(second.getUuid());
+    }
+
+    @Test
+    void differentUsersLandInDifferentBuckets() {
+        Set<Integer> hashes = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            hashes.add(user("user" + i + "@example.com").hashCode());
+        }
+
+        assertThat(hashes).hasSizeGreaterThan(990);
+    }
+
+    @Test
+    void savedUserEqualsItsReloadedCopy() throws Exception {
+        TenantContext.call("user-equality", () -> {
+            User user = user("ann@example.com");
+            Set<User> users = new HashSet<>();
+            users.add(user);
+
+            User saved = userRepository.save(user);
+            User reloaded = userRepository.findById(saved.getId()).orElseThrow();
+
+            assertThat(reloaded).isNotSameAs(user).isEqualTo(user);
+            assertThat(users).contains(reloaded);
+            return null;
+        });
+    }
+}
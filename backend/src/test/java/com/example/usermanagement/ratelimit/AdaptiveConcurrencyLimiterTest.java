@@ -0,0 +1,96 @@
+package com.example.usermanagement.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Additive increase and multiplicative decrease of the limit against a
+ * 1 ms latency target
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1);
+
+    private void complete(long latencyNanos) {
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(latencyNanos);
+    }
+
+    /** Lets the once-per-target-interval guard on decreases pass again */
+    private static void nextInterval() throws InterruptedException {
+        Thread.sleep(2);
+    }
+
+    @Test
+    void shedsRequestsAtTheLimit() {
+        AdaptiveConcurrencyLimiter small = new AdaptiveConcurrencyLimiter(3, 1_000);
+        assertThat(small.tryAcquire()).isTrue();
+        assertThat(small.tryAcquire()).isTrue();
+        assertThat(small.tryAcquire()).isTrue();
+
+        assertThat(small.tryAcquire()).isFalse();
+        assertThat(small.getInFlight()).isEqualTo(3);
+
+        small.release(FAST);
+        assertThat(small.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void slowRequestsCutTheLimitByAQuarterOncePerInterval() throws InterruptedException {
+        complete(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(12);
+
+        complete(SLOW);
+        assertThat(limiter.getLimit()).as("second slow request in the same interval").isEqualTo(12);
+
+        nextInterval();
+        complete(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void limitNeverDropsBelowTwo() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            nextInterval();
+            complete(SLOW);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void limitGrowsBackByOnePerFastRequestUpToTheMaximum() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            nextInterval();
+            complete(SLOW);
+        }
+        int reduced = limiter.getLimit();
+        assertThat(reduced).isLessThan(16);
+
+        // The smoothed latency has to come back under the target before the limit grows
+        complete(FAST);
+        assertThat(limiter.getSmoothedLatencyMillis()).isGreaterThan(1);
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(reduced);
+        while (limiter.getSmoothedLatencyMillis() > 1) {
+            complete(FAST);
+        }
+        int recovering = limiter.getLimit();
+        complete(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(recovering + 1);
+
+        for (int i = 0; i < 100; i++) {
+            complete(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(16);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
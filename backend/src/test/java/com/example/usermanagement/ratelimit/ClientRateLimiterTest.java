@@ -0,0 +1,45 @@
+package com.example.usermanagement.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    @Test
+    void eachClientHasItsOwnBucket() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 2, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.getTrackedClients()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsRefilledBucketsWhenTooManyClientsAreTracked() throws InterruptedException {
+        // One token per millisecond, so the buckets are full again almost at once
+        ClientRateLimiter limiter = new ClientRateLimiter(1_000, 1, 2);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        Thread.sleep(10);
+
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.getTrackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsBucketsThatStillOweTokens() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 2);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.getTrackedClients()).isEqualTo(3);
+        assertThat(limiter.tryAcquire("a")).as("eviction must not reset a limited client").isPositive();
+    }
+}
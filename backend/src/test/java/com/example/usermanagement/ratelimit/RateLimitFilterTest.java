@@ -0,0 +1,120 @@
+package com.example.usermanagement.ratelimit;
+
+import com.example.usermanagement.cors.CorsConfig;
+import com.example.usermanagement.cors.CorsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Budgets of the rate limit filter, run behind the CORS filter as in the
+ * application
+ */
+class RateLimitFilterTest {
+
+    private static final String ORIGIN = "http://localhost:5173";
+    private static final String CLIENT_KEY = "struts-key";
+
+    private Filter cors;
+    private RateLimitFilter rateLimit;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void createFilters() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setWrite(new RateLimitProperties.Budget(0.01, 1, 16, 500));
+        properties.setImports(new RateLimitProperties.Budget(0.01, 1, 4, 60_000));
+        RateLimitProperties.Client client = new RateLimitProperties.Client();
+        client.setKey(CLIENT_KEY);
+        client.setWrite(new RateLimitProperties.Rate(0.01, 5));
+        properties.getClients().put("struts", client);
+        rateLimit = new RateLimitFilter(properties, new SimpleMeterRegistry());
+        cors = new CorsConfig().corsFilter(new CorsProperties()).getFilter();
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet application = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                executions.incrementAndGet();
+            }
+        };
+        new MockFilterChain(application, cors, rateLimit).doFilter(request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("Origin", ORIGIN);
+        return request;
+    }
+
+    @Test
+    void rejectionsCarryRetryAfterAndCorsHeaders() throws Exception {
+        assertThat(send(request("POST", "/api/users")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send(request("POST", "/api/users"));
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getContentType()).isEqualTo("application/problem+json");
+        assertThat(rejected.getHeader("Retry-After")).isNotNull();
+        assertThat(rejected.getHeader("Access-Control-Allow-Origin")).isEqualTo(ORIGIN);
+        assertThat(rejected.getHeader("Access-Control-Expose-Headers")).contains("Retry-After");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void preflightsDoNotTakeTokens() throws Exception {
+        MockHttpServletRequest preflight = request("OPTIONS", "/api/users");
+        preflight.addHeader("Access-Control-Request-Method", "POST");
+
+        MockHttpServletResponse response = send(preflight);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Access-Control-Allow-Origin")).isEqualTo(ORIGIN);
+        assertThat(send(request("POST", "/api/users")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void importsHaveABudgetOfTheirOwn() throws Exception {
+        assertThat(send(request("POST", "/api/users/import")).getStatus()).isEqualTo(200);
+        assertThat(send(request("POST", "/api/users/import")).getStatus()).isEqualTo(429);
+
+        assertThat(send(request("POST", "/api/users")).getStatus()).isEqualTo(200);
+        assertThat(send(request("POST", "/api/users")).getStatus()).isEqualTo(429);
+
+        // Status polls of an import are reads
+        assertThat(send(request("GET", "/api/users/import/1")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void configuredClientsHaveRatesOfTheirOwn() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send(request("POST", "/api/users", CLIENT_KEY)).getStatus()).isEqualTo(200);
+        }
+        assertThat(send(request("POST", "/api/users", CLIENT_KEY)).getStatus()).isEqualTo(429);
+
+        // Other keys keep the default write rate
+        assertThat(send(request("POST", "/api/users", "other-key")).getStatus()).isEqualTo(200);
+        assertThat(send(request("POST", "/api/users", "other-key")).getStatus()).isEqualTo(429);
+        assertThat(executions).hasValue(6);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String clientKey) {
+        MockHttpServletRequest request = request(method, path);
+        request.addHeader("X-API-Key", clientKey);
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.usermanagement.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA arithmetic with an explicit clock: 10 requests per second is one
+ * emission interval every 100 ms, and a burst of 3 allows two intervals of
+ * tolerance
+ */
+class TokenBucketTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TokenBucket bucket = new TokenBucket(10, 3);
+
+    @Test
+    void allowsTheBurstThenAsksToWaitOneInterval() {
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+
+        assertThat(bucket.tryAcquire(START)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(START + INTERVAL / 4)).isEqualTo(INTERVAL - INTERVAL / 4);
+    }
+
+    @Test
+    void refillsAtTheSustainedRate() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(START);
+        }
+
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL)).isPositive();
+    }
+
+    @Test
+    void rejectedRequestsDoNotUseUpTokens() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(START);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(START)).isPositive();
+        }
+
+        assertThat(bucket.tryAcquire(START + INTERVAL)).isZero();
+    }
+
+    @Test
+    void idleTimeDoesNotSaveUpMoreThanTheBurst() {
+        bucket.tryAcquire(START);
+        long later = START + TimeUnit.SECONDS.toNanos(60);
+
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void isIdleOnceFullAgain() {
+        assertThat(bucket.isIdle(START)).isTrue();
+
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        assertThat(bucket.isIdle(START)).isFalse();
+        assertThat(bucket.isIdle(START + INTERVAL)).isFalse();
+        assertThat(bucket.isIdle(START + 2 * INTERVAL)).isTrue();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserChangesDTO;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /api/users/changes against the real database. Positions are shared by
+ * all tenants, so each test starts from the watermark it reads first.
+ */
+@SpringBootTest
+class ChangeFeedIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    private UserDTO create(String firstName, String email) {
+        return userService.createUser(new CreateUserRequest(firstName, "Tester", email, null));
+    }
+
+    private long watermark() {
+        return userService.getChanges(Long.MAX_VALUE, 1).getWatermark();
+    }
+
+    @Test
+    void listsTheLatestStateOfChangedUsersAndTombstonesOfDeletedOnes() throws Exception {
+        TenantContext.call("feed-state", () -> {
+            long start = watermark();
+            UserDTO ann = create("Ann", "ann@example.com");
+            UserDTO bob = create("Bob", "bob@example.com");
+            userService.updateUser(ann.getId(), new UpdateUserRequest("Anna", "Tester", "ann@example.com", null));
+            userService.deleteUser(bob.getId());
+
+            UserChangesDTO changes = userService.getChanges(start, 100);
+
+            assertThat(changes.getChanged()).extracting(UserDTO::getFirstName).containsExactly("Anna");
+            assertThat(changes.getDeleted()).extracting(UserChangesDTO.DeletedUser::getId)
+                    .containsExactly(bob.getId());
+            assertThat(changes.isHasMore()).isFalse();
+            assertThat(changes.getWatermark()).isEqualTo(watermark());
+            assertThat(userService.getChanges(changes.getWatermark(), 100).getChanged()).isEmpty();
+            return null;
+        });
+    }
+
+    @Test
+    void pagesStopAtTheLastChangeReturned() throws Exception {
+        TenantContext.call("feed-pages", () -> {
+            long start = watermark();
+            create("One", "one@example.com");
+            create("Two", "two@example.com");
+            UserDTO three = create("Three", "three@example.com");
+            userService.deleteUser(three.getId());
+
+            UserChangesDTO first = userService.getChanges(start, 2);
+            assertThat(first.getChanged()).extracting(UserDTO::getFirstName).containsExactly("One", "Two");
+            assertThat(first.isHasMore()).isTrue();
+            assertThat(first.getWatermark()).isGreaterThan(start).isLessThan(watermark());
+
+            UserChangesDTO second = userService.getChanges(first.getWatermark(), 2);
+            assertThat(second.getChanged()).isEmpty();
+            assertThat(second.getDeleted()).extracting(UserChangesDTO.DeletedUser::getId)
+                    .containsExactly(three.getId());
+            assertThat(second.isHasMore()).isFalse();
+            assertThat(second.getWatermark()).isEqualTo(watermark());
+            return null;
+        });
+    }
+
+    @Test
+    void watermarkMovesWithEveryTenantsWritesButChangesStayInTheirTenant() throws Exception {
+        long start = TenantContext.call("feed-tenant-a", this::watermark);
+        TenantContext.call("feed-tenant-b", () -> create("Bea", "bea@example.com"));
+        long afterWrite = TenantContext.call("feed-tenant-b", this::watermark);
+
+        UserChangesDTO changesOfA = TenantContext.call("feed-tenant-a", () -> userService.getChanges(start, 100));
+        UserChangesDTO changesOfB = TenantContext.call("feed-tenant-b", () -> userService.getChanges(start, 100));
+
+        assertThat(afterWrite).isGreaterThan(start);
+        assertThat(changesOfA.getChanged()).isEmpty();
+        assertThat(changesOfA.getWatermark()).isEqualTo(afterWrite);
+        assertThat(changesOfB.getChanged()).extracting(UserDTO::getEmail).containsExactly("bea@example.com");
+        assertThat(changesOfB.getWatermark()).isEqualTo(afterWrite);
+        assertThat(TenantContext.call("feed-tenant-a", this::watermark)).isEqualTo(afterWrite);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.datasource.ReadYourWrites;
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.exception.UserLookupTimeoutException;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.tenant.TenantContext;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Coalesced GET /api/users/{id} lookups keep to the tenant and the
+ * read-your-writes routing of the request that asked. The window is long
+ * enough for concurrent lookups to land in the same batch if batches were
+ * shared, and the tenant cache is off so every lookup reaches the batch
+ * loader.
+ */
+@SpringBootTest(properties = {"app.user-lookup.batching.enabled=true", "app.user-lookup.batching.window-millis=50",
+        "app.user-lookup.batching.timeout-millis=500", "app.tenancy.cache.enabled=false"})
+class UserBatchLoaderIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    /** Tenant current in each batched load, as Hibernate sees it, and "@primary" if pinned */
+    private final Queue<String> loadedAs = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void recordTenantOfBatchedLoads() {
+        // The repository is a JDK proxy; its spy delegates to it through the default answer
+        Answer<?> delegate = mockingDetails(userRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            loadedAs.add(TenantContext.current() + (ReadYourWrites.requiresPrimary() ? "@primary" : ""));
+            if (TenantContext.current().equals("batch-slow")) {
+                Thread.sleep(1500);
+            }
+            return delegate.answer(invocation);
+        }).when(userRepository).findAllByIdInOrder(anyList());
+    }
+
+    private Long createIn(String tenantId, String email) throws Exception {
+        return TenantContext.call(tenantId, () -> {
+            CreateUserRequest request = new CreateUserRequest();
+            request.setFirstName("Batch");
+            request.setLastName("Tester");
+            request.setEmail(email);
+            return userService.createUser(request).getId();
+        });
+    }
+
+    @Test
+    void batchedLookupsRunInTheCallersTenant() throws Exception {
+        Long id = createIn("batch-a", "owner@example.com");
+
+        UserDTO user = TenantContext.call("batch-a", () -> userService.getUserById(id));
+        assertThat(user.getEmail()).isEqualTo("owner@example.com");
+        assertThatThrownBy(() -> TenantContext.call("batch-b", () -> userService.getUserById(id)))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThat(loadedAs).containsExactly("batch-a", "batch-b");
+    }
+
+    @Test
+    void concurrentLookupsOfOneIdFromTwoTenantsAreNotShared() throws Exception {
+        Long id = createIn("batch-c", "shared@example.com");
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<UserDTO> owner = clients.submit(lookup("batch-c", id, start));
+            Future<UserDTO> other = clients.submit(lookup("batch-d", id, start));
+
+            assertThat(owner.get(5, TimeUnit.SECONDS).getId()).isEqualTo(id);
+            assertThat(other.get(5, TimeUnit.SECONDS)).isNull();
+            // One batch per tenant, even though both asked within the same window
+            assertThat(loadedAs).containsExactlyInAnyOrder("batch-c", "batch-d");
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void lookupsPinnedToThePrimaryAreBatchedAndLoadedApart() throws Exception {
+        Long id = createIn("batch-e", "pinned@example.com");
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<UserDTO> pinned = clients.submit(lookup("batch-e", id, start, true));
+            Future<UserDTO> free = clients.submit(lookup("batch-e", id, start, false));
+
+            assertThat(pinned.get(5, TimeUnit.SECONDS).getId()).isEqualTo(id);
+            assertThat(free.get(5, TimeUnit.SECONDS).getId()).isEqualTo(id);
+            assertThat(loadedAs).containsExactlyInAnyOrder("batch-e@primary", "batch-e");
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void lookupGivesUpWhenItsBatchDoesNotLoadInTime() throws Exception {
+        Long id = createIn("batch-slow", "slow@example.com");
+
+        assertThatThrownBy(() -> TenantContext.call("batch-slow", () -> userService.getUserById(id)))
+                .isInstanceOf(UserLookupTimeoutException.class);
+    }
+
+    private Callable<UserDTO> lookup(String tenantId, Long id, CyclicBarrier start) {
+        return lookup(tenantId, id, start, false);
+    }
+
+    /** @return the user, or null when it is not found for the tenant */
+    private Callable<UserDTO> lookup(String tenantId, Long id, CyclicBarrier start, boolean pinned) {
+        return () -> ReadYourWrites.call(pinned, () -> TenantContext.call(tenantId, () -> {
+            start.await(5, TimeUnit.SECONDS);
+            try {
+                return userService.getUserById(id);
+            } catch (EntityNotFoundException e) {
+                return null;
+            }
+        }));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserService against the real repositories and database. Each test works
+ * in a tenant of its own, so it sees only the users it created.
+ */
+@SpringBootTest
+class UserServiceIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    private UserDTO create(String firstName, String email) {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setFirstName(firstName);
+        request.setLastName("Tester");
+        request.setEmail(email);
+        request.setPhone("555-0100");
+        return userService.createUser(request);
+    }
+
+    @Test
+    void allUsersAreListedInIdOrder() {
+        TenantContext.run("list-order", () -> {
+            // Email order is the reverse of creation order
+            UserDTO zoe = create("Zoe", "zoe@example.com");
+            UserDTO mia = create("Mia", "mia@example.com");
+            UserDTO abe = create("Abe", "abe@example.com");
+
+            List<Long> ids = userService.getAllUsers().stream().map(UserDTO::getId).toList();
+            assertThat(ids).containsExactly(zoe.getId(), mia.getId(), abe.getId());
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.usermanagement.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+    private static final int IDS = 100_000;
+
+    @Test
+    void idsSpreadEvenlyOverTheShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        int[] counts = new int[4];
+        for (long id = 1; id <= IDS; id++) {
+            counts[ring.shardFor(id)]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(IDS / 4 * 3 / 4, IDS / 4 * 5 / 4);
+        }
+    }
+
+    @Test
+    void sameShardCountGivesTheSameMapping() {
+        ConsistentHashRing ring = new ConsistentHashRing(3, 128);
+        ConsistentHashRing again = new ConsistentHashRing(3, 128);
+        for (long id = 1; id <= 1000; id++) {
+            assertThat(again.shardFor(id)).isEqualTo(ring.shardFor(id));
+        }
+    }
+
+    @Test
+    void addingAShardOnlyMovesIdsOntoIt() {
+        ConsistentHashRing three = new ConsistentHashRing(3, 128);
+        ConsistentHashRing four = new ConsistentHashRing(4, 128);
+        int moved = 0;
+        for (long id = 1; id <= IDS; id++) {
+            int before = three.shardFor(id);
+            int after = four.shardFor(id);
+            if (before != after) {
+                assertThat(after).isEqualTo(3);
+                moved++;
+            }
+        }
+        // About a quarter, where id % N would move three quarters
+        assertThat(moved).isBetween(IDS / 4 * 3 / 4, IDS / 4 * 5 / 4);
+    }
+
+    @Test
+    void singleShardOwnsEverything() {
+        ConsistentHashRing ring = new ConsistentHashRing(1, 16);
+        for (long id = 1; id <= 1000; id++) {
+            assertThat(ring.shardFor(id)).isZero();
+        }
+    }
+
+    @Test
+    void atLeastOneShardIsRequired() {
+        assertThatThrownBy(() -> new ConsistentHashRing(0, 128)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.usermanagement.sharding;
+
+import com.example.usermanagement.dto.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rebalances in-memory H2 shards through ShardRebalanceCommand, from two
+ * shards onto three, in batches smaller than a shard
+ */
+class ShardRebalancerTest {
+
+    private final String database = "rebalance-" + UUID.randomUUID();
+    private final List<ShardedUserStore> stores = new ArrayList<>();
+
+    private String url(String name) {
+        return "jdbc:h2:mem:" + database + "-" + name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private ShardingProperties properties(String... shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setShardUrls(List.of(shards));
+        properties.setDirectoryUrl(url("directory"));
+        properties.setPoolSize(2);
+        properties.getRebalance().setBatchSize(7);
+        return properties;
+    }
+
+    private ShardedUserStore open(ShardingProperties properties) {
+        ShardedUserStore store = new ShardedUserStore(properties);
+        stores.add(store);
+        return store;
+    }
+
+    @BeforeEach
+    void createUsers() {
+        ShardedUserStore store = open(properties(url("0"), url("1")));
+        for (int i = 0; i < 100; i++) {
+            store.create("a", "A", "User" + i, "user" + i + "@example.com", null);
+            store.create("b", "B", "User" + i, "user" + i + "@example.com", "555-" + i);
+        }
+    }
+
+    @AfterEach
+    void close() {
+        stores.forEach(ShardedUserStore::destroy);
+    }
+
+    @Test
+    void movesOnlyTheUsersOwnedByTheNewShard() {
+        ShardingProperties before = properties(url("0"), url("1"));
+        before.getRebalance().setTargetUrls(List.of(url("0"), url("1"), url("2")));
+        ShardedUserStore current = open(before);
+        List<UserDTO> usersOfA = current.findAll("a");
+        List<UserDTO> usersOfB = current.findAll("b");
+
+        long moved = ShardRebalanceCommand.run(before);
+
+        ShardedUserStore after = open(properties(url("0"), url("1"), url("2")));
+        List<JdbcTemplate> shards = after.getShards();
+        assertThat(count(shards.get(2))).isEqualTo(moved).isBetween(30L, 110L);
+        assertThat(count(shards.get(0)) + count(shards.get(1)) + count(shards.get(2))).isEqualTo(200);
+        // Every user is where the new ring looks for it, still in its own tenant
+        assertThat(after.findAll("a")).usingRecursiveFieldByFieldElementComparator().isEqualTo(usersOfA);
+        assertThat(after.findAll("b")).usingRecursiveFieldByFieldElementComparator().isEqualTo(usersOfB);
+        assertThat(after.findById("b", usersOfA.get(0).getId())).isEmpty();
+    }
+
+    @Test
+    void rebalancingTwiceMovesNothingMore() {
+        ShardingProperties before = properties(url("0"), url("1"));
+        before.getRebalance().setTargetUrls(List.of(url("0"), url("1"), url("2")));
+        ShardRebalanceCommand.run(before);
+
+        ShardingProperties after = properties(url("0"), url("1"), url("2"));
+        after.getRebalance().setTargetUrls(after.getShardUrls());
+        assertThat(ShardRebalanceCommand.run(after)).isZero();
+    }
+
+    @Test
+    void targetListIsRequired() {
+        assertThatThrownBy(() -> ShardRebalanceCommand.run(properties(url("0"), url("1"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long count(JdbcTemplate shard) {
+        return shard.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+    }
+}
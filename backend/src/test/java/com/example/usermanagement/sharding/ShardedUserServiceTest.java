@@ -0,0 +1,94 @@
+package com.example.usermanagement.sharding;
+
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.dto.UpdateUserRequest;
+import com.example.usermanagement.dto.UserDTO;
+import com.example.usermanagement.tenant.TenantContext;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The sharded UserService over in-memory H2 shards keeps each tenant's
+ * users, and their emails, to that tenant
+ */
+class ShardedUserServiceTest {
+
+    private final ShardedUserStore store;
+    private final ShardedUserService service;
+
+    ShardedUserServiceTest() {
+        String database = "sharded-" + UUID.randomUUID();
+        ShardingProperties properties = new ShardingProperties();
+        properties.setShardUrls(List.of("jdbc:h2:mem:" + database + "-0;DB_CLOSE_DELAY=-1",
+                "jdbc:h2:mem:" + database + "-1;DB_CLOSE_DELAY=-1"));
+        properties.setDirectoryUrl("jdbc:h2:mem:" + database + "-directory;DB_CLOSE_DELAY=-1");
+        properties.setPoolSize(2);
+        store = new ShardedUserStore(properties);
+        service = new ShardedUserService(store);
+    }
+
+    @AfterEach
+    void close() {
+        store.destroy();
+    }
+
+    private UserDTO createIn(String tenantId, String email) throws Exception {
+        return TenantContext.call(tenantId,
+                () -> service.createUser(new CreateUserRequest("Ann", "Lee", email, null)));
+    }
+
+    @Test
+    void tenantsSeeOnlyTheirOwnUsers() throws Exception {
+        UserDTO a1 = createIn("a", "ann@example.com");
+        UserDTO a2 = createIn("a", "bob@example.com");
+        UserDTO b1 = createIn("b", "cy@example.com");
+
+        assertThat(TenantContext.call("a", service::getAllUsers)).extracting(UserDTO::getId)
+                .containsExactly(a1.getId(), a2.getId());
+        assertThat(TenantContext.call("b", () -> service.getUsersByIds(List.of(a1.getId(), b1.getId()))))
+                .extracting(UserDTO::getId).containsExactly(b1.getId());
+        assertThatThrownBy(() -> TenantContext.call("b", () -> service.getUserById(a1.getId())))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void emailsAreUniqueWithinATenantOnly() throws Exception {
+        createIn("a", "ann@example.com");
+        createIn("b", "ann@example.com");
+
+        assertThatThrownBy(() -> createIn("a", "ann@example.com"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void otherTenantsCannotUpdateOrDeleteAUser() throws Exception {
+        UserDTO user = createIn("a", "ann@example.com");
+        UpdateUserRequest update = new UpdateUserRequest("Eve", "Lee", "eve@example.com", null);
+
+        assertThatThrownBy(() -> TenantContext.call("b", () -> service.updateUser(user.getId(), update)))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> TenantContext.run("b", () -> service.deleteUser(user.getId())))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThat(TenantContext.call("a", () -> service.getUserById(user.getId())).getEmail())
+                .isEqualTo("ann@example.com");
+    }
+
+    @Test
+    void emailChangeFreesTheOldAddress() throws Exception {
+        UserDTO user = createIn("a", "ann@example.com");
+        UpdateUserRequest update = new UpdateUserRequest("Ann", "Lee", "ann.lee@example.com", null);
+        TenantContext.call("a", () -> service.updateUser(user.getId(), update));
+
+        createIn("a", "ann@example.com");
+        assertThatThrownBy(() -> createIn("a", "ann.lee@example.com"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
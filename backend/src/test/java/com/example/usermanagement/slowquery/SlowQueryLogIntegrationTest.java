@@ -0,0 +1,45 @@
+package com.example.usermanagement.slowquery;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.usermanagement.dto.CreateUserRequest;
+import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With a zero threshold every statement on the JPA datasource is logged,
+ * attributed to the UserService method that ran it
+ */
+@SpringBootTest(properties = "app.slow-query.threshold=0ms")
+class SlowQueryLogIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void statementsAreAttributedToTheCallingServiceMethod() throws Exception {
+        Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryLog.class);
+        ListAppender<ILoggingEvent> logged = new ListAppender<>();
+        logged.start();
+        logger.addAppender(logged);
+        try {
+            TenantContext.call("slow-query", () -> userService.createUser(
+                    new CreateUserRequest("Ann", "Lee", "ann@example.com", null)));
+        } finally {
+            logger.detachAppender(logged);
+        }
+
+        assertThat(logged.list).extracting(ILoggingEvent::getFormattedMessage)
+                .anySatisfy(message -> assertThat(message)
+                        .contains(" in JpaUserService.createUser:")
+                        .contains("insert into users")
+                        .contains("'ann@example.com'"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.usermanagement.slowquery;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.usermanagement.jdbc.StatementListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryLog.class);
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SlowQueryProperties properties = new SlowQueryProperties();
+
+    private record Statement(String sql, List<Object> binds, int batchSize, long elapsedNanos)
+            implements StatementListener.ExecutedStatement {
+
+        static Statement taking(long millis, String sql, Object... binds) {
+            return new Statement(sql, Arrays.asList(binds), 0, TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public Object getBind(int index) {
+            return binds.get(index - 1);
+        }
+
+        @Override
+        public int getBindCount() {
+            return binds.size();
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public Throwable getError() {
+            return null;
+        }
+    }
+
+    @BeforeEach
+    void captureLog() {
+        properties.setThreshold(Duration.ofMillis(100));
+        properties.setMaxBindValueLength(5);
+        logged.start();
+        logger.addAppender(logged);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        logger.detachAppender(logged);
+    }
+
+    private double slowStatements() {
+        return registry.counter("users.sql.slow").count();
+    }
+
+    @Test
+    void fastStatementsAreNeitherCountedNorLogged() {
+        new SlowQueryLog(properties, registry).afterExecute(null, Statement.taking(99, "SELECT 1"));
+
+        assertThat(slowStatements()).isZero();
+        assertThat(logged.list).isEmpty();
+    }
+
+    @Test
+    void slowStatementsAreLoggedWithTheirBindValues() {
+        new SlowQueryLog(properties, registry).afterExecute(null, Statement.taking(250,
+                "UPDATE users SET first_name = ?, email = ?, photo = ?, phone = ? WHERE id = ?",
+                "O'Lee", "ann@example.com", new byte[3], null, 42L));
+
+        assertThat(slowStatements()).isEqualTo(1);
+        assertThat(logged.list).singleElement().extracting(ILoggingEvent::getFormattedMessage).asString()
+                .startsWith("Slow query: 250 ms in ")
+                .endsWith(": UPDATE users SET first_name = ?, email = ?, photo = ?, phone = ? WHERE id = ?"
+                        + " binds ['O'Lee', 'ann@e...', <3 bytes>, null, 42]");
+    }
+
+    @Test
+    void batchesAreLoggedWithTheirSize() {
+        new SlowQueryLog(properties, registry).afterExecute(null,
+                new Statement("INSERT INTO users (email) VALUES (?)", List.of("last"), 500,
+                        TimeUnit.SECONDS.toNanos(1)));
+
+        assertThat(logged.list).singleElement().extracting(ILoggingEvent::getFormattedMessage).asString()
+                .endsWith(" binds ['last'] (batch of 500)");
+    }
+
+    @Test
+    void unsampledSlowStatementsAreCountedButNotLogged() {
+        properties.setSampleRate(0);
+        SlowQueryLog slowQueryLog = new SlowQueryLog(properties, registry);
+        for (int i = 0; i < 10; i++) {
+            slowQueryLog.afterExecute(null, Statement.taking(150, "SELECT 1"));
+        }
+
+        assertThat(slowStatements()).isEqualTo(10);
+        assertThat(logged.list).isEmpty();
+    }
+}
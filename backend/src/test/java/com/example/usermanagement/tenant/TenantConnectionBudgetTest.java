@@ -0,0 +1,71 @@
+package com.example.usermanagement.tenant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantConnectionBudgetTest {
+
+    @Test
+    void turnsATenantAwayAtItsBudget() {
+        TenantConnectionBudget budget = new TenantConnectionBudget(2, 100);
+        Semaphore first = budget.tryAcquire("acme");
+        assertThat(first).isNotNull();
+        assertThat(budget.tryAcquire("acme")).isNotNull();
+
+        assertThat(budget.tryAcquire("acme")).isNull();
+        assertThat(budget.tryAcquire("other")).isNotNull();
+
+        first.release();
+        assertThat(budget.tryAcquire("acme")).isNotNull();
+    }
+
+    @Test
+    void dropsOnlyIdleTenantsWhenTooManyAreTracked() {
+        TenantConnectionBudget budget = new TenantConnectionBudget(1, 2);
+        budget.tryAcquire("busy");
+        budget.tryAcquire("idle").release();
+
+        budget.tryAcquire("new");
+
+        assertThat(budget.getTrackedTenants()).isEqualTo(2);
+        assertThat(budget.tryAcquire("busy")).as("eviction must not reset a busy tenant").isNull();
+    }
+
+    /**
+     * The tenant is evicted between looking up its semaphore and taking a
+     * permit from it; the stale semaphore must not hand out a permit next
+     * to the tenant's new one
+     */
+    @Test
+    void evictionBetweenLookupAndAcquireDoesNotDoubleTheBudget() {
+        AtomicBoolean raced = new AtomicBoolean();
+        AtomicReference<TenantConnectionBudget> budget = new AtomicReference<>();
+        ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<>() {
+            @Override
+            public Semaphore get(Object key) {
+                Semaphore semaphore = super.get(key);
+                if ("acme".equals(key) && semaphore != null && raced.compareAndSet(false, true)) {
+                    // Another request, for a new tenant, sweeps the idle ones
+                    budget.get().tryAcquire("other");
+                }
+                return semaphore;
+            }
+        };
+        budget.set(new TenantConnectionBudget(1, 1, permits));
+        budget.get().tryAcquire("acme").release();
+
+        Semaphore first = budget.get().tryAcquire("acme");
+        Semaphore second = budget.get().tryAcquire("acme");
+
+        assertThat(raced).isTrue();
+        assertThat(first).isNotNull();
+        assertThat(second).isNull();
+    }
+}
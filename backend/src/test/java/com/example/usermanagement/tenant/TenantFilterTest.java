@@ -0,0 +1,71 @@
+package com.example.usermanagement.tenant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tenant budgets of the tenant filter, and the clients left out of them
+ */
+class TenantFilterTest {
+
+    private static final String EXEMPT_KEY = "struts-key";
+
+    private TenantFilter filter;
+    private final List<String> tenants = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void createFilter() {
+        TenantProperties properties = new TenantProperties();
+        properties.setRequestsPerSecond(0.01);
+        properties.setBurst(1);
+        filter = new TenantFilter(properties, "X-API-Key", Set.of(EXEMPT_KEY), new SimpleMeterRegistry());
+    }
+
+    private int send(String clientKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        if (clientKey != null) {
+            request.addHeader("X-API-Key", clientKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet application = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                tenants.add(TenantContext.current());
+            }
+        };
+        new MockFilterChain(application, filter).doFilter(request, response);
+        return response.getStatus();
+    }
+
+    @Test
+    void tenantRateIsSharedByItsClients() throws Exception {
+        assertThat(send(null)).isEqualTo(200);
+
+        assertThat(send(null)).isEqualTo(429);
+        assertThat(send("other-key")).isEqualTo(429);
+    }
+
+    @Test
+    void exemptClientsAreNotCountedAgainstTheTenant() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send(EXEMPT_KEY)).isEqualTo(200);
+        }
+        // The tenant's own budget is untouched
+        assertThat(send(null)).isEqualTo(200);
+
+        assertThat(tenants).hasSize(11).containsOnly(TenantContext.DEFAULT_TENANT);
+    }
+}
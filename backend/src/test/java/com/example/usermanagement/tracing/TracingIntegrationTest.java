@@ -0,0 +1,141 @@
+package com.example.usermanagement.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Spans of an update, sampled through the traceparent header only; nothing
+ * is sampled by probability. The second-level cache is off so the lookup
+ * reaches the database. Boot switches tracing off in tests unless asked.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.tracing.sampling.probability=0.0",
+        "app.cache.enabled=false"})
+class TracingIntegrationTest {
+
+    private static final String TENANT = "tracing";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RecentSpans recentSpans;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private static String randomHex(int length) {
+        StringBuilder hex = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            hex.append(Character.forDigit(ThreadLocalRandom.current().nextInt(16), 16));
+        }
+        return hex.toString();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String traceparent)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .header("X-Tenant-Id", TENANT)
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+        if (traceparent != null) {
+            request.header("traceparent", traceparent);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Spans are exported by Boot's batch processor on its own schedule; waits
+     * for the server span, which ends last
+     */
+    private Map<String, SpanRecord> awaitTrace(String traceId, String parentSpanId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<SpanRecord> spans = recentSpans.find(traceId);
+            if (spans.stream().anyMatch(span -> parentSpanId.equals(span.parentSpanId()))) {
+                return spans.stream().collect(Collectors.toMap(SpanRecord::spanId, Function.identity()));
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Trace " + traceId + " was not exported");
+    }
+
+    private static SpanRecord named(Map<String, SpanRecord> spans, String name) {
+        return spans.values().stream().filter(span -> span.name().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in " + spans.values()));
+    }
+
+    @Test
+    void sampledRequestsGetNestedApplicationSpans() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/users",
+                "{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann@example.com\"}", null);
+        assertThat(created.statusCode()).isEqualTo(201);
+        String id = created.body().replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        String unsampledTraceId = randomHex(32);
+        send("GET", "/api/users/" + id, "", "00-" + unsampledTraceId + "-" + randomHex(16) + "-00");
+
+        String traceId = randomHex(32);
+        String clientSpanId = randomHex(16);
+        HttpResponse<String> updated = send("PUT", "/api/users/" + id,
+                "{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann@example.com\",\"phone\":\"555-0101\"}",
+                "00-" + traceId + "-" + clientSpanId + "-01");
+        assertThat(updated.statusCode()).isEqualTo(200);
+
+        Map<String, SpanRecord> spans = awaitTrace(traceId, clientSpanId);
+        SpanRecord server = spans.values().stream()
+                .filter(span -> clientSpanId.equals(span.parentSpanId())).findFirst().orElseThrow();
+        SpanRecord controller = named(spans, "UserController.updateUser");
+        SpanRecord service = named(spans, "JpaUserService.updateUser");
+        SpanRecord findById = named(spans, "UserRepository.findById");
+
+        assertThat(controller.parentSpanId()).isEqualTo(server.spanId());
+        assertThat(named(spans, "deserialize UpdateUserRequest").parentSpanId()).isEqualTo(server.spanId());
+        assertThat(named(spans, "validate UpdateUserRequest").parentSpanId()).isEqualTo(server.spanId());
+        assertThat(named(spans, "serialize UserDTO").parentSpanId()).isEqualTo(server.spanId());
+        assertThat(service.parentSpanId()).isEqualTo(controller.spanId());
+        assertThat(findById.parentSpanId()).isEqualTo(service.spanId());
+        assertThat(findById.attributes()).containsEntry("code.namespace",
+                "com.example.usermanagement.repository.UserRepository");
+
+        assertThat(spans.values()).filteredOn(span -> findById.spanId().equals(span.parentSpanId()))
+                .singleElement().satisfies(select -> {
+                    assertThat(select.name()).isEqualTo("jdbc select");
+                    assertThat(select.attributes()).containsEntry("db.system", "h2")
+                            .containsEntry("db.operation", "SELECT").containsKey("db.statement");
+                });
+        // Flushed by the commit, which the service span covers
+        assertThat(named(spans, "jdbc update").parentSpanId()).isEqualTo(service.spanId());
+
+        // Exported before the sampled trace, had it been recorded at all
+        assertThat(recentSpans.find(unsampledTraceId)).isEmpty();
+    }
+
+    @Test
+    void failedStatementsMarkTheirSpansAsErrors() throws Exception {
+        String traceId = randomHex(32);
+        String clientSpanId = randomHex(16);
+        HttpResponse<String> missing = send("DELETE", "/api/users/999999", "",
+                "00-" + traceId + "-" + clientSpanId + "-01");
+        assertThat(missing.statusCode()).isEqualTo(404);
+
+        Map<String, SpanRecord> spans = awaitTrace(traceId, clientSpanId);
+        assertThat(named(spans, "JpaUserService.deleteUser").status()).isEqualTo("ERROR");
+        assertThat(named(spans, "UserController.deleteUser").status()).isEqualTo("ERROR");
+    }
+}
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import userService from '../services/userService';
-import type { CreateUserRequest, UpdateUserRequest, ValidationError } from '../types/User';
+import type { CreateUserRequest, UpdateUserRequest, ValidationError, ErrorResponse } from '../types/User';
 import axios from 'axios';
 
 interface UserFormProps {
@@ -112,14 +112,14 @@ function UserForm({ userId, onSuccess, onCancel }: UserFormProps) {
       }
     } catch (err) {
       if (axios.isAxiosError(err) && err.response) {
-        const responseData = err.response.data as ValidationError | { message: string };
+        const responseData = err.response.data as ValidationError | ErrorResponse;
         
         if ('errors' in responseData) {
           // Validation errors from backend
           setErrors(responseData.errors);
-        } else if ('message' in responseData) {
+        } else if ('detail' in responseData) {
           // General error (e.g., duplicate email)
-          setGeneralError(responseData.message);
+          setGeneralError(responseData.detail);
         }
       } else {
         setGeneralError('An unexpected error occurred. Please try again.');
@@ -27,6 +27,14 @@ const userService = {
     return response.data;
   },
 
+  /**
+   * Get several users by ID in one request; unknown IDs are left out
+   */
+  getUsersByIds: async (ids: number[]): Promise<User[]> => {
+    const response = await apiClient.get<User[]>('/users', { params: { ids: ids.join(',') } });
+    return response.data;
+  },
+
   /**
    * Create a new user
    */
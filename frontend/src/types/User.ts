@@ -21,15 +21,18 @@ export interface UpdateUserRequest {
 }
 
 export interface ValidationError {
-  timestamp: string;
+  type: string;
+  title: string;
   status: number;
-  error: string;
+  detail: string;
+  timestamp: string;
   errors: Record<string, string>;
 }
 
 export interface ErrorResponse {
-  timestamp: string;
+  type: string;
+  title: string;
   status: number;
-  error: string;
-  message: string;
+  detail: string;
+  timestamp: string;
 }
@@ -0,0 +1,81 @@
+package com.example.loadtest;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ids known to exist on the target, harvested from responses.
+ * Only ids created by this run are handed out for deletion so that
+ * seed data is left untouched.
+ */
+public class IdPool {
+
+    private static final Pattern JSON_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern STRUTS_ID = Pattern.compile("userId=(\\d+)");
+
+    private final ConcurrentLinkedDeque<Long> readable = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Long> owned = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId;
+
+    public IdPool(String runId) {
+        this.runId = runId;
+    }
+
+    /**
+     * Unique email for the next created user
+     */
+    public String nextEmail() {
+        return "lt-" + runId + "-" + sequence.incrementAndGet() + "@example.com";
+    }
+
+    public void addOwned(long id) {
+        owned.addLast(id);
+        readable.addLast(id);
+    }
+
+    /**
+     * Replace the readable ids with the ones found in a list response
+     */
+    public void refreshFromList(String body, boolean struts) {
+        Matcher matcher = (struts ? STRUTS_ID : JSON_ID).matcher(body);
+        ConcurrentLinkedDeque<Long> found = new ConcurrentLinkedDeque<>();
+        while (matcher.find()) {
+            found.add(Long.parseLong(matcher.group(1)));
+        }
+        if (!found.isEmpty()) {
+            readable.clear();
+            readable.addAll(found);
+        }
+    }
+
+    public static Long parseJsonId(String body) {
+        Matcher matcher = JSON_ID.matcher(body);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    /**
+     * Random readable id, or null if none is known yet
+     */
+    public Long randomReadable() {
+        Object[] ids = readable.toArray();
+        if (ids.length == 0) {
+            return null;
+        }
+        return (Long) ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    /**
+     * Oldest id created by this run, or null if none is left
+     */
+    public Long takeOwned() {
+        Long id = owned.pollFirst();
+        if (id != null) {
+            readable.remove(id);
+        }
+        return id;
+    }
+}
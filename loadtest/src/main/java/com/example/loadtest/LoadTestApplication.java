@@ -0,0 +1,56 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Entry point for the load generator.
+ * <p>
+ * Example: compare both stacks with the balanced mix at 300 requests/second
+ * <pre>
+ * java -jar target/loadtest.jar --stack=both --profile=balanced --rate=300 --duration=60s
+ * </pre>
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        OpenLoopDriver driver = new OpenLoopDriver(config);
+        List<RunResult> results = new ArrayList<>();
+        for (TargetStack stack : config.createStacks()) {
+            System.out.printf(Locale.ROOT, "Running %s: profile=%s readRatio=%.2f rate=%.0f/s duration=%ds%n",
+                    stack.getName(), config.getProfile(), config.getEffectiveReadRatio(),
+                    config.getRate(), config.getDuration().getSeconds());
+            RunResult result = driver.run(stack);
+            System.out.printf(Locale.ROOT, "  %d requests, %.1f ok/s, p99=%.2f ms%n",
+                    result.getTotalRequests(), result.getThroughput(),
+                    result.getCorrectedTotal().getValueAtPercentile(99) / 1000.0);
+            results.add(result);
+        }
+
+        new ReportWriter(config).write(results);
+        System.out.println("Report written to " + config.getOutputDir().toAbsolutePath());
+    }
+
+    private static void printUsage() {
+        System.err.println("Options:");
+        System.err.println("  --stack=struts|rest|both        target stack (default rest)");
+        System.err.println("  --struts-url=URL                default http://localhost:8080/struts-demo");
+        System.err.println("  --rest-url=URL                  default http://localhost:8080");
+        System.err.println("  --profile=read-only|read-heavy|balanced|write-heavy");
+        System.err.println("  --read-ratio=0.0..1.0           overrides the profile's read share");
+        System.err.println("  --rate=N                        arrivals per second (open loop)");
+        System.err.println("  --duration=60s --warmup=10s --timeout=5s --max-in-flight=2000");
+        System.err.println("  --out=DIR                       report directory (default target/loadtest-report)");
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options for a load test run
+ */
+public class LoadTestConfig {
+
+    private List<String> stacks = List.of("rest");
+    private String strutsUrl = "http://localhost:8080/struts-demo";
+    private String restUrl = "http://localhost:8080";
+    private ScenarioProfile profile = ScenarioProfile.READ_HEAVY;
+    private Double readRatio;
+    private double rate = 200;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofSeconds(5);
+    private int maxInFlight = 2000;
+    private Path outputDir = Paths.get("target", "loadtest-report");
+
+    /**
+     * Parse --name=value style arguments
+     * @throws IllegalArgumentException if an option is unknown or malformed
+     */
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "stack":
+                    config.stacks = "both".equals(value) ? List.of("struts", "rest") : List.of(value);
+                    break;
+                case "struts-url":
+                    config.strutsUrl = value;
+                    break;
+                case "rest-url":
+                    config.restUrl = value;
+                    break;
+                case "profile":
+                    config.profile = ScenarioProfile.fromName(value);
+                    break;
+                case "read-ratio":
+                    config.readRatio = Double.parseDouble(value);
+                    if (config.readRatio < 0 || config.readRatio > 1) {
+                        throw new IllegalArgumentException("read-ratio must be between 0 and 1");
+                    }
+                    break;
+                case "rate":
+                    config.rate = Double.parseDouble(value);
+                    if (config.rate <= 0) {
+                        throw new IllegalArgumentException("rate must be positive");
+                    }
+                    break;
+                case "duration":
+                    config.duration = parseDuration(value);
+                    break;
+                case "warmup":
+                    config.warmup = parseDuration(value);
+                    break;
+                case "timeout":
+                    config.timeout = parseDuration(value);
+                    break;
+                case "max-in-flight":
+                    config.maxInFlight = Integer.parseInt(value);
+                    break;
+                case "out":
+                    config.outputDir = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Accepts plain seconds ("30") or a unit suffix ("500ms", "30s", "2m")
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    public List<TargetStack> createStacks() {
+        List<TargetStack> result = new ArrayList<>();
+        for (String stack : stacks) {
+            switch (stack) {
+                case "struts":
+                    result.add(new StrutsStack(strutsUrl, timeout));
+                    break;
+                case "rest":
+                    result.add(new RestStack(restUrl, timeout));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown stack: " + stack);
+            }
+        }
+        return result;
+    }
+
+    public double getEffectiveReadRatio() {
+        return readRatio != null ? readRatio : profile.getReadRatio();
+    }
+
+    public ScenarioProfile getProfile() {
+        return profile;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Path getOutputDir() {
+        return outputDir;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests at a fixed arrival rate regardless of how fast the server
+ * answers. Every request has an intended send time on a fixed schedule and its
+ * latency is measured from that time, which corrects for coordinated omission.
+ * <p>
+ * At most {@code maxInFlight} requests are outstanding; later ones wait in a
+ * backlog for a free slot and their wait counts towards their latency. Those
+ * still waiting or unanswered when the run ends are recorded as dropped, with
+ * the time they took so far.
+ */
+public class OpenLoopDriver {
+
+    private final LoadTestConfig config;
+
+    public OpenLoopDriver(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public RunResult run(TargetStack stack) throws InterruptedException {
+        RunResult result = new RunResult(stack.getName());
+        IdPool ids = new IdPool(Long.toString(System.currentTimeMillis(), 36));
+        ExecutorService callbacks = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .executor(callbacks)
+                .connectTimeout(config.getTimeout())
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        Sender sender = new Sender(client, stack, ids, result, config.getMaxInFlight());
+        double readRatio = config.getEffectiveReadRatio();
+
+        try {
+            // Prime the id pool so the first reads have something to fetch
+            prime(client, stack, ids);
+
+            long intervalNanos = (long) (1_000_000_000L / config.getRate());
+            long start = System.nanoTime();
+            long measureFrom = start + config.getWarmup().toNanos();
+            long end = measureFrom + config.getDuration().toNanos();
+
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                waitUntil(intended);
+
+                Operation operation = config.getProfile().next(readRatio);
+                HttpRequest request = stack.build(operation, ids);
+                if (request == null) {
+                    operation = Operation.LIST;
+                    request = stack.build(operation, ids);
+                }
+                sender.submit(new Pending(operation, request, intended, intended >= measureFrom));
+            }
+
+            // Let the backlog and outstanding requests finish so they are counted
+            long deadline = System.nanoTime() + config.getTimeout().toNanos() * 2;
+            while (!sender.isIdle() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            sender.dropUnfinished();
+            result.finish(end - measureFrom);
+        } finally {
+            callbacks.shutdownNow();
+        }
+        return result;
+    }
+
+    private void prime(HttpClient client, TargetStack stack, IdPool ids) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(
+                    stack.build(Operation.LIST, ids), HttpResponse.BodyHandlers.ofString());
+            stack.onResponse(Operation.LIST, response, ids);
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException("Target " + stack.getName() + " is not reachable", e);
+        }
+    }
+
+    /**
+     * A request due to be sent at {@code intended}, recorded exactly once:
+     * when answered, or as dropped when the run ends first
+     */
+    private static final class Pending {
+
+        final Operation operation;
+        final HttpRequest request;
+        final long intended;
+        final boolean measured;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Pending(Operation operation, HttpRequest request, long intended, boolean measured) {
+            this.operation = operation;
+            this.request = request;
+            this.intended = intended;
+            this.measured = measured;
+        }
+
+        boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Sends requests while fewer than maxInFlight are outstanding and keeps
+     * the rest in a backlog, sent in arrival order as responses come in
+     */
+    private static final class Sender {
+
+        private final HttpClient client;
+        private final TargetStack stack;
+        private final IdPool ids;
+        private final RunResult result;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final Queue<Pending> backlog = new ConcurrentLinkedQueue<>();
+        private final Set<Pending> sent = ConcurrentHashMap.newKeySet();
+
+        Sender(HttpClient client, TargetStack stack, IdPool ids, RunResult result, int maxInFlight) {
+            this.client = client;
+            this.stack = stack;
+            this.ids = ids;
+            this.result = result;
+            this.maxInFlight = maxInFlight;
+            this.inFlight = new Semaphore(maxInFlight);
+        }
+
+        void submit(Pending pending) {
+            if (backlog.isEmpty() && inFlight.tryAcquire()) {
+                send(pending);
+                return;
+            }
+            if (pending.measured) {
+                result.get(pending.operation).queue();
+            }
+            backlog.add(pending);
+            // A slot may have been freed before the request was queued
+            sendBacklog();
+        }
+
+        private void sendBacklog() {
+            while (!backlog.isEmpty() && inFlight.tryAcquire()) {
+                Pending next = backlog.poll();
+                if (next == null) {
+                    inFlight.release();
+                    return;
+                }
+                send(next);
+            }
+        }
+
+        private void send(Pending pending) {
+            sent.add(pending);
+            long sentAt = System.nanoTime();
+            client.sendAsync(pending.request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long now = System.nanoTime();
+                        boolean success = error == null && stack.onResponse(pending.operation, response, ids);
+                        if (pending.finish() && pending.measured) {
+                            result.get(pending.operation).record(now - pending.intended, now - sentAt, success);
+                        }
+                        sent.remove(pending);
+                        // Released once recorded, so an idle sender has nothing left to count
+                        inFlight.release();
+                        sendBacklog();
+                    });
+        }
+
+        boolean isIdle() {
+            return backlog.isEmpty() && inFlight.availablePermits() == maxInFlight;
+        }
+
+        /**
+         * Records what is still queued or unanswered as dropped; answers
+         * arriving later are ignored
+         */
+        void dropUnfinished() {
+            long now = System.nanoTime();
+            Pending pending;
+            while ((pending = backlog.poll()) != null) {
+                drop(pending, now);
+            }
+            for (Pending outstanding : sent) {
+                drop(outstanding, now);
+            }
+        }
+
+        private void drop(Pending pending, long now) {
+            if (pending.finish() && pending.measured) {
+                result.get(pending.operation).drop(now - pending.intended);
+            }
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.loadtest;
+
+/**
+ * Kinds of request issued by the load generator
+ */
+public enum Operation {
+    LIST(false),
+    GET(false),
+    CREATE(true),
+    DELETE(true);
+
+    private final boolean write;
+
+    Operation(boolean write) {
+        this.write = write;
+    }
+
+    public boolean isWrite() {
+        return write;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one operation type.
+ * <p>
+ * Two histograms are kept: the corrected one measures from the moment the
+ * request was scheduled to be sent, so queueing behind a stalled server is
+ * counted (no coordinated omission); the service one measures from the
+ * moment it was actually sent.
+ */
+public class OperationStats {
+
+    /** Values are recorded in microseconds, up to one hour */
+    private static final long HIGHEST_TRACKABLE_MICROS = 3_600_000_000L;
+
+    private final Recorder corrected = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder service = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+
+    private Histogram correctedResult;
+    private Histogram serviceResult;
+
+    public void record(long correctedNanos, long serviceNanos, boolean success) {
+        corrected.recordValue(clamp(correctedNanos / 1000));
+        service.recordValue(clamp(serviceNanos / 1000));
+        if (success) {
+            successes.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Count a request that had to wait for one of the in-flight slots; its
+     * latency is recorded once it completes
+     */
+    public void queue() {
+        queued.increment();
+    }
+
+    /**
+     * Count a request that was still waiting for a slot, or for its answer,
+     * when the run ended, charging the time it took so far as its latency
+     */
+    public void drop(long correctedNanos) {
+        corrected.recordValue(clamp(correctedNanos / 1000));
+        dropped.increment();
+    }
+
+    /**
+     * Freeze the histograms once the run is over
+     */
+    public void finish() {
+        correctedResult = corrected.getIntervalHistogram();
+        serviceResult = service.getIntervalHistogram();
+    }
+
+    public Histogram getCorrected() {
+        return correctedResult;
+    }
+
+    public Histogram getService() {
+        return serviceResult;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    public long getTotal() {
+        return getSuccesses() + getErrors() + getDropped();
+    }
+
+    private static long clamp(long micros) {
+        return Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+}
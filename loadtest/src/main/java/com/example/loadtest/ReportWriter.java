@@ -0,0 +1,168 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes report.json, report.html and one .hgrm percentile file per stack
+ */
+public class ReportWriter {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestConfig config;
+
+    public ReportWriter(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void write(List<RunResult> results) throws IOException {
+        Path dir = config.getOutputDir();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("report.json"), toJson(results));
+        Files.writeString(dir.resolve("report.html"), toHtml(results));
+        for (RunResult result : results) {
+            try (PrintStream out = new PrintStream(
+                    new FileOutputStream(dir.resolve(result.getStack() + ".hgrm").toFile()),
+                    false, StandardCharsets.UTF_8)) {
+                // Values are in microseconds; scale the output to milliseconds
+                result.getCorrectedTotal().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    String toJson(List<RunResult> results) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"profile\": \"").append(config.getProfile()).append("\",\n");
+        json.append("  \"readRatio\": ").append(format(config.getEffectiveReadRatio())).append(",\n");
+        json.append("  \"targetRate\": ").append(format(config.getRate())).append(",\n");
+        json.append("  \"durationSeconds\": ").append(config.getDuration().getSeconds()).append(",\n");
+        json.append("  \"stacks\": [");
+        for (int i = 0; i < results.size(); i++) {
+            RunResult result = results.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\n      \"stack\": \"").append(result.getStack()).append("\",\n");
+            json.append("      \"requests\": ").append(result.getTotalRequests()).append(",\n");
+            json.append("      \"throughput\": ").append(format(result.getThroughput())).append(",\n");
+            json.append("      \"latencyMs\": ").append(latencyJson(result.getCorrectedTotal())).append(",\n");
+            json.append("      \"operations\": {");
+            boolean first = true;
+            for (Map.Entry<Operation, OperationStats> entry : result.getStats().entrySet()) {
+                OperationStats stats = entry.getValue();
+                if (stats.getTotal() == 0) {
+                    continue;
+                }
+                json.append(first ? "\n" : ",\n");
+                first = false;
+                json.append("        \"").append(entry.getKey()).append("\": {")
+                        .append("\"successes\": ").append(stats.getSuccesses())
+                        .append(", \"errors\": ").append(stats.getErrors())
+                        .append(", \"dropped\": ").append(stats.getDropped())
+                        .append(", \"queued\": ").append(stats.getQueued())
+                        .append(", \"latencyMs\": ").append(latencyJson(stats.getCorrected()))
+                        .append(", \"serviceTimeMs\": ").append(latencyJson(stats.getService()))
+                        .append("}");
+            }
+            json.append("\n      }\n    }");
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    String toHtml(List<RunResult> results) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n")
+                .append("<title>Load test report</title>\n")
+                .append("<style>body{font-family:sans-serif;margin:20px}")
+                .append("table{border-collapse:collapse;margin-bottom:24px}")
+                .append("th,td{border:1px solid #ccc;padding:4px 10px;text-align:right}")
+                .append("th:first-child,td:first-child{text-align:left}</style>\n")
+                .append("</head>\n<body>\n<h1>Load test report</h1>\n<p>Profile ")
+                .append(config.getProfile()).append(", read ratio ")
+                .append(format(config.getEffectiveReadRatio())).append(", target rate ")
+                .append(format(config.getRate())).append(" req/s, ")
+                .append(config.getDuration().getSeconds()).append(" s measured after ")
+                .append(config.getWarmup().getSeconds()).append(" s warmup.</p>\n")
+                .append("<p>Latency is measured from the intended send time (corrected for ")
+                .append("coordinated omission); service time from the actual send.</p>\n");
+
+        html.append("<h2>Summary</h2>\n<table>\n<tr><th>Stack</th><th>Requests</th><th>Throughput</th>");
+        appendPercentileHeaders(html);
+        html.append("</tr>\n");
+        for (RunResult result : results) {
+            html.append("<tr><td>").append(result.getStack()).append("</td><td>")
+                    .append(result.getTotalRequests()).append("</td><td>")
+                    .append(format(result.getThroughput())).append("</td>");
+            appendPercentiles(html, result.getCorrectedTotal());
+            html.append("</tr>\n");
+        }
+        html.append("</table>\n");
+
+        for (RunResult result : results) {
+            html.append("<h2>").append(result.getStack()).append("</h2>\n<table>\n")
+                    .append("<tr><th>Operation</th><th>OK</th><th>Errors</th><th>Dropped</th><th>Queued</th>");
+            appendPercentileHeaders(html);
+            html.append("<th>Service p99 (ms)</th></tr>\n");
+            for (Map.Entry<Operation, OperationStats> entry : result.getStats().entrySet()) {
+                OperationStats stats = entry.getValue();
+                if (stats.getTotal() == 0) {
+                    continue;
+                }
+                html.append("<tr><td>").append(entry.getKey()).append("</td><td>")
+                        .append(stats.getSuccesses()).append("</td><td>")
+                        .append(stats.getErrors()).append("</td><td>")
+                        .append(stats.getDropped()).append("</td><td>")
+                        .append(stats.getQueued()).append("</td>");
+                appendPercentiles(html, stats.getCorrected());
+                html.append("<td>").append(millis(stats.getService().getValueAtPercentile(99)))
+                        .append("</td></tr>\n");
+            }
+            html.append("</table>\n");
+        }
+        html.append("</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static String latencyJson(Histogram histogram) {
+        StringBuilder json = new StringBuilder("{");
+        for (double percentile : PERCENTILES) {
+            json.append("\"p").append(format(percentile).replace('.', '_')).append("\": ")
+                    .append(millis(histogram.getValueAtPercentile(percentile))).append(", ");
+        }
+        json.append("\"max\": ").append(millis(histogram.getMaxValue()));
+        json.append(", \"mean\": ").append(format(histogram.getMean() / 1000.0)).append("}");
+        return json.toString();
+    }
+
+    private static void appendPercentileHeaders(StringBuilder html) {
+        for (double percentile : PERCENTILES) {
+            html.append("<th>p").append(format(percentile)).append(" (ms)</th>");
+        }
+        html.append("<th>max (ms)</th>");
+    }
+
+    private static void appendPercentiles(StringBuilder html, Histogram histogram) {
+        for (double percentile : PERCENTILES) {
+            html.append("<td>").append(millis(histogram.getValueAtPercentile(percentile))).append("</td>");
+        }
+        html.append("<td>").append(millis(histogram.getMaxValue())).append("</td>");
+    }
+
+    private static String millis(long micros) {
+        return format(micros / 1000.0);
+    }
+
+    private static String format(double value) {
+        String text = String.format(Locale.ROOT, "%.3f", value);
+        return text.replaceAll("\\.?0+$", "");
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Spring Boot REST routes served by UserController
+ */
+public class RestStack implements TargetStack {
+
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public RestStack(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getName() {
+        return "rest";
+    }
+
+    @Override
+    public HttpRequest build(Operation operation, IdPool ids) {
+        switch (operation) {
+            case LIST:
+                return request("/api/users").GET().build();
+            case GET: {
+                Long id = ids.randomReadable();
+                return id == null ? null : request("/api/users/" + id).GET().build();
+            }
+            case CREATE: {
+                String body = "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\""
+                        + ids.nextEmail() + "\",\"phone\":\"555-0000\"}";
+                return request("/api/users")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case DELETE: {
+                Long id = ids.takeOwned();
+                return id == null ? null : request("/api/users/" + id).DELETE().build();
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    @Override
+    public boolean onResponse(Operation operation, HttpResponse<String> response, IdPool ids) {
+        int status = response.statusCode();
+        if (operation == Operation.LIST && status == 200) {
+            ids.refreshFromList(response.body(), false);
+        } else if (operation == Operation.CREATE && status == 201) {
+            Long id = IdPool.parseJsonId(response.body());
+            if (id != null) {
+                ids.addOwned(id);
+            }
+        }
+        return status >= 200 && status < 300;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outcome of driving one stack through a scenario
+ */
+public class RunResult {
+
+    private final String stack;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private long measuredNanos;
+
+    public RunResult(String stack) {
+        this.stack = stack;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public OperationStats get(Operation operation) {
+        return stats.get(operation);
+    }
+
+    public void finish(long measuredNanos) {
+        this.measuredNanos = measuredNanos;
+        stats.values().forEach(OperationStats::finish);
+    }
+
+    /**
+     * Corrected latency across all operations
+     */
+    public Histogram getCorrectedTotal() {
+        Histogram total = new Histogram(3);
+        stats.values().forEach(s -> total.add(s.getCorrected()));
+        return total;
+    }
+
+    public long getTotalRequests() {
+        return stats.values().stream().mapToLong(OperationStats::getTotal).sum();
+    }
+
+    public double getThroughput() {
+        long successes = stats.values().stream().mapToLong(OperationStats::getSuccesses).sum();
+        return measuredNanos == 0 ? 0 : successes / (measuredNanos / 1e9);
+    }
+
+    public String getStack() {
+        return stack;
+    }
+
+    public Map<Operation, OperationStats> getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Predefined traffic mixes. The read share is split between list and
+ * single-user reads, the write share between creates and deletes.
+ */
+public enum ScenarioProfile {
+    READ_ONLY(1.0, 0.2),
+    READ_HEAVY(0.95, 0.2),
+    BALANCED(0.7, 0.3),
+    WRITE_HEAVY(0.3, 0.5);
+
+    private final double readRatio;
+    private final double listShareOfReads;
+
+    ScenarioProfile(double readRatio, double listShareOfReads) {
+        this.readRatio = readRatio;
+        this.listShareOfReads = listShareOfReads;
+    }
+
+    public double getReadRatio() {
+        return readRatio;
+    }
+
+    public double getListShareOfReads() {
+        return listShareOfReads;
+    }
+
+    /**
+     * Pick the next operation for the given read ratio
+     */
+    public Operation next(double readRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < readRatio) {
+            return random.nextDouble() < listShareOfReads ? Operation.LIST : Operation.GET;
+        }
+        // Slightly more creates than deletes so the id pool never drains
+        return random.nextDouble() < 0.6 ? Operation.CREATE : Operation.DELETE;
+    }
+
+    public static ScenarioProfile fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
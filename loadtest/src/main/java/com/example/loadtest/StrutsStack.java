@@ -0,0 +1,113 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Struts actions mapped in struts.xml. Single-user reads use editUser.action,
+ * which loads one user by id. saveUser.action answers with a redirect and no
+ * id, so created users are matched up by email on the next list page.
+ */
+public class StrutsStack implements TargetStack {
+
+    private static final Pattern ROW = Pattern.compile(
+            "userId=(\\d+)[^<]*</a>|<td>([^<]+@[^<]+)</td>");
+
+    /** Rendered by the header's s:actionerror tag when an action reports an error */
+    private static final String ACTION_ERROR = "class=\"errorMessage\"";
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ConcurrentMap<String, Boolean> pendingEmails = new ConcurrentHashMap<>();
+
+    public StrutsStack(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getName() {
+        return "struts";
+    }
+
+    @Override
+    public HttpRequest build(Operation operation, IdPool ids) {
+        switch (operation) {
+            case LIST:
+                return request("/userList.action").GET().build();
+            case GET: {
+                Long id = ids.randomReadable();
+                return id == null ? null : request("/editUser.action?userId=" + id).GET().build();
+            }
+            case CREATE: {
+                String email = ids.nextEmail();
+                pendingEmails.put(email, Boolean.TRUE);
+                String form = "user.firstName=Load&user.lastName=Test&user.email="
+                        + URLEncoder.encode(email, StandardCharsets.UTF_8) + "&user.phone=555-0000";
+                return request("/saveUser.action")
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build();
+            }
+            case DELETE: {
+                Long id = ids.takeOwned();
+                return id == null ? null : request("/deleteUser.action?userId=" + id).GET().build();
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    @Override
+    public boolean onResponse(Operation operation, HttpResponse<String> response, IdPool ids) {
+        int status = response.statusCode();
+        if (operation.isWrite()) {
+            // Successful save and delete answer with a redirect to userList; a 200
+            // is the form again, showing validation errors (the INPUT result)
+            return status >= 300 && status < 400;
+        }
+        if (status != 200 || response.body().contains(ACTION_ERROR)) {
+            return false;
+        }
+        if (operation == Operation.LIST) {
+            String body = response.body();
+            ids.refreshFromList(body, true);
+            claimCreatedIds(body, ids);
+        }
+        return true;
+    }
+
+    /**
+     * Walk the table rows and take ownership of users this run created
+     */
+    private void claimCreatedIds(String body, IdPool ids) {
+        if (pendingEmails.isEmpty()) {
+            return;
+        }
+        Matcher matcher = ROW.matcher(body);
+        String lastEmail = null;
+        while (matcher.find()) {
+            if (matcher.group(2) != null) {
+                lastEmail = matcher.group(2).trim();
+            } else if (lastEmail != null) {
+                // First link after the email cell carries the row's id
+                if (pendingEmails.remove(lastEmail) != null) {
+                    ids.addOwned(Long.parseLong(matcher.group(1)));
+                }
+                lastEmail = null;
+            }
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Translates abstract operations into HTTP requests for one of the two stacks
+ */
+public interface TargetStack {
+
+    String getName();
+
+    /**
+     * Build the request for an operation, or return null if it cannot be
+     * issued right now (for example a delete with no owned ids left)
+     */
+    HttpRequest build(Operation operation, IdPool ids);
+
+    /**
+     * Inspect a completed response, harvesting ids and deciding success
+     * @return true if the response counts as a success
+     */
+    boolean onResponse(Operation operation, HttpResponse<String> response, IdPool ids);
+}
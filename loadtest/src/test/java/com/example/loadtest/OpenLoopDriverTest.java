@@ -0,0 +1,110 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a stub of the REST routes that answers one request at a time,
+ * with single-user reads taking {@link #GET_MILLIS} each
+ */
+class OpenLoopDriverTest {
+
+    private static final long GET_MILLIS = 20;
+
+    private HttpServer server;
+    private volatile long getMillis = GET_MILLIS;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/users", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/api/users")) {
+                respond(exchange, "[{\"id\":1}]");
+                return;
+            }
+            try {
+                Thread.sleep(getMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"id\":1}");
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private RunResult run(String... options) throws InterruptedException {
+        String[] args = new String[options.length + 4];
+        args[0] = "--rest-url=http://localhost:" + server.getAddress().getPort();
+        args[1] = "--profile=read-only";
+        args[2] = "--warmup=0s";
+        args[3] = "--duration=1s";
+        System.arraycopy(options, 0, args, 4, options.length);
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        return new OpenLoopDriver(config).run(config.createStacks().get(0));
+    }
+
+    private static long count(RunResult result, ToLongFunction<OperationStats> counter) {
+        return result.getStats().values().stream().mapToLong(counter).sum();
+    }
+
+    @Test
+    void requestsBeyondMaxInFlightWaitAndAreChargedTheirWait() throws InterruptedException {
+        // 100 arrivals in the second, but a slow read holds the only slot for 20 ms
+        RunResult result = run("--rate=100", "--max-in-flight=1", "--timeout=5s");
+
+        assertEquals(100, result.getTotalRequests());
+        assertEquals(100, count(result, OperationStats::getSuccesses));
+        assertEquals(0, count(result, OperationStats::getDropped));
+        assertTrue(count(result, OperationStats::getQueued) > 0, "Some arrivals should have waited for the slot");
+        assertEquals(100, result.getCorrectedTotal().getTotalCount());
+
+        long correctedMaxMillis = result.getCorrectedTotal().getMaxValue() / 1000;
+        long serviceMaxMillis = result.get(Operation.GET).getService().getMaxValue() / 1000;
+        assertTrue(correctedMaxMillis > 300,
+                "Waiting for a slot should count towards latency, max was " + correctedMaxMillis + " ms");
+        assertTrue(serviceMaxMillis < correctedMaxMillis / 2,
+                "Service time should not include the wait, max was " + serviceMaxMillis + " ms");
+    }
+
+    @Test
+    void requestsStillWaitingAtTheEndAreDroppedWithTheirWait() throws InterruptedException {
+        // Reads now outlast the timeout, and the run waits at most 2 x 500 ms for the backlog
+        getMillis = 2000;
+        RunResult result = run("--rate=20", "--max-in-flight=1", "--timeout=500ms");
+
+        long dropped = count(result, OperationStats::getDropped);
+        assertTrue(dropped > 0, "Reads still waiting at the end should be dropped");
+        assertEquals(20, result.getTotalRequests());
+        assertEquals(20, result.getCorrectedTotal().getTotalCount(), "Dropped arrivals should still be recorded");
+        assertTrue(result.getCorrectedTotal().getMaxValue() / 1000 >= 1000,
+                "Arrivals of the one-second run waited until it ended");
+    }
+}
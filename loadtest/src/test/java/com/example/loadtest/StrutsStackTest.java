@@ -0,0 +1,106 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StrutsStackTest {
+
+    private final StrutsStack stack = new StrutsStack("http://localhost/struts-demo", Duration.ofSeconds(1));
+    private final IdPool ids = new IdPool("test");
+
+    private static HttpResponse<String> response(int status, String body) {
+        return new HttpResponse<>() {
+            @Override
+            public int statusCode() {
+                return status;
+            }
+
+            @Override
+            public HttpRequest request() {
+                return HttpRequest.newBuilder(URI.create("http://localhost/struts-demo")).build();
+            }
+
+            @Override
+            public Optional<HttpResponse<String>> previousResponse() {
+                return Optional.empty();
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(Map.of(), (name, value) -> true);
+            }
+
+            @Override
+            public String body() {
+                return body;
+            }
+
+            @Override
+            public Optional<SSLSession> sslSession() {
+                return Optional.empty();
+            }
+
+            @Override
+            public URI uri() {
+                return request().uri();
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+
+    @Test
+    void savesAndDeletesSucceedOnlyByRedirecting() {
+        assertTrue(stack.onResponse(Operation.CREATE, response(302, ""), ids));
+        assertTrue(stack.onResponse(Operation.DELETE, response(302, ""), ids));
+        // The INPUT result: the form again, with the validation errors
+        assertFalse(stack.onResponse(Operation.CREATE,
+                response(200, "<form><ul class=\"errorMessage\"><li>Email is required</li></ul></form>"), ids));
+        assertFalse(stack.onResponse(Operation.CREATE, response(500, ""), ids));
+    }
+
+    @Test
+    void pagesShowingAnActionErrorAreErrors() {
+        assertFalse(stack.onResponse(Operation.GET,
+                response(200, "<ul class=\"errorMessage\"><li>User not found with ID: 7</li></ul>"), ids));
+        assertFalse(stack.onResponse(Operation.GET, response(404, ""), ids));
+        assertTrue(stack.onResponse(Operation.GET, response(200, "<form>Edit User</form>"), ids));
+    }
+
+    @Test
+    void listPagesHandOutTheirIds() {
+        String page = "<table><tr><td>Ann</td><td>ann@example.com</td>"
+                + "<td><a href=\"editUser.action?userId=4\">Edit</a></td></tr></table>";
+
+        assertTrue(stack.onResponse(Operation.LIST, response(200, page), ids));
+        assertEquals(Long.valueOf(4), ids.randomReadable());
+    }
+
+    @Test
+    void listPagesClaimTheUsersThisRunCreated() {
+        stack.build(Operation.CREATE, ids);
+        String email = "lt-test-1@example.com";
+        String page = "<table><tr><td>Load</td><td>" + email + "</td>"
+                + "<td><a href=\"editUser.action?userId=9\">Edit</a></td></tr></table>";
+
+        stack.onResponse(Operation.LIST, response(200, page), ids);
+
+        assertEquals(Long.valueOf(9), ids.takeOwned());
+    }
+}
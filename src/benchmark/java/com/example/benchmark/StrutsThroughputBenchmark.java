@@ -0,0 +1,120 @@
+package com.example.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop throughput of userList.action and saveUser.action against a
+ * running instance, used to compare the default (devMode) build with the
+ * production profile:
+ * <pre>
+ *   mvn jetty:run                          # before
+ *   mvn -Pproduction jetty:run-war         # after
+ *   mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.benchmark.StrutsThroughputBenchmark \
+ *       -Dexec.args="http://localhost:8080/struts-demo 16 20"
+ * </pre>
+ * Arguments: base URL, client threads, seconds per action (a quarter of that
+ * again is spent warming up).
+ */
+public class StrutsThroughputBenchmark {
+
+    private static final AtomicLong EMAIL_SEQUENCE = new AtomicLong(System.currentTimeMillis());
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/struts-demo";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        System.setProperty("http.maxConnections", String.valueOf(threads));
+
+        Request list = () -> get(baseUrl + "/userList.action");
+        Request save = () -> post(baseUrl + "/saveUser.action", "user.firstName=Bench&user.lastName=Mark"
+                + "&user.email=bench" + EMAIL_SEQUENCE.incrementAndGet() + "%40example.com&user.phone=555-0100");
+
+        report("userList.action", run(list, threads, seconds), seconds);
+        report("saveUser.action", run(save, threads, seconds), seconds);
+    }
+
+    private static long[] run(Request request, int threads, int seconds) throws InterruptedException {
+        long warmupEnd = System.nanoTime() + seconds * 250_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    boolean ok;
+                    try {
+                        ok = request.send();
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    if (now >= warmupEnd) {
+                        (ok ? completed : errors).incrementAndGet();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return new long[] {completed.get(), errors.get()};
+    }
+
+    private static boolean get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        return finish(connection) == 200;
+    }
+
+    private static boolean post(String url, String form) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(form.getBytes(StandardCharsets.UTF_8));
+        }
+        // A successful save redirects to userList
+        return finish(connection) == 302;
+    }
+
+    /**
+     * Drains the body so the connection goes back to the keep-alive pool
+     */
+    private static int finish(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (body != null) {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = body) {
+                while (in.read(buffer) != -1) {
+                    // discard
+                }
+            }
+        }
+        return status;
+    }
+
+    private static void report(String name, long[] result, int seconds) {
+        System.out.printf("%-16s %9.1f req/s  (%d ok, %d errors)%n",
+                name, (double) result[0] / seconds, result[0], result[1]);
+    }
+
+    private interface Request {
+        boolean send() throws IOException;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.benchmark;
+
+import com.example.model.User;
+import com.example.service.UserService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of UserService under contention, 64 threads by default:
+ * <ul>
+ *   <li>getInstance(): the previous static synchronized lazy singleton
+ *       against the holder idiom</li>
+ *   <li>getUserById(): a new DriverManager connection per call, as before,
+ *       against the pooled JdbcUserStore</li>
+ * </ul>
+ * Run with: mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.benchmark.UserServiceContentionBenchmark -Dexec.args="64 5"
+ */
+public class UserServiceContentionBenchmark {
+
+    private static final String DB_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
+
+    private static Object synchronizedInstance;
+
+    /** The previous getInstance(), for comparison */
+    private static synchronized Object synchronizedGetInstance() {
+        if (synchronizedInstance == null) {
+            synchronizedInstance = new Object();
+        }
+        return synchronizedInstance;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        UserService service = UserService.getInstance();
+        service.initialize();
+        Long id = service.getAllUsers().get(0).getId();
+
+        report("getInstance, synchronized", run(threads, seconds, () -> synchronizedGetInstance()));
+        report("getInstance, holder", run(threads, seconds, UserService::getInstance));
+        report("getUserById, DriverManager", run(threads, seconds, () -> findWithDriverManager(id)));
+        report("getUserById, pooled", run(threads, seconds, () -> UserService.getInstance().getUserById(id)));
+    }
+
+    private static User findWithDriverManager(Long id) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL, "sa", "");
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM users WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new User(rs.getLong("id"), rs.getString("first_name"),
+                        rs.getString("last_name"), rs.getString("email"), rs.getString("phone")) : null;
+            }
+        }
+    }
+
+    private static double run(int threads, int seconds, Call call) throws InterruptedException {
+        LongAdder calls = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long warmupNanos = 1_000_000_000L;
+        long measureNanos = seconds * 1_000_000_000L;
+        long[] window = new long[2];
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    long warmupEnd = window[0];
+                    long end = window[1];
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        if (call.invoke() == null) {
+                            throw new IllegalStateException("null result");
+                        }
+                        if (now >= warmupEnd) {
+                            calls.increment();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            workers[i].start();
+        }
+        window[0] = System.nanoTime() + warmupNanos;
+        window[1] = window[0] + measureNanos;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return calls.sum() / (double) seconds;
+    }
+
+    private static void report(String name, double perSecond) {
+        System.out.printf("%-28s %,16.0f calls/s%n", name, perSecond);
+    }
+
+    private interface Call {
+        Object invoke() throws Exception;
+    }
+}
@@ -2,7 +2,9 @@ package com.example.action;
 
 import com.example.model.User;
 import com.example.service.UserService;
+import com.example.web.UserTableCache;
 import com.opensymphony.xwork2.ActionSupport;
+import org.apache.struts2.ServletActionContext;
 
 import java.util.List;
 
@@ -14,6 +16,7 @@ public class UserAction extends ActionSupport {
     
     private UserService userService;
     private List<User> users;
+    private UserTableCache.Fragment userTable;
     private User user;
     private Long userId;
     
@@ -23,10 +26,25 @@ public class UserAction extends ActionSupport {
     }
     
     /**
-     * List all users
+     * List all users. The rendered table rows are cached until the data changes.
      */
+    @SuppressWarnings("unchecked")
     public String list() throws Exception {
-        users = userService.getAllUsers();
+        UserTableCache cache = UserTableCache.getInstance();
+        String contextPath = ServletActionContext.getRequest().getContextPath();
+        // Already read on the async executor when running in async mode; only
+        // the synchronous path asks the backend from the container thread
+        Long prefetchedVersion = (Long) requestAttribute(UserAsyncWork.USERS_VERSION_ATTRIBUTE);
+        long version = prefetchedVersion != null ? prefetchedVersion : userService.getDataVersion();
+        userTable = cache.lookup(version, contextPath);
+        if (userTable != null) {
+            return SUCCESS;
+        }
+        
+        // Loaded along with the version unless the table was current then
+        List<User> prefetched = (List<User>) requestAttribute(UserAsyncWork.USERS_ATTRIBUTE);
+        users = prefetched != null ? prefetched : userService.getAllUsers();
+        userTable = cache.store(version, contextPath, users);
         return SUCCESS;
     }
     
@@ -133,6 +151,15 @@ public class UserAction extends ActionSupport {
         return isValid;
     }
     
+    /**
+     * Request attribute set by the async executor, or null outside a request
+     */
+    private static Object requestAttribute(String name) {
+        return ServletActionContext.getRequest() != null
+                ? ServletActionContext.getRequest().getAttribute(name)
+                : null;
+    }
+    
     /**
      * Simple email validation
      */
@@ -149,6 +176,17 @@ public class UserAction extends ActionSupport {
         this.users = users;
     }
     
+    /**
+     * Pre-rendered, HTML-escaped table rows for user-list.jsp
+     */
+    public String getUserTableHtml() {
+        return userTable != null ? userTable.getHtml() : "";
+    }
+    
+    public boolean isHasUsers() {
+        return userTable != null && userTable.getRowCount() > 0;
+    }
+    
     public User getUser() {
         return user;
     }
@@ -0,0 +1,39 @@
+package com.example.action;
+
+import com.example.service.UserService;
+import com.example.web.AsyncWork;
+import com.example.web.UserTableCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The user list query for userList, run on the async executor before the
+ * request is dispatched to {@link UserAction}. Only reads are done here:
+ * a write must go through the action and its interceptor stack, and could
+ * not be answered with a retryable 503 once committed.
+ */
+public class UserAsyncWork implements AsyncWork {
+
+    static final String USERS_ATTRIBUTE = UserAsyncWork.class.getName() + ".users";
+    static final String USERS_VERSION_ATTRIBUTE = UserAsyncWork.class.getName() + ".usersVersion";
+
+    @Override
+    public boolean handles(String servletPath) {
+        return "/userList.action".equals(servletPath);
+    }
+
+    @Override
+    public Map<String, Object> execute(String contextPath, Map<String, String[]> parameters) {
+        UserService userService = UserService.getInstance();
+        long version = userService.getDataVersion();
+        // The action uses this version rather than asking the backend again
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(USERS_VERSION_ATTRIBUTE, version);
+        // Nothing to load when the rendered table is still current
+        if (UserTableCache.getInstance().lookup(version, contextPath) == null) {
+            attributes.put(USERS_ATTRIBUTE, userService.getAllUsers());
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.service;
+
+import com.example.model.User;
+import com.example.tracing.Tracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserStore backed by the H2 in-memory database, through a connection pool
+ * so concurrent requests do not each open a new session
+ */
+class JdbcUserStore implements UserStore {
+    private static final String DB_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
+    private static final String DB_USER = "sa";
+    private static final String DB_PASSWORD = "";
+    private static final String MAX_CONNECTIONS_PROPERTY = "userService.maxConnections";
+    
+    private final JdbcConnectionPool pool;
+    
+    /** Every write goes through this store, so counting them is enough to see the data change */
+    private final AtomicLong dataVersion = new AtomicLong();
+    
+    JdbcUserStore() {
+        pool = JdbcConnectionPool.create(DB_URL, DB_USER, DB_PASSWORD);
+        pool.setMaxConnections(Integer.getInteger(MAX_CONNECTIONS_PROPERTY, 32));
+    }
+    
+    JdbcConnectionPool getPool() {
+        return pool;
+    }
+    
+    /**
+     * Initialize the H2 in-memory database and create the users table
+     */
+    void initializeDatabase() {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            
+            // Create users table
+            String createTableSQL = "CREATE TABLE IF NOT EXISTS users (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "first_name VARCHAR(50) NOT NULL, " +
+                    "last_name VARCHAR(50) NOT NULL, " +
+                    "email VARCHAR(100) NOT NULL UNIQUE, " +
+                    "phone VARCHAR(20)" +
+                    ")";
+            stmt.executeUpdate(createTableSQL);
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to initialize database", e);
+        }
+    }
+    
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT * FROM users ORDER BY id";
+        Span span = startStatement(sql);
+        
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                users.add(mapRow(rs));
+            }
+            
+        } catch (SQLException e) {
+            Tracing.recordError(span, e);
+            throw new RuntimeException("Failed to retrieve users", e);
+        } finally {
+            span.end();
+        }
+        
+        return users;
+    }
+    
+    @Override
+    public User findById(Long id) {
+        String sql = "SELECT * FROM users WHERE id = ?";
+        Span span = startStatement(sql);
+        
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setLong(1, id);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                return mapRow(rs);
+            }
+            
+        } catch (SQLException e) {
+            Tracing.recordError(span, e);
+            throw new RuntimeException("Failed to retrieve user with id: " + id, e);
+        } finally {
+            span.end();
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public void insert(User user) {
+        String sql = "INSERT INTO users (first_name, last_name, email, phone) VALUES (?, ?, ?, ?)";
+        Span span = startStatement(sql);
+        
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            stmt.setString(1, user.getFirstName());
+            stmt.setString(2, user.getLastName());
+            stmt.setString(3, user.getEmail());
+            stmt.setString(4, user.getPhone());
+            
+            stmt.executeUpdate();
+            
+            // Get the generated ID
+            ResultSet rs = stmt.getGeneratedKeys();
+            if (rs.next()) {
+                user.setId(rs.getLong(1));
+            }
+            
+        } catch (SQLException e) {
+            Tracing.recordError(span, e);
+            throw new RuntimeException("Failed to insert user", e);
+        } finally {
+            span.end();
+        }
+        dataVersion.incrementAndGet();
+    }
+    
+    @Override
+    public void update(User user) {
+        String sql = "UPDATE users SET first_name = ?, last_name = ?, email = ?, phone = ? WHERE id = ?";
+        Span span = startStatement(sql);
+        
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, user.getFirstName());
+            stmt.setString(2, user.getLastName());
+            stmt.setString(3, user.getEmail());
+            stmt.setString(4, user.getPhone());
+            stmt.setLong(5, user.getId());
+            
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            Tracing.recordError(span, e);
+            throw new RuntimeException("Failed to update user", e);
+        } finally {
+            span.end();
+        }
+        dataVersion.incrementAndGet();
+    }
+    
+    @Override
+    public void delete(Long id) {
+        String sql = "DELETE FROM users WHERE id = ?";
+        Span span = startStatement(sql);
+        
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setLong(1, id);
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            Tracing.recordError(span, e);
+            throw new RuntimeException("Failed to delete user with id: " + id, e);
+        } finally {
+            span.end();
+        }
+        dataVersion.incrementAndGet();
+    }
+    
+    @Override
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+    
+    /**
+     * Span for one statement; a non-recording one when the request is not traced
+     */
+    private static Span startStatement(String sql) {
+        if (!Tracing.sampled()) {
+            return Span.getInvalid();
+        }
+        String operation = sql.substring(0, sql.indexOf(' '));
+        return Tracing.tracer().spanBuilder("jdbc " + operation.toLowerCase(Locale.ROOT))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.system", "h2")
+                .setAttribute("db.operation", operation)
+                .setAttribute("db.statement", sql)
+                .startSpan();
+    }
+    
+    private static User mapRow(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setFirstName(rs.getString("first_name"));
+        user.setLastName(rs.getString("last_name"));
+        user.setEmail(rs.getString("email"));
+        user.setPhone(rs.getString("phone"));
+        return user;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.service;
+
+import com.example.model.User;
+import com.example.tracing.Tracing;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserStore that delegates to the Spring Boot user API (/api/users), so the
+ * Struts pages are served by the same service, connection pool and caches
+ * as the REST clients
+ */
+class RestUserStore implements UserStore {
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+    
+    /** As since=, asks the change feed for nothing but its current watermark */
+    private static final long END_OF_FEED = Long.MAX_VALUE;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final JavaType userList = mapper.getTypeFactory().constructCollectionType(List.class, User.class);
+    private final String usersUrl;
+    /** Sent as X-API-Key so the backend gives these calls the bridge's own quota; null for none */
+    private final String apiKey;
+    
+    /** Versions handed out while the change feed cannot be read; negative, so never a watermark */
+    private final AtomicLong unversioned = new AtomicLong();
+
+    RestUserStore(String baseUrl, String apiKey) {
+        this.apiKey = apiKey;
+        this.usersUrl = (baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl) + "/api/users";
+    }
+
+    @Override
+    public List<User> findAll() {
+        return mapper.convertValue(send("GET", usersUrl, null, "Failed to retrieve users"), userList);
+    }
+
+    @Override
+    public User findById(Long id) {
+        JsonNode body = send("GET", usersUrl + "/" + id, null, "Failed to retrieve user with id: " + id);
+        return body == null ? null : mapper.convertValue(body, User.class);
+    }
+
+    @Override
+    public void insert(User user) {
+        JsonNode body = send("POST", usersUrl, fields(user), "Failed to insert user");
+        user.setId(body.get("id").asLong());
+    }
+
+    @Override
+    public void update(User user) {
+        send("PUT", usersUrl + "/" + user.getId(), fields(user), "Failed to update user");
+    }
+
+    @Override
+    public void delete(Long id) {
+        send("DELETE", usersUrl + "/" + id, null, "Failed to delete user with id: " + id);
+    }
+
+    /**
+     * The backend's change feed watermark, which moves with every write to the
+     * users, whoever makes it. Without a change feed (sharded storage) every
+     * call returns a new version so that nothing derived from the users is
+     * reused. Failing to reach the backend is an error like for any other call.
+     */
+    @Override
+    public long getDataVersion() {
+        try {
+            JsonNode body = send("GET", usersUrl + "/changes?since=" + END_OF_FEED + "&limit=1", null,
+                    "Failed to read the change feed");
+            return body.get("watermark").asLong();
+        } catch (BackendException e) {
+            if (e.status != HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
+                throw e;
+            }
+            return unversioned.decrementAndGet();
+        }
+    }
+
+    private static Map<String, String> fields(User user) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("firstName", user.getFirstName());
+        fields.put("lastName", user.getLastName());
+        fields.put("email", user.getEmail());
+        fields.put("phone", user.getPhone());
+        return fields;
+    }
+
+    /**
+     * Sends one request; returns the JSON body, or null for 404 and empty
+     * responses. Other errors carry the problem detail from the API.
+     */
+    private JsonNode send(String method, String url, Object requestBody, String failure) {
+        Span span = startClientSpan(method, url);
+        try {
+            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+            conn.setRequestMethod(method);
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            conn.setReadTimeout(READ_TIMEOUT_MILLIS);
+            conn.setRequestProperty("Accept", "application/json");
+            if (apiKey != null) {
+                conn.setRequestProperty("X-API-Key", apiKey);
+            }
+            // The backend samples by the flag in traceparent, so an untraced request stays untraced there too
+            Context context = span.getSpanContext().isValid() ? Context.current().with(span) : Context.current();
+            Tracing.propagator().inject(context, conn, HttpURLConnection::setRequestProperty);
+            if (requestBody != null) {
+                conn.setDoOutput(true);
+                conn.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = conn.getOutputStream()) {
+                    mapper.writeValue(out, requestBody);
+                }
+            }
+
+            int status = conn.getResponseCode();
+            span.setAttribute("http.response.status_code", status);
+            byte[] body = readFully(status < 400 ? conn.getInputStream() : conn.getErrorStream());
+            if (status == 404 && "GET".equals(method)) {
+                return null;
+            }
+            if (status >= 400) {
+                span.setStatus(StatusCode.ERROR);
+                throw new BackendException(status, failure + ": " + detail(status, body));
+            }
+            return body.length == 0 ? null : mapper.readTree(body);
+
+        } catch (IOException e) {
+            Tracing.recordError(span, e);
+            throw new RuntimeException(failure, e);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Span for one call to the backend; a non-recording one when the request is not traced
+     */
+    private static Span startClientSpan(String method, String url) {
+        if (!Tracing.sampled()) {
+            return Span.getInvalid();
+        }
+        return Tracing.tracer().spanBuilder(method)
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("http.request.method", method)
+                .setAttribute("url.full", url)
+                .startSpan();
+    }
+
+    private String detail(int status, byte[] body) {
+        try {
+            JsonNode problem = mapper.readTree(body);
+            if (problem != null && problem.hasNonNull("detail")) {
+                return problem.get("detail").asText();
+            }
+        } catch (IOException e) {
+            // not a problem+json body
+        }
+        return "HTTP " + status;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * An error status from the API
+     */
+    private static class BackendException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        BackendException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
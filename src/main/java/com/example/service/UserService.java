@@ -1,52 +1,69 @@
 package com.example.service;
 
 import com.example.model.User;
+import com.example.tracing.Tracing;
 
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * User service class that handles database operations using H2 in-memory database
+ * User service class that handles database operations using H2 in-memory database.
+ * When the system property {@value #BACKEND_URL_PROPERTY} is set (e.g. http://localhost:8081)
+ * the calls are delegated to the Spring Boot user API instead, so both stacks share one data layer.
+ * They identify themselves with the API key in {@value #BACKEND_API_KEY_PROPERTY}, which the
+ * backend gives a rate quota of its own (app.rate-limit.clients.struts); without it every page
+ * view competes with all other unidentified local clients for one address-keyed bucket.
  */
 public class UserService {
-    private static final String DB_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
-    private static final String DB_USER = "sa";
-    private static final String DB_PASSWORD = "";
+    public static final String BACKEND_URL_PROPERTY = "userService.backendUrl";
+    public static final String BACKEND_API_KEY_PROPERTY = "userService.backendApiKey";
     
-    private static UserService instance;
+    private final UserStore store;
     
-    private UserService() {
-        initializeDatabase();
-        insertSampleData();
+    private final AtomicBoolean initialized = new AtomicBoolean();
+    
+    private UserService(UserStore store) {
+        this.store = store;
+    }
+    
+    /**
+     * Initialization-on-demand holder: the JVM's class initialization makes the
+     * first call thread-safe, and later calls are a plain static field read
+     */
+    private static final class Holder {
+        static final UserService INSTANCE = new UserService(createStore());
     }
     
-    public static synchronized UserService getInstance() {
-        if (instance == null) {
-            instance = new UserService();
+    public static UserService getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    UserStore getStore() {
+        return store;
+    }
+    
+    private static UserStore createStore() {
+        String backendUrl = System.getProperty(BACKEND_URL_PROPERTY);
+        if (backendUrl != null && !backendUrl.trim().isEmpty()) {
+            String apiKey = System.getProperty(BACKEND_API_KEY_PROPERTY);
+            return new RestUserStore(backendUrl.trim(),
+                    apiKey != null && !apiKey.trim().isEmpty() ? apiKey.trim() : null);
         }
-        return instance;
+        return new JdbcUserStore();
     }
     
     /**
-     * Initialize the H2 in-memory database and create the users table
+     * Create the schema and insert the sample data; runs once, from
+     * UserDataInitializer at application startup. The backend creates and
+     * seeds its own schema, so there is nothing to do for a REST store.
      */
-    private void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-             Statement stmt = conn.createStatement()) {
-            
-            // Create users table
-            String createTableSQL = "CREATE TABLE IF NOT EXISTS users (" +
-                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
-                    "first_name VARCHAR(50) NOT NULL, " +
-                    "last_name VARCHAR(50) NOT NULL, " +
-                    "email VARCHAR(100) NOT NULL UNIQUE, " +
-                    "phone VARCHAR(20)" +
-                    ")";
-            stmt.executeUpdate(createTableSQL);
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize database", e);
+    public void initialize() {
+        if (!initialized.compareAndSet(false, true)) {
+            return;
+        }
+        if (store instanceof JdbcUserStore) {
+            ((JdbcUserStore) store).initializeDatabase();
+            insertSampleData();
         }
     }
     
@@ -65,137 +82,45 @@ public class UserService {
         }
     }
     
+    /**
+     * Current data version; changes whenever a user is inserted, updated or deleted,
+     * also by the other clients of a shared backend
+     */
+    public long getDataVersion() {
+        return store.getDataVersion();
+    }
+    
     /**
      * Get all users from the database
      */
     public List<User> getAllUsers() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY id";
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setFirstName(rs.getString("first_name"));
-                user.setLastName(rs.getString("last_name"));
-                user.setEmail(rs.getString("email"));
-                user.setPhone(rs.getString("phone"));
-                users.add(user);
-            }
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to retrieve users", e);
-        }
-        
-        return users;
+        return Tracing.call("UserService.getAllUsers", store::findAll);
     }
     
     /**
      * Get a user by ID
      */
     public User getUserById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setFirstName(rs.getString("first_name"));
-                user.setLastName(rs.getString("last_name"));
-                user.setEmail(rs.getString("email"));
-                user.setPhone(rs.getString("phone"));
-                return user;
-            }
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to retrieve user with id: " + id, e);
-        }
-        
-        return null;
+        return Tracing.call("UserService.getUserById", () -> store.findById(id));
     }
     
     /**
      * Save a new user or update an existing one
      */
     public void save(User user) {
-        if (user.getId() == null) {
-            insertUser(user);
-        } else {
-            updateUser(user);
-        }
-    }
-    
-    /**
-     * Insert a new user
-     */
-    private void insertUser(User user) {
-        String sql = "INSERT INTO users (first_name, last_name, email, phone) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, user.getFirstName());
-            stmt.setString(2, user.getLastName());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getPhone());
-            
-            stmt.executeUpdate();
-            
-            // Get the generated ID
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                user.setId(rs.getLong(1));
+        Tracing.run("UserService.save", () -> {
+            if (user.getId() == null) {
+                store.insert(user);
+            } else {
+                store.update(user);
             }
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert user", e);
-        }
-    }
-    
-    /**
-     * Update an existing user
-     */
-    private void updateUser(User user) {
-        String sql = "UPDATE users SET first_name = ?, last_name = ?, email = ?, phone = ? WHERE id = ?";
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, user.getFirstName());
-            stmt.setString(2, user.getLastName());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getPhone());
-            stmt.setLong(5, user.getId());
-            
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to update user", e);
-        }
+        });
     }
     
     /**
      * Delete a user by ID
      */
     public void deleteUser(Long id) {
-        String sql = "DELETE FROM users WHERE id = ?";
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to delete user with id: " + id, e);
-        }
+        Tracing.run("UserService.deleteUser", () -> store.delete(id));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.example.service;
+
+import com.example.model.User;
+
+import java.util.List;
+
+/**
+ * Storage behind UserService; JDBC against the embedded database by default,
+ * or the Spring Boot user API when the two stacks share one data layer
+ */
+public interface UserStore {
+
+    List<User> findAll();
+
+    /**
+     * @return the user, or null if there is none with this id
+     */
+    User findById(Long id);
+
+    /**
+     * Inserts the user and sets its generated id
+     */
+    void insert(User user);
+
+    void update(User user);
+
+    void delete(Long id);
+
+    /**
+     * Version of the stored users; it changes whenever a user is inserted,
+     * updated or deleted, through this JVM or any other writer of the store
+     */
+    long getDataVersion();
+}
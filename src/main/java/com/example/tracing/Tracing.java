@@ -0,0 +1,154 @@
+package com.example.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracing for the Struts application, in the same shape as the backend's:
+ * a server span per request (TracingFilter), a span per action invocation
+ * (TracingInterceptor) and spans for the UserService and UserStore calls
+ * under it. The trace context is passed on to the backend in a traceparent
+ * header when the REST store is used, so both sides end up in one trace.
+ * <p>
+ * System properties:
+ * <ul>
+ *   <li>{@value #SAMPLING_PROBABILITY_PROPERTY}: fraction of requests traced,
+ *       default 0.01; an incoming traceparent header decides for its request</li>
+ *   <li>{@value #FILE_PROPERTY}: JSON-lines file the finished spans are
+ *       appended to, same format as the backend's app.tracing.file</li>
+ * </ul>
+ * The most recent spans are also kept in memory, see {@link #recentSpans()}.
+ */
+public final class Tracing {
+    public static final String SAMPLING_PROBABILITY_PROPERTY = "tracing.samplingProbability";
+    public static final String FILE_PROPERTY = "tracing.file";
+
+    private static final Logger LOG = Logger.getLogger(Tracing.class.getName());
+    private static final String SERVICE_NAME = "struts-demo";
+    private static final int RECENT_SPANS = 1000;
+
+    private final SdkTracerProvider tracerProvider;
+    private final Tracer tracer;
+    private final RecentSpans recentSpans = new RecentSpans(RECENT_SPANS);
+
+    private Tracing() {
+        double probability = Double.parseDouble(System.getProperty(SAMPLING_PROBABILITY_PROPERTY, "0.01"));
+        SdkTracerProviderBuilder builder = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(
+                        Attributes.of(AttributeKey.stringKey("service.name"), SERVICE_NAME))))
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(probability)))
+                .addSpanProcessor(SimpleSpanProcessor.create(recentSpans));
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null && !file.trim().isEmpty()) {
+            try {
+                builder.addSpanProcessor(BatchSpanProcessor.builder(new FileSpanExporter(Paths.get(file.trim()))).build());
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot write spans to " + file, e);
+            }
+        }
+        tracerProvider = builder.build();
+        tracer = tracerProvider.get(Tracing.class.getName());
+    }
+
+    private static final class Holder {
+        static final Tracing INSTANCE = new Tracing();
+    }
+
+    public static Tracer tracer() {
+        return Holder.INSTANCE.tracer;
+    }
+
+    public static TextMapPropagator propagator() {
+        return W3CTraceContextPropagator.getInstance();
+    }
+
+    /**
+     * Spans finished recently, oldest first
+     */
+    public static RecentSpans recentSpans() {
+        return Holder.INSTANCE.recentSpans;
+    }
+
+    /**
+     * Exports what is still buffered; called when the application stops
+     */
+    public static void shutdown() {
+        Holder.INSTANCE.tracerProvider.shutdown();
+    }
+
+    /**
+     * @return whether the current request is traced, i.e. whether
+     *         application spans are recorded under it
+     */
+    public static boolean sampled() {
+        return Span.current().getSpanContext().isSampled();
+    }
+
+    /**
+     * @return a started child of the current span, or null when the current
+     *         request is not traced
+     */
+    public static Span startChild(String name, SpanKind kind) {
+        if (!sampled()) {
+            return null;
+        }
+        return tracer().spanBuilder(name).setSpanKind(kind).startSpan();
+    }
+
+    /**
+     * Runs the call in a child span (or directly, when not traced)
+     */
+    public static <T> T call(String name, Supplier<T> call) {
+        Span span = startChild(name, SpanKind.INTERNAL);
+        if (span == null) {
+            return call.get();
+        }
+        try (Scope scope = span.makeCurrent()) {
+            return call.get();
+        } catch (RuntimeException | Error e) {
+            recordError(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    public static void run(String name, Runnable run) {
+        call(name, () -> {
+            run.run();
+            return null;
+        });
+    }
+
+    public static void recordError(Span span, Throwable error) {
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR, String.valueOf(error.getMessage()));
+    }
+
+    /**
+     * Carries the current trace context over to another thread
+     */
+    public static Runnable wrap(Runnable runnable) {
+        return Context.current().wrap(runnable);
+    }
+}
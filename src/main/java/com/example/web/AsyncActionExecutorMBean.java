@@ -0,0 +1,21 @@
+package com.example.web;
+
+/**
+ * JMX view of the executor that runs asynchronous Struts actions
+ */
+public interface AsyncActionExecutorMBean {
+
+    int getPoolSize();
+
+    int getActiveCount();
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+
+    long getCompletedCount();
+
+    long getRejectedCount();
+
+    long getTimedOutCount();
+}
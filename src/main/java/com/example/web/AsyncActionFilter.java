@@ -0,0 +1,208 @@
+package com.example.web;
+
+import com.example.tracing.Tracing;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves the slow part of selected Struts actions off the container threads
+ * using Servlet 3 async support.
+ * <p>
+ * For a matching request the filter starts async mode and returns the
+ * container thread to the pool. A worker from a dedicated bounded executor
+ * runs the configured {@link AsyncWork} (the user list query), copies its
+ * result into request attributes, and then dispatches the request back
+ * through the container. On that ASYNC dispatch Struts runs the action,
+ * which picks up the prefetched result instead of calling the service,
+ * and renders the result page.
+ * <p>
+ * A request that cannot be queued, or that waits longer than
+ * {@code queueTimeoutMillis} for a worker, is answered with 503, as is one
+ * that exceeds {@code timeoutMillis} overall. The Struts filter must be
+ * async-supported and mapped for the ASYNC dispatcher. Once a request has
+ * been answered with 503 its worker neither runs the work nor touches the
+ * request again, since the container may already have recycled it. Executor metrics are
+ * published over JMX as {@code com.example:type=AsyncActionExecutor}.
+ */
+public class AsyncActionFilter implements Filter {
+
+    private static final Logger LOG = Logger.getLogger(AsyncActionFilter.class.getName());
+    private static final String MBEAN_NAME = "com.example:type=AsyncActionExecutor";
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int FINISHED = 2;
+
+    private AsyncWork work;
+    private AsyncActionExecutor executor;
+    private long queueTimeoutNanos;
+    private long timeoutMillis;
+    private boolean enabled;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        enabled = Boolean.parseBoolean(param(config, "enabled", "true"));
+        try {
+            work = (AsyncWork) Class.forName(param(config, "workClass", "com.example.action.UserAsyncWork"))
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException("Cannot create async work class", e);
+        }
+        queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(param(config, "queueTimeoutMillis", "2000")));
+        timeoutMillis = Long.parseLong(param(config, "timeoutMillis", "30000"));
+        executor = new AsyncActionExecutor(
+                Integer.parseInt(param(config, "poolSize", "32")),
+                Integer.parseInt(param(config, "queueCapacity", "500")));
+        registerMBean();
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        final HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (!enabled
+                || request.getDispatcherType() != DispatcherType.REQUEST
+                || !request.isAsyncSupported()
+                || !work.handles(httpRequest.getServletPath())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(timeoutMillis);
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        final long enqueuedAt = System.nanoTime();
+        // Copied on the container thread; the worker must not read the request
+        final String servletPath = httpRequest.getServletPath();
+        final String contextPath = httpRequest.getContextPath();
+        final Map<String, String[]> parameters = new HashMap<>(httpRequest.getParameterMap());
+
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                // Whoever moves the state to FINISHED first owns the response
+                if (state.getAndSet(FINISHED) != FINISHED) {
+                    executor.recordTimeout();
+                    sendUnavailable(asyncContext, "Request timed out");
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        try {
+            // Keeps the request's trace context, so the UserService spans land under its server span
+            executor.execute(Tracing.wrap(new Runnable() {
+                @Override
+                public void run() {
+                    if (!state.compareAndSet(QUEUED, RUNNING)) {
+                        return;
+                    }
+                    if (System.nanoTime() - enqueuedAt > queueTimeoutNanos) {
+                        if (state.compareAndSet(RUNNING, FINISHED)) {
+                            executor.recordTimeout();
+                            sendUnavailable(asyncContext, "Request waited too long for a worker");
+                            asyncContext.complete();
+                        }
+                        return;
+                    }
+                    Map<String, Object> attributes = Collections.emptyMap();
+                    try {
+                        attributes = work.execute(contextPath, parameters);
+                    } catch (Exception e) {
+                        // The action falls back to calling the service itself and reports the error
+                        LOG.log(Level.WARNING, "Async work failed for " + servletPath, e);
+                    }
+                    // Lost to onTimeout: the 503 is sent and the request is no longer ours
+                    if (!state.compareAndSet(RUNNING, FINISHED)) {
+                        return;
+                    }
+                    ServletRequest asyncRequest = asyncContext.getRequest();
+                    for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                        asyncRequest.setAttribute(attribute.getKey(), attribute.getValue());
+                    }
+                    asyncContext.dispatch();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            state.set(FINISHED);
+            sendUnavailable(asyncContext, "Server is busy, please retry");
+            asyncContext.complete();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(MBEAN_NAME));
+        } catch (Exception e) {
+            LOG.log(Level.FINE, "Could not unregister " + MBEAN_NAME, e);
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(executor, name);
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Could not register " + MBEAN_NAME, e);
+        }
+    }
+
+    private static void sendUnavailable(AsyncContext asyncContext, String message) {
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, message);
+        } catch (IOException | IllegalStateException e) {
+            LOG.log(Level.FINE, "Could not send 503", e);
+        }
+    }
+
+    private static String param(FilterConfig config, String name, String defaultValue) {
+        String value = config.getInitParameter(name);
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+}
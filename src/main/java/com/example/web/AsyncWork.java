@@ -0,0 +1,30 @@
+package com.example.web;
+
+import java.util.Map;
+
+/**
+ * Slow work performed on the async executor before a request is dispatched
+ * back to Struts. Results are handed to the action as request attributes.
+ */
+public interface AsyncWork {
+
+    /**
+     * @return true if this work applies to the given servlet path
+     */
+    boolean handles(String servletPath);
+
+    /**
+     * Run on a worker thread. The request itself is not passed in: by the
+     * time this runs it may already have timed out and been recycled by
+     * the container, so the work only gets a copy of what it may read and
+     * returns the attributes to set. The filter applies them only if the
+     * request is still going to be dispatched. It must not write data: it
+     * runs before the interceptor stack, and the request can still time
+     * out with a retryable 503.
+     *
+     * @param contextPath the request's context path
+     * @param parameters a copy of the request parameters
+     * @return request attributes for the action, never null
+     */
+    Map<String, Object> execute(String contextPath, Map<String, String[]> parameters) throws Exception;
+}
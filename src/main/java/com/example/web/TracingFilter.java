@@ -0,0 +1,133 @@
+package com.example.web;
+
+import com.example.tracing.Tracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Starts the server span of each request, continuing the trace of an
+ * incoming traceparent header. For requests that go async (see
+ * {@link AsyncActionFilter}) the span stays open across the worker and the
+ * ASYNC dispatch, and ends when the async cycle completes. Must be mapped
+ * ahead of the async filter, for the REQUEST and ASYNC dispatchers.
+ */
+public class TracingFilter implements Filter {
+
+    private static final String SPAN_ATTRIBUTE = TracingFilter.class.getName() + ".span";
+
+    private static final TextMapGetter<HttpServletRequest> HEADERS = new TextMapGetter<HttpServletRequest>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String name) {
+            return request == null ? null : request.getHeader(name);
+        }
+    };
+
+    @Override
+    public void init(FilterConfig config) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            Span span = (Span) request.getAttribute(SPAN_ATTRIBUTE);
+            if (span == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            try (Scope scope = span.makeCurrent()) {
+                chain.doFilter(request, response);
+            }
+            return;
+        }
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Context parent = Tracing.propagator().extract(Context.root(), httpRequest, HEADERS);
+        final Span span = Tracing.tracer().spanBuilder(httpRequest.getMethod() + " " + httpRequest.getServletPath())
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .startSpan();
+        if (span.isRecording()) {
+            span.setAttribute("http.request.method", httpRequest.getMethod());
+            span.setAttribute("url.path", httpRequest.getRequestURI());
+        }
+        request.setAttribute(SPAN_ATTRIBUTE, span);
+        try (Scope scope = span.makeCurrent()) {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            Tracing.recordError(span, e);
+            span.end();
+            throw e;
+        }
+
+        if (!request.isAsyncStarted()) {
+            end(span, (HttpServletResponse) response);
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                end(span, (HttpServletResponse) event.getSuppliedResponse());
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                span.addEvent("async timeout");
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                if (event.getThrowable() != null) {
+                    Tracing.recordError(span, event.getThrowable());
+                }
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        Tracing.shutdown();
+    }
+
+    private static void end(Span span, HttpServletResponse response) {
+        if (span.isRecording()) {
+            int status = response.getStatus();
+            span.setAttribute("http.response.status_code", status);
+            if (status >= 500) {
+                span.setStatus(StatusCode.ERROR);
+            }
+        }
+        span.end();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.web;
+
+import com.example.tracing.Tracing;
+import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.ActionProxy;
+import com.opensymphony.xwork2.interceptor.AbstractInterceptor;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Scope;
+
+/**
+ * A span per action invocation, named like {@code UserAction.list}, covering
+ * the rest of the interceptor stack, the action method and the result
+ * (JSP rendering or redirect). Outermost in the stack, see struts.xml.
+ */
+public class TracingInterceptor extends AbstractInterceptor {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String intercept(ActionInvocation invocation) throws Exception {
+        if (!Tracing.sampled()) {
+            return invocation.invoke();
+        }
+        ActionProxy proxy = invocation.getProxy();
+        Span span = Tracing.startChild(invocation.getAction().getClass().getSimpleName() + "." + proxy.getMethod(),
+                SpanKind.INTERNAL);
+        span.setAttribute("struts.action", proxy.getActionName());
+        try (Scope scope = span.makeCurrent()) {
+            String result = invocation.invoke();
+            span.setAttribute("struts.result", result);
+            return result;
+        } catch (Exception | Error e) {
+            Tracing.recordError(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.web;
+
+import com.example.service.UserService;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+/**
+ * Creates the users schema and sample data when the application starts,
+ * so the first request does not pay for it
+ */
+public class UserDataInitializer implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        UserService.getInstance().initialize();
+        event.getServletContext().log("UserService initialized");
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        // The in-memory database lives as long as the JVM
+    }
+}
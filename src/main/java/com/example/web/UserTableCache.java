@@ -0,0 +1,80 @@
+package com.example.web;
+
+import com.example.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Rendered user table rows, reused until UserService's data version moves.
+ * <p>
+ * Callers read the data version before loading users and store the fragment
+ * under that version, so a write that races with the load leaves the entry
+ * already stale rather than caching old rows under the new version.
+ */
+public final class UserTableCache {
+
+    private static final UserTableCache INSTANCE = new UserTableCache();
+
+    private volatile Fragment current;
+
+    public static UserTableCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the cached fragment for this version and context path, or null
+     */
+    public Fragment lookup(long dataVersion, String contextPath) {
+        Fragment fragment = current;
+        if (fragment != null && fragment.dataVersion == dataVersion
+                && fragment.contextPath.equals(contextPath)) {
+            return fragment;
+        }
+        return null;
+    }
+
+    /**
+     * Render the rows and cache them under the version read before loading
+     */
+    public Fragment store(long dataVersion, String contextPath, List<User> users) {
+        StringBuilder html = new StringBuilder(users.size() * 420);
+        try {
+            UserTableRenderer.renderRows(users, contextPath, html);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        Fragment fragment = new Fragment(dataVersion, contextPath, html.toString(), users.size());
+        current = fragment;
+        return fragment;
+    }
+
+    public void clear() {
+        current = null;
+    }
+
+    public static final class Fragment {
+
+        private final long dataVersion;
+        private final String contextPath;
+        private final String html;
+        private final int rowCount;
+
+        Fragment(long dataVersion, String contextPath, String html, int rowCount) {
+            this.dataVersion = dataVersion;
+            this.contextPath = contextPath;
+            this.html = html;
+            this.rowCount = rowCount;
+        }
+
+        public String getHtml() {
+            return html;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.web;
+
+import com.example.model.User;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the rows of the user table as HTML without going through the
+ * Struts tags, so no OGNL expression is evaluated per cell. The markup
+ * matches what user-list.jsp produced with s:iterator/s:property/s:url.
+ */
+public final class UserTableRenderer {
+
+    private UserTableRenderer() {
+    }
+
+    public static void renderRows(List<User> users, String contextPath, Appendable out) throws IOException {
+        for (User user : users) {
+            out.append("<tr>\n<td>").append(String.valueOf(user.getId())).append("</td>\n<td>");
+            escape(user.getFirstName(), out);
+            out.append("</td>\n<td>");
+            escape(user.getLastName(), out);
+            out.append("</td>\n<td>");
+            escape(user.getEmail(), out);
+            out.append("</td>\n<td>");
+            escape(user.getPhone(), out);
+            out.append("</td>\n<td>\n<a href=\"");
+            escape(contextPath, out);
+            out.append("/editUser.action?userId=").append(String.valueOf(user.getId()))
+                    .append("\" class=\"btn btn-warning\">Edit</a>\n<a href=\"");
+            escape(contextPath, out);
+            out.append("/deleteUser.action?userId=").append(String.valueOf(user.getId()))
+                    .append("\" class=\"btn btn-danger\" ")
+                    .append("onclick=\"return confirm('Are you sure you want to delete this user?')\">Delete</a>\n")
+                    .append("</td>\n</tr>\n");
+        }
+    }
+
+    /**
+     * HTML-escape text the same way s:property does by default; null renders as empty
+     */
+    static void escape(String text, Appendable out) throws IOException {
+        if (text == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\'':
+                    replacement = "&#39;";
+                    break;
+                default:
+                    continue;
+            }
+            out.append(text, start, i).append(replacement);
+            start = i + 1;
+        }
+        out.append(text, start, text.length());
+    }
+}
@@ -6,7 +6,7 @@
     <a href="<s:url action='userForm'/>" class="btn">Add New User</a>
 </div>
 
-<s:if test="users != null && users.size() > 0">
+<s:if test="hasUsers">
     <table class="table">
         <thead>
             <tr>
@@ -19,22 +19,8 @@
             </tr>
         </thead>
         <tbody>
-            <s:iterator value="users" var="user">
-                <tr>
-                    <td><s:property value="#user.id"/></td>
-                    <td><s:property value="#user.firstName"/></td>
-                    <td><s:property value="#user.lastName"/></td>
-                    <td><s:property value="#user.email"/></td>
-                    <td><s:property value="#user.phone"/></td>
-                    <td>
-                        <a href="<s:url action='editUser'><s:param name='userId' value='#user.id'/></s:url>" 
-                           class="btn btn-warning">Edit</a>
-                        <a href="<s:url action='deleteUser'><s:param name='userId' value='#user.id'/></s:url>" 
-                           class="btn btn-danger"
-                           onclick="return confirm('Are you sure you want to delete this user?')">Delete</a>
-                    </td>
-                </tr>
-            </s:iterator>
+            <%-- Rows are rendered and escaped by UserTableRenderer and cached between changes --%>
+            <s:property value="userTableHtml" escapeHtml="false"/>
         </tbody>
     </table>
 </s:if>
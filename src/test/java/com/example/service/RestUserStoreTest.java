@@ -0,0 +1,109 @@
+package com.example.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Data version of the REST store against a stub of the backend's change feed
+ */
+public class RestUserStoreTest {
+
+    private HttpServer backend;
+    private RestUserStore store;
+
+    /** Watermark the stub reports; negative makes it answer 501 like a sharded backend */
+    private final AtomicLong watermark = new AtomicLong(3);
+    private final AtomicInteger feedCalls = new AtomicInteger();
+    /** Status the stub fails with instead, when set */
+    private final AtomicInteger failWith = new AtomicInteger();
+    private final AtomicReference<String> apiKey = new AtomicReference<>();
+
+    @Before
+    public void startBackend() throws IOException {
+        backend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        backend.createContext("/api/users/changes", exchange -> {
+            feedCalls.incrementAndGet();
+            apiKey.set(exchange.getRequestHeaders().getFirst("X-API-Key"));
+            long current = watermark.get();
+            int status = failWith.get() != 0 ? failWith.get() : current < 0 ? 501 : 200;
+            String body = status == 501
+                    ? "{\"status\":501,\"detail\":\"Change feed not available with sharded storage\"}"
+                    : status != 200
+                    ? "{\"status\":" + status + ",\"detail\":\"Too many requests\"}"
+                    : "{\"changed\":[],\"deleted\":[],\"watermark\":" + current + ",\"hasMore\":false}";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        backend.start();
+        store = new RestUserStore("http://localhost:" + backend.getAddress().getPort(), "struts-key");
+    }
+
+    @After
+    public void stopBackend() {
+        backend.stop(0);
+    }
+
+    @Test
+    public void testVersionIsStableUntilTheBackendChanges() {
+        long first = store.getDataVersion();
+        assertEquals("Version should be the change feed watermark", 3, first);
+        assertEquals("Version should not move without writes", first, store.getDataVersion());
+
+        // A write by another client of the backend
+        watermark.set(4);
+        assertEquals("Version should move with the backend's writes", 4, store.getDataVersion());
+        assertEquals(3, feedCalls.get());
+    }
+
+    @Test
+    public void testVersionChangesOnEveryCallWithoutAChangeFeed() {
+        watermark.set(-1);
+        long first = store.getDataVersion();
+        long second = store.getDataVersion();
+        assertNotEquals("Nothing should be reused without a change feed", first, second);
+        assertTrue("Fallback versions should never equal a watermark", first < 0 && second < 0);
+    }
+
+    @Test
+    public void testCallsCarryTheBridgeApiKey() {
+        store.getDataVersion();
+        assertEquals("The backend keys the bridge's quota by it", "struts-key", apiKey.get());
+
+        RestUserStore anonymous = new RestUserStore("http://localhost:" + backend.getAddress().getPort(), null);
+        anonymous.getDataVersion();
+        assertNull(apiKey.get());
+    }
+
+    @Test
+    public void testBackendErrorIsReportedNotHiddenBehindANewVersion() {
+        failWith.set(429);
+        try {
+            store.getDataVersion();
+            fail("A failed change feed read should not look like a data change");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Too many requests"));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnreachableBackendIsReported() {
+        backend.stop(0);
+        store.getDataVersion();
+    }
+}
@@ -1,10 +1,19 @@
 package com.example.service;
 
 import com.example.model.User;
+import org.h2.jdbcx.JdbcConnectionPool;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -18,6 +27,7 @@ public class UserServiceTest {
     @Before
     public void setUp() {
         userService = UserService.getInstance();
+        userService.initialize();
     }
     
     @Test
@@ -79,4 +89,73 @@ public class UserServiceTest {
         // Verify user is deleted
         assertNull("User should not exist after deletion", userService.getUserById(userId));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetInstanceReturnsOneInstanceToConcurrentCallers() throws Exception {
+        List<UserService> instances = runConcurrently(16, new Callable<UserService>() {
+            @Override
+            public UserService call() {
+                return UserService.getInstance();
+            }
+        });
+
+        for (UserService instance : instances) {
+            assertSame("Every caller should get the same instance", userService, instance);
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareTheConnectionPool() throws Exception {
+        final Long id = userService.getAllUsers().get(0).getId();
+        final JdbcConnectionPool pool = ((JdbcUserStore) userService.getStore()).getPool();
+        final AtomicInteger peakActive = new AtomicInteger();
+
+        // More callers than pooled connections, each making many calls
+        List<JdbcConnectionPool> pools = runConcurrently(64, new Callable<JdbcConnectionPool>() {
+            @Override
+            public JdbcConnectionPool call() {
+                for (int i = 0; i < 50; i++) {
+                    assertNotNull("Every lookup should find the user", userService.getUserById(id));
+                    peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                }
+                return ((JdbcUserStore) UserService.getInstance().getStore()).getPool();
+            }
+        });
+
+        for (JdbcConnectionPool callersPool : pools) {
+            assertSame("Every caller should use the same pool", pool, callersPool);
+        }
+        assertTrue("Callers should never hold more connections than the pool allows",
+                peakActive.get() <= pool.getMaxConnections());
+        assertEquals("Every connection should be back in the pool", 0, pool.getActiveConnections());
+    }
+
+    /**
+     * Starts all tasks together and waits for their results
+     */
+    private static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<Future<T>>();
+            for (int i = 0; i < threads; i++) {
+                final Callable<T> delegate = task;
+                futures.add(executor.submit(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        start.await();
+                        return delegate.call();
+                    }
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<T>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
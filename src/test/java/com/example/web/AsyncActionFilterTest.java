@@ -0,0 +1,376 @@
+package com.example.web;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncActionFilterTest {
+
+    private static final String ASYNC_PATH = "/slow.action";
+
+    private AsyncActionFilter filter;
+
+    @Before
+    public void resetWork() {
+        BlockingWork.release = new CountDownLatch(0);
+        BlockingWork.started = new CountDownLatch(1);
+        BlockingWork.runs.set(0);
+    }
+
+    @After
+    public void destroyFilter() {
+        BlockingWork.release.countDown();
+        if (filter != null) {
+            filter.destroy();
+        }
+    }
+
+    @Test
+    public void testDispatchesWithTheAttributesTheWorkReturned() throws Exception {
+        filter = filter(4, 10, 2000);
+        FakeExchange exchange = new FakeExchange(ASYNC_PATH);
+        exchange.parameters.put("page", new String[] {"2"});
+
+        filter.doFilter(exchange.request, exchange.response, exchange.chain);
+
+        exchange.awaitEnd();
+        assertTrue(exchange.context.dispatched.get());
+        assertFalse(exchange.chainCalled.get());
+        assertEquals("/ctx", exchange.attributes.get(BlockingWork.CONTEXT_PATH_ATTRIBUTE));
+        assertEquals("2", exchange.attributes.get(BlockingWork.PAGE_ATTRIBUTE));
+        assertEquals(0, exchange.status.get());
+    }
+
+    @Test
+    public void testOtherPathsStayOnTheContainerThread() throws Exception {
+        filter = filter(4, 10, 2000);
+        FakeExchange exchange = new FakeExchange("/userForm.action");
+
+        filter.doFilter(exchange.request, exchange.response, exchange.chain);
+
+        assertTrue(exchange.chainCalled.get());
+        assertNull(exchange.context.listener);
+        assertEquals(0, BlockingWork.runs.get());
+    }
+
+    @Test
+    public void testTimeoutAnswers503AndTheWorkerLeavesTheRequestAlone() throws Exception {
+        filter = filter(1, 10, 2000);
+        BlockingWork.release = new CountDownLatch(1);
+        FakeExchange timedOut = new FakeExchange(ASYNC_PATH);
+        filter.doFilter(timedOut.request, timedOut.response, timedOut.chain);
+        BlockingWork.started.await(5, TimeUnit.SECONDS);
+
+        timedOut.context.listener.onTimeout(new AsyncEvent(timedOut.context));
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, timedOut.status.get());
+        assertEquals("1", timedOut.headers.get("Retry-After"));
+        assertTrue(timedOut.context.completed.get());
+
+        // The container may now recycle the request; the worker finishing must not touch it
+        timedOut.recycled.set(true);
+        BlockingWork.release.countDown();
+        // A single worker runs tasks in order, so this one dispatching means the first is done
+        FakeExchange next = new FakeExchange(ASYNC_PATH);
+        filter.doFilter(next.request, next.response, next.chain);
+        next.awaitEnd();
+
+        assertTrue(next.context.dispatched.get());
+        assertFalse(timedOut.context.dispatched.get());
+        assertTrue(timedOut.attributes.isEmpty());
+        assertTrue(timedOut.touchedAfterRecycle.isEmpty());
+    }
+
+    @Test
+    public void testRejectsWith503WhenThePoolAndQueueAreFull() throws Exception {
+        filter = filter(1, 1, 2000);
+        BlockingWork.release = new CountDownLatch(1);
+        FakeExchange running = new FakeExchange(ASYNC_PATH);
+        FakeExchange queued = new FakeExchange(ASYNC_PATH);
+        FakeExchange rejected = new FakeExchange(ASYNC_PATH);
+
+        filter.doFilter(running.request, running.response, running.chain);
+        filter.doFilter(queued.request, queued.response, queued.chain);
+        filter.doFilter(rejected.request, rejected.response, rejected.chain);
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, rejected.status.get());
+        assertEquals("1", rejected.headers.get("Retry-After"));
+        assertTrue(rejected.context.completed.get());
+        assertFalse(rejected.chainCalled.get());
+
+        BlockingWork.release.countDown();
+        running.awaitEnd();
+        queued.awaitEnd();
+        assertTrue(running.context.dispatched.get());
+        assertTrue(queued.context.dispatched.get());
+        assertEquals(2, BlockingWork.runs.get());
+    }
+
+    @Test
+    public void testRequestThatWaitedTooLongForAWorkerGets503WithoutRunningTheWork() throws Exception {
+        filter = filter(1, 10, 50);
+        BlockingWork.release = new CountDownLatch(1);
+        FakeExchange running = new FakeExchange(ASYNC_PATH);
+        FakeExchange waiting = new FakeExchange(ASYNC_PATH);
+        filter.doFilter(running.request, running.response, running.chain);
+        filter.doFilter(waiting.request, waiting.response, waiting.chain);
+
+        Thread.sleep(150);
+        BlockingWork.release.countDown();
+        running.awaitEnd();
+        waiting.awaitEnd();
+
+        assertTrue(running.context.dispatched.get());
+        assertFalse(waiting.context.dispatched.get());
+        assertTrue(waiting.context.completed.get());
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, waiting.status.get());
+        assertEquals(1, BlockingWork.runs.get());
+    }
+
+    private static AsyncActionFilter filter(int poolSize, int queueCapacity, long queueTimeoutMillis)
+            throws Exception {
+        final Map<String, String> params = new HashMap<>();
+        params.put("workClass", BlockingWork.class.getName());
+        params.put("poolSize", String.valueOf(poolSize));
+        params.put("queueCapacity", String.valueOf(queueCapacity));
+        params.put("queueTimeoutMillis", String.valueOf(queueTimeoutMillis));
+        AsyncActionFilter filter = new AsyncActionFilter();
+        filter.init(proxy(FilterConfig.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return "getInitParameter".equals(method.getName()) ? params.get(args[0]) : null;
+            }
+        }));
+        return filter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(AsyncActionFilterTest.class.getClassLoader(),
+                new Class<?>[] {type}, handler);
+    }
+
+    /**
+     * Echoes what it was given and blocks until released, so tests can hold
+     * the single worker busy.
+     */
+    public static class BlockingWork implements AsyncWork {
+
+        static final String CONTEXT_PATH_ATTRIBUTE = "contextPath";
+        static final String PAGE_ATTRIBUTE = "page";
+
+        static volatile CountDownLatch release = new CountDownLatch(0);
+        static volatile CountDownLatch started = new CountDownLatch(1);
+        static final AtomicInteger runs = new AtomicInteger();
+
+        @Override
+        public boolean handles(String servletPath) {
+            return ASYNC_PATH.equals(servletPath);
+        }
+
+        @Override
+        public Map<String, Object> execute(String contextPath, Map<String, String[]> parameters)
+                throws Exception {
+            runs.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put(CONTEXT_PATH_ATTRIBUTE, contextPath);
+            String[] page = parameters.get("page");
+            if (page != null) {
+                attributes.put(PAGE_ATTRIBUTE, page[0]);
+            }
+            return attributes;
+        }
+    }
+
+    /**
+     * A request, response and async context just capable enough for the
+     * filter, recording what it does to them.
+     */
+    private static class FakeExchange {
+
+        final Map<String, Object> attributes = new HashMap<>();
+        final Map<String, String[]> parameters = new HashMap<>();
+        final Map<String, String> headers = new HashMap<>();
+        final AtomicInteger status = new AtomicInteger();
+        final AtomicBoolean chainCalled = new AtomicBoolean();
+        final AtomicBoolean recycled = new AtomicBoolean();
+        final List<String> touchedAfterRecycle = new CopyOnWriteArrayList<>();
+        final FakeAsyncContext context = new FakeAsyncContext(this);
+        final HttpServletRequest request;
+        final HttpServletResponse response;
+        final FilterChain chain;
+
+        FakeExchange(final String servletPath) {
+            request = proxy(HttpServletRequest.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if (recycled.get()) {
+                        touchedAfterRecycle.add(method.getName());
+                    }
+                    switch (method.getName()) {
+                        case "getDispatcherType":
+                            return DispatcherType.REQUEST;
+                        case "isAsyncSupported":
+                            return true;
+                        case "getServletPath":
+                            return servletPath;
+                        case "getContextPath":
+                            return "/ctx";
+                        case "getParameterMap":
+                            return Collections.unmodifiableMap(parameters);
+                        case "startAsync":
+                            return context;
+                        case "setAttribute":
+                            synchronized (attributes) {
+                                attributes.put((String) args[0], args[1]);
+                            }
+                            return null;
+                        case "getAttribute":
+                            synchronized (attributes) {
+                                return attributes.get(args[0]);
+                            }
+                        default:
+                            return null;
+                    }
+                }
+            });
+            response = proxy(HttpServletResponse.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    switch (method.getName()) {
+                        case "isCommitted":
+                            return status.get() != 0;
+                        case "setHeader":
+                            headers.put((String) args[0], (String) args[1]);
+                            return null;
+                        case "sendError":
+                            status.set((Integer) args[0]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                }
+            });
+            chain = new FilterChain() {
+                @Override
+                public void doFilter(ServletRequest request, ServletResponse response) {
+                    chainCalled.set(true);
+                }
+            };
+        }
+
+        void awaitEnd() throws InterruptedException {
+            assertTrue("request was neither dispatched nor completed",
+                    context.ended.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static class FakeAsyncContext implements AsyncContext {
+
+        final FakeExchange exchange;
+        final AtomicBoolean dispatched = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        final CountDownLatch ended = new CountDownLatch(1);
+        volatile AsyncListener listener;
+        private long timeout;
+
+        FakeAsyncContext(FakeExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return exchange.request;
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return exchange.response;
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return true;
+        }
+
+        @Override
+        public void dispatch() {
+            dispatched.set(true);
+            ended.countDown();
+        }
+
+        @Override
+        public void dispatch(String path) {
+            dispatch();
+        }
+
+        @Override
+        public void dispatch(ServletContext context, String path) {
+            dispatch();
+        }
+
+        @Override
+        public void complete() {
+            completed.set(true);
+            ended.countDown();
+        }
+
+        @Override
+        public void start(Runnable run) {
+            new Thread(run).start();
+        }
+
+        @Override
+        public void addListener(AsyncListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+            this.listener = listener;
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public long getTimeout() {
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.web;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * The struts.xml on the classpath, after resource filtering with the active
+ * build profile's settings (devMode on by default, off with -Pproduction)
+ */
+public class StrutsConfigurationTest {
+
+    private static final Map<String, String> CONSTANTS = new HashMap<String, String>();
+
+    @BeforeClass
+    public static void readConstants() throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        try (InputStream in = StrutsConfigurationTest.class.getResourceAsStream("/struts.xml")) {
+            assertNotNull("struts.xml should be on the classpath", in);
+            Document document = builder.parse(in);
+            NodeList constants = document.getElementsByTagName("constant");
+            for (int i = 0; i < constants.getLength(); i++) {
+                Element constant = (Element) constants.item(i);
+                CONSTANTS.put(constant.getAttribute("name"), constant.getAttribute("value"));
+            }
+        }
+    }
+
+    @Test
+    public void testEveryPlaceholderIsFiltered() {
+        for (Map.Entry<String, String> constant : CONSTANTS.entrySet()) {
+            assertFalse(constant.getKey() + " was not filtered", constant.getValue().contains("${"));
+        }
+    }
+
+    @Test
+    public void testReloadingFollowsDevMode() {
+        String devMode = CONSTANTS.get("struts.devMode");
+        assertTrue("devMode should be true or false", "true".equals(devMode) || "false".equals(devMode));
+        assertEquals(devMode, CONSTANTS.get("struts.configuration.xml.reload"));
+        assertEquals(devMode, CONSTANTS.get("struts.i18n.reload"));
+    }
+
+    @Test
+    public void testTemplateCacheIsOnWhenDevModeIsOff() {
+        if ("false".equals(CONSTANTS.get("struts.devMode"))) {
+            assertEquals("true", CONSTANTS.get("struts.freemarker.templatesCache"));
+        }
+        assertTrue(Integer.parseInt(CONSTANTS.get("struts.freemarker.templatesCache.updateDelay")) >= 0);
+        assertEquals("The OGNL expression cache is on in every build",
+                "true", CONSTANTS.get("struts.ognl.enableExpressionCache"));
+    }
+}
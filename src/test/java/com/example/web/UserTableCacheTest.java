@@ -0,0 +1,56 @@
+package com.example.web;
+
+import com.example.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UserTableCacheTest {
+
+    private final UserTableCache cache = UserTableCache.getInstance();
+    private final List<User> users = Arrays.asList(
+            new User(1L, "John", "Doe", "john@example.com", null),
+            new User(2L, "Jane", "Smith", "jane@example.com", null));
+
+    @Before
+    @After
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @Test
+    public void testHitForTheVersionAndContextPathItWasStoredUnder() {
+        UserTableCache.Fragment stored = cache.store(5, "/struts-demo", users);
+
+        assertSame(stored, cache.lookup(5, "/struts-demo"));
+        assertEquals(2, stored.getRowCount());
+        assertTrue(stored.getHtml().contains("jane@example.com"));
+    }
+
+    @Test
+    public void testMissOnceTheDataVersionMoves() {
+        cache.store(5, "/struts-demo", users);
+
+        assertNull(cache.lookup(6, "/struts-demo"));
+    }
+
+    @Test
+    public void testMissForAnotherContextPath() {
+        cache.store(5, "/struts-demo", users);
+
+        assertNull("Links in the fragment carry the context path", cache.lookup(5, "/other"));
+    }
+
+    @Test
+    public void testClearDropsTheFragment() {
+        cache.store(5, "/struts-demo", users);
+        cache.clear();
+
+        assertNull(cache.lookup(5, "/struts-demo"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.web;
+
+import com.example.model.User;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * user-list.jsp writes the rendered rows with escapeHtml="false", so
+ * everything a user typed must already be escaped here
+ */
+public class UserTableRendererTest {
+
+    private static String render(List<User> users, String contextPath) throws IOException {
+        StringBuilder out = new StringBuilder();
+        UserTableRenderer.renderRows(users, contextPath, out);
+        return out.toString();
+    }
+
+    @Test
+    public void testEscapesEveryUserSuppliedField() throws IOException {
+        User user = new User(7L, "<script>alert(\"x\")</script>", "O'Brien & Sons", "a<b>@example.com",
+                "555'<i>");
+
+        String html = render(Collections.singletonList(user), "/struts-demo");
+
+        assertFalse("Markup in user data must not reach the page", html.contains("<script>"));
+        assertFalse(html.contains("<b>"));
+        assertFalse(html.contains("<i>"));
+        assertTrue(html.contains("<td>&lt;script&gt;alert(&quot;x&quot;)&lt;/script&gt;</td>"));
+        assertTrue(html.contains("<td>O&#39;Brien &amp; Sons</td>"));
+        assertTrue(html.contains("<td>a&lt;b&gt;@example.com</td>"));
+        assertTrue(html.contains("<td>555&#39;&lt;i&gt;</td>"));
+    }
+
+    @Test
+    public void testEscapesTheContextPathInLinks() throws IOException {
+        String html = render(Collections.singletonList(new User(1L, "A", "B", "a@example.com", null)),
+                "/app\"><x");
+
+        assertTrue(html.contains("href=\"/app&quot;&gt;&lt;x/editUser.action?userId=1\""));
+        assertTrue(html.contains("href=\"/app&quot;&gt;&lt;x/deleteUser.action?userId=1\""));
+    }
+
+    @Test
+    public void testRendersOneRowPerUserInOrder() throws IOException {
+        List<User> users = Arrays.asList(
+                new User(2L, "Jane", "Smith", "jane@example.com", null),
+                new User(1L, "John", "Doe", "john@example.com", "555-0101"));
+
+        String html = render(users, "/struts-demo");
+
+        assertEquals(2, html.split("<tr>", -1).length - 1);
+        assertTrue(html.indexOf("Jane") < html.indexOf("John"));
+        assertTrue("A missing phone renders as an empty cell", html.contains("<td>jane@example.com</td>\n<td></td>"));
+        assertTrue(html.contains("<a href=\"/struts-demo/editUser.action?userId=2\" class=\"btn btn-warning\">"));
+        assertEquals("", render(Collections.<User>emptyList(), "/struts-demo"));
+    }
+}